@@ -0,0 +1,201 @@
+package benchmarks;
+
+import util.CsvReader;
+import util.CsvWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares util.CsvReader with the former SysData line parsers
+ * (splitCsvLine / parseLine, copied below as they were) on generated files
+ *
+ * Usage: java benchmarks.CsvBenchmark [lines]   (default 1,000,000)
+ */
+public class CsvBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        Path questions = Files.createTempFile("bench-questions", ".csv");
+        Path history = Files.createTempFile("bench-history", ".csv");
+        try {
+            writeQuestions(questions, lines);
+            writeHistory(history, lines);
+            System.out.printf("questions.csv-like: %,d lines, %,d bytes%n", lines, Files.size(questions));
+            System.out.printf("history.csv-like:   %,d lines, %,d bytes%n", lines, Files.size(history));
+
+            for (int r = 1; r <= ROUNDS; r++) {
+                System.out.printf("-- round %d --%n", r);
+                time("legacy splitCsvLine ", () -> legacyQuestions(questions));
+                time("CsvReader (',')     ", () -> readerFields(questions, ','));
+                time("legacy parseLine    ", () -> legacyHistory(history));
+                time("CsvReader (';')     ", () -> readerFields(history, ';'));
+            }
+        } finally {
+            Files.deleteIfExists(questions);
+            Files.deleteIfExists(history);
+        }
+    }
+
+    private interface Job {
+        long run() throws IOException;
+    }
+
+    private static void time(String label, Job job) throws IOException {
+        long t0 = System.nanoTime();
+        long fields = job.run();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        System.out.printf("%s %6d ms  (%,d fields)%n", label, ms, fields);
+    }
+
+    // ============================================================
+    // Data
+    // ============================================================
+
+    private static void writeQuestions(Path p, int lines) throws IOException {
+        try (CsvWriter out = new CsvWriter(Files.newBufferedWriter(p, StandardCharsets.UTF_8), ',')) {
+            out.writeRecord("ID", "Question", "Difficulty", "A", "B", "C", "D", "CorrectAnswer");
+            for (int i = 1; i < lines; i++) {
+                out.field(i)
+                   .field("What is the value of \"x\" in equation number " + i + ", given y?")
+                   .field(1 + i % 4)
+                   .field("Option A " + i).field("Option B").field("Option C, maybe").field("Option D")
+                   .field(String.valueOf((char) ('A' + i % 4)));
+                out.endRecord();
+            }
+        }
+    }
+
+    private static void writeHistory(Path p, int lines) throws IOException {
+        try (CsvWriter out = new CsvWriter(Files.newBufferedWriter(p, StandardCharsets.UTF_8), ';')) {
+            long ts = 1_700_000_000_000L;
+            for (int i = 0; i < lines; i++) {
+                out.field("Player" + (i % 97))
+                   .field("Player" + (i % 89))
+                   .field(i % 3 == 0 ? "EASY" : i % 3 == 1 ? "MEDIUM" : "HARD")
+                   .field(i % 11)
+                   .field(i % 500 - 100)
+                   .field(String.valueOf(i % 2 == 0))
+                   .field(60 + i % 900)
+                   .field(ts + i * 1000L);
+                out.endRecord();
+            }
+        }
+    }
+
+    // ============================================================
+    // Readers
+    // ============================================================
+
+    private static long legacyQuestions(Path p) throws IOException {
+        long fields = 0;
+        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) continue;
+                fields += splitCsvLine(line).length;
+            }
+        }
+        return fields;
+    }
+
+    private static long legacyHistory(Path p) throws IOException {
+        long fields = 0;
+        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) continue;
+                fields += parseLine(line).size();
+            }
+        }
+        return fields;
+    }
+
+    private static long readerFields(Path p, char delimiter) throws IOException {
+        long fields = 0;
+        try (CsvReader in = new CsvReader(
+                new InputStreamReader(Files.newInputStream(p), StandardCharsets.UTF_8), delimiter)) {
+            while (in.next()) {
+                // materialize every field like the loaders do
+                for (int i = 0; i < in.fieldCount(); i++) in.get(i);
+                fields += in.fieldCount();
+            }
+        }
+        return fields;
+    }
+
+    // ============================================================
+    // Former SysData parsers (unchanged)
+    // ============================================================
+
+    private static String[] splitCsvLine(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean inQ = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (inQ) {
+                if (ch == '"' && i+1 < line.length() && line.charAt(i+1)=='"') {
+                    cur.append('"'); i++;
+                } else if (ch == '"') {
+                    inQ = false;
+                } else {
+                    cur.append(ch);
+                }
+            } else {
+                if (ch == ',') {
+                    out.add(cur.toString());
+                    cur.setLength(0);
+                } else if (ch == '"') {
+                    inQ = true;
+                } else {
+                    cur.append(ch);
+                }
+            }
+        }
+
+        out.add(cur.toString());
+        return out.toArray(new String[0]);
+    }
+
+    private static List<String> parseLine(String line) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean inQ = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (inQ) {
+                if (ch=='"' && i+1<line.length() && line.charAt(i+1)=='"') {
+                    cur.append('"'); i++;
+                } else if (ch=='"') {
+                    inQ = false;
+                } else {
+                    cur.append(ch);
+                }
+            } else {
+                if (ch==';') {
+                    out.add(cur.toString());
+                    cur.setLength(0);
+                } else if (ch=='"') {
+                    inQ = true;
+                } else {
+                    cur.append(ch);
+                }
+            }
+        }
+
+        out.add(cur.toString());
+        return out;
+    }
+}
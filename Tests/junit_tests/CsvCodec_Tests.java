@@ -0,0 +1,61 @@
+package junit_tests;
+
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import util.CsvReader;
+import util.CsvWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+public class CsvCodec_Tests {
+
+    private static String write(char delim, String[]... records) throws IOException {
+        StringWriter sw = new StringWriter();
+        try (CsvWriter w = new CsvWriter(sw, delim)) {
+            for (String[] r : records) w.writeRecord(r);
+        }
+        return sw.toString();
+    }
+
+    @Test
+    // quoted fields with delimiters, quotes and line breaks survive a write/read round trip
+    public void testMultiLineRoundTrip() throws IOException {
+        String[] a = {"1", "Line one\nline two, with \"quotes\"", "3"};
+        String[] b = {"2", "plain", "a;b"};
+        String csv = write(',', a, b);
+
+        try (CsvReader r = new CsvReader(new StringReader(csv), ',')) {
+            assertTrue(r.next());
+            assertEquals(3, r.fieldCount());
+            assertEquals(a[1], r.get(1));
+            assertEquals(3, r.getInt(2));
+
+            assertTrue(r.next());
+            assertEquals(3L, r.lineNumber());
+            assertEquals("a;b", r.get(2));
+            assertFalse(r.next());
+        }
+    }
+
+    @Test
+    // semicolon records, CRLF endings, blank lines and a BOM as found in history.csv
+    public void testSemicolonHistoryLine() throws IOException {
+        String csv = "\uFEFFAna;Ben;EASY;3; -12 ;true;95;1700000000000\r\n\r\nx;\"y;z\"\r\n";
+
+        try (CsvReader r = new CsvReader(new StringReader(csv), ';')) {
+            assertTrue(r.next());
+            assertEquals(8, r.fieldCount());
+            assertEquals("Ana", r.get(0));
+            assertEquals(-12, r.getInt(4));
+            assertEquals(1700000000000L, r.getLong(7));
+
+            assertTrue(r.next());
+            assertEquals(2, r.fieldCount());
+            assertEquals("y;z", r.get(1));
+            assertFalse(r.next());
+        }
+    }
+}
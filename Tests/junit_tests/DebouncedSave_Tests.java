@@ -0,0 +1,111 @@
+package junit_tests;
+
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import util.DebouncedSave;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class DebouncedSave_Tests {
+
+    /** Owner whose first write blocks until released, so a flush can race it */
+    private static final class Counter {
+        int value;
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        DebouncedSave.Snapshot copy() {
+            int v = value;
+            return out -> {
+                if (writing.getCount() > 0) {
+                    writing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                out.write(Integer.toString(v).getBytes(StandardCharsets.UTF_8));
+            };
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        Files.deleteIfExists(dir.resolve("state.txt"));
+        Files.deleteIfExists(dir.resolve("state.txt.tmp"));
+        Files.deleteIfExists(dir);
+    }
+
+    private static Thread flushInBackground(DebouncedSave save) {
+        Thread t = new Thread(save::flushNow, "test-flush");
+        t.start();
+        return t;
+    }
+
+    @Test
+    // a flush racing a scheduled save waits for it and then writes the newer state last
+    public void testFlushDuringScheduledSaveWritesNewest() throws Exception {
+        Path dir = Files.createTempDirectory("dsave");
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("state.txt");
+            Counter c = new Counter();
+            DebouncedSave save = new DebouncedSave(file, c, 10, exec, "test-save-flush", c::copy);
+
+            synchronized (c) { c.value = 1; }
+            save.changed();
+            assertTrue(c.writing.await(5, TimeUnit.SECONDS));
+
+            synchronized (c) { c.value = 2; }
+            save.markDirty();
+            Thread flusher = flushInBackground(save);
+            flusher.join(200);
+            assertTrue("flush must wait for the write in progress", flusher.isAlive());
+
+            c.release.countDown();
+            flusher.join(5_000);
+            assertFalse(flusher.isAlive());
+            assertEquals("2", Files.readString(file));
+        } finally {
+            exec.shutdownNow();
+            delete(dir);
+        }
+    }
+
+    @Test
+    // the exit flush with nothing new still returns only after the write in progress is on disk
+    public void testFlushWaitsForWriteInProgress() throws Exception {
+        Path dir = Files.createTempDirectory("dsave");
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Path file = dir.resolve("state.txt");
+            Counter c = new Counter();
+            DebouncedSave save = new DebouncedSave(file, c, 10, exec, "test-save-flush", c::copy);
+
+            synchronized (c) { c.value = 7; }
+            save.changed();
+            assertTrue(c.writing.await(5, TimeUnit.SECONDS));
+
+            Thread flusher = flushInBackground(save);
+            flusher.join(200);
+            assertTrue(flusher.isAlive());
+            assertFalse(Files.exists(file));
+
+            c.release.countDown();
+            flusher.join(5_000);
+            assertFalse(flusher.isAlive());
+            assertEquals("7", Files.readString(file));
+        } finally {
+            exec.shutdownNow();
+            delete(dir);
+        }
+    }
+}
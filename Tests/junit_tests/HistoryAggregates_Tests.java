@@ -0,0 +1,91 @@
+package junit_tests;
+
+import model.DifficultyLevel;
+import model.HistoryAggregates;
+import model.HistoryAggregates.Board;
+import model.HistoryAggregates.Ranked;
+import model.HistoryAggregates.Summary;
+import model.HistoryColumns;
+import model.SysData.GameRecord;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.util.List;
+
+public class HistoryAggregates_Tests {
+
+    private static final String[] NAMES = {"Ann", "Bob", "Cat", "dan", "ANN"};
+
+    /** Enough records for several parallel chunks; values follow a fixed pattern */
+    private static HistoryColumns history(int n) {
+        HistoryColumns h = new HistoryColumns();
+        for (int i = 0; i < n; i++) {
+            h.add(NAMES[i % 5], NAMES[(i / 5) % 5], DifficultyLevel.values()[i % 3],
+                    i % 4, (i * 37) % 200, i % 3 == 0, 30 + (i * 13) % 500, i);
+        }
+        return h;
+    }
+
+    private static void assertSameSummary(Summary want, Summary got) {
+        assertEquals(want.name(), got.name());
+        assertEquals(want.games(), got.games());
+        assertEquals(want.wins(), got.wins());
+        assertEquals(want.bestPoints(), got.bestPoints());
+        assertEquals(want.avgPoints(), got.avgPoints(), 1e-9);
+        assertEquals(want.fastestWinSec(), got.fastestWinSec());
+    }
+
+    @Test
+    // the parallel build over many chunks equals adding the records one by one
+    public void testBuildMatchesIncrementalAdds() {
+        HistoryColumns h = history(30_000);
+        HistoryAggregates built = HistoryAggregates.build(h);
+        HistoryAggregates added = new HistoryAggregates();
+        for (int i = 0; i < h.size(); i++) added.add(h.get(i));
+
+        for (DifficultyLevel d : DifficultyLevel.values()) {
+            for (String name : NAMES) assertSameSummary(added.player(name, d), built.player(name, d));
+            assertSameSummary(added.pair("Bob", "Cat", d), built.pair("Cat", "Bob", d));
+            for (Board b : Board.values()) {
+                assertEquals(added.top(b, d, false), built.top(b, d, false));
+                assertEquals(added.top(b, d, true), built.top(b, d, true));
+            }
+        }
+    }
+
+    @Test
+    // names are case-insensitive; a player paired with themself is counted once
+    public void testPlayerTotals() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("Ann", "Bob", DifficultyLevel.EASY, 3, 40, true, 90, 1);
+        h.add("ann", "ANN", DifficultyLevel.EASY, 1, 10, false, 30, 2);
+        h.add("Bob", "Ann", DifficultyLevel.EASY, 2, 70, true, 60, 3);
+        HistoryAggregates agg = HistoryAggregates.build(h);
+
+        Summary ann = agg.player("ANN", DifficultyLevel.EASY);
+        assertEquals(3, ann.games());
+        assertEquals(2, ann.wins());
+        assertEquals(70, ann.bestPoints());
+        assertEquals(40.0, ann.avgPoints(), 1e-9);
+        assertEquals(60, ann.fastestWinSec());
+        assertEquals(2, agg.pair("bob", "ann", DifficultyLevel.EASY).games());
+        assertNull(agg.player("Ann", DifficultyLevel.HARD));
+    }
+
+    @Test
+    // archived buckets count in summaries and leaderboards like single records
+    public void testBucketsReachTheBoards() {
+        HistoryAggregates agg = new HistoryAggregates();
+        agg.add(new GameRecord("Ann", "Bob", DifficultyLevel.HARD, 3, 40, true, 90, 1));
+        agg.addBucket("Cat", "Dan", DifficultyLevel.HARD, 10, 7, 500, 95, 25);
+
+        List<Ranked> wins = agg.top(Board.MOST_WINS, DifficultyLevel.HARD, false);
+        assertEquals("Cat", wins.get(0).name());
+        assertEquals(7, wins.get(0).value());
+
+        List<Ranked> fastest = agg.top(Board.FASTEST_WIN, DifficultyLevel.HARD, true);
+        assertEquals(25, fastest.get(0).value());
+        assertEquals(90, fastest.get(1).value());
+        assertEquals(50.0, agg.player("dan", DifficultyLevel.HARD).avgPoints(), 1e-9);
+    }
+}
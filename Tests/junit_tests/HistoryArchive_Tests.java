@@ -0,0 +1,116 @@
+package junit_tests;
+
+import model.DifficultyLevel;
+import model.HistoryArchive;
+import model.HistoryArchive.Bucket;
+import model.HistoryArchive.Summary;
+import model.HistoryColumns;
+import model.HistoryIndex;
+import model.HistorySource;
+import model.SysData.GameRecord;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class HistoryArchive_Tests {
+
+    private static final long DAY = 86_400_000L;
+
+    /** Noon of a fixed day (local time), so rows land on a known bucket day */
+    private static long noon(int dayOffset) {
+        return LocalDate.of(2024, 3, 1).plusDays(dayOffset)
+                .atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static HistoryColumns history() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("Ann", "Bob", DifficultyLevel.EASY, 3, 40, true,  90, noon(0));
+        h.add("Ann", "Bob", DifficultyLevel.EASY, 1, 70, false, 30, noon(0) + 1_000);
+        h.add("Cat", "Dan", DifficultyLevel.HARD, 2, 10, true,  5_000_000_000L, noon(1));
+        h.add("Ann", "Bob", DifficultyLevel.EASY, 2, 55, true,  60, noon(9));
+        return h;
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> s = Files.walk(dir)) {
+            for (Path p : s.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Test
+    // rows of the same day, pair and level merge into one bucket; the file keeps the cutoff
+    public void testSummaryRollUpRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("archive");
+        try {
+            HistoryColumns h = history();
+            List<Bucket> buckets = HistoryArchive.rollUp(List.of(), h, new int[]{0, 1, 2});
+            assertEquals(2, buckets.size());
+
+            Bucket annBob = buckets.get(0);
+            assertEquals(LocalDate.of(2024, 3, 1).toEpochDay(), annBob.epochDay());
+            assertEquals(2, annBob.games());
+            assertEquals(1, annBob.wins());
+            assertEquals(110, annBob.sumPoints());
+            assertEquals(70, annBob.bestPoints());
+            assertEquals(90, annBob.fastestWinSec());
+
+            // a second compaction adds to the existing buckets
+            List<Bucket> again = HistoryArchive.rollUp(buckets, h, new int[]{0});
+            assertEquals(3, again.get(0).games());
+
+            Path file = dir.resolve("history-summary.csv");
+            HistoryArchive.writeSummary(file, noon(2), buckets);
+            Summary read = HistoryArchive.readSummary(file);
+            assertEquals(noon(2), read.compactedBefore());
+            assertEquals(buckets, read.buckets());
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    // archived rows read back unchanged and stay searchable and sortable
+    public void testSegmentRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("archive");
+        try {
+            HistoryColumns h = history();
+            Path seg = HistoryArchive.writeSegment(dir, h, new int[]{0, 1, 2});
+            assertEquals("history-2024-03-01_2024-03-02.csv.gz", seg.getFileName().toString());
+            Path second = HistoryArchive.writeSegment(dir, h, new int[]{0, 1, 2});
+            assertEquals("history-2024-03-01_2024-03-02-2.csv.gz", second.getFileName().toString());
+
+            HistorySource src = HistoryArchive.open(seg);
+            assertEquals(3, src.size());
+            GameRecord[] rows = src.window(0, 3);
+            assertEquals("Cat", rows[2].p1);
+            assertEquals(5_000_000_000L, rows[2].timeSec);
+            assertEquals(noon(0) + 1_000, rows[1].timestamp);
+            assertFalse(rows[1].won);
+
+            assertArrayEquals(new int[]{2}, src.find(new HistoryIndex.Filter("da", null, null, null, null)));
+            assertArrayEquals(new int[]{1, 0, 2},
+                    src.sorted(HistoryColumns.Field.POINTS, false, null));
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    // after compaction only the rows from the cutoff on stay, in order, with their names
+    public void testRetainFromDropsOlderRows() {
+        HistoryColumns h = history();
+        assertEquals(3, h.retainFrom(noon(9) - DAY));
+        assertEquals(1, h.size());
+        assertEquals("Ann", h.p1(0));
+        assertEquals(55, h.points(0));
+        assertEquals(0, h.retainFrom(0));
+    }
+}
@@ -0,0 +1,61 @@
+package junit_tests;
+
+import model.DifficultyLevel;
+import model.HistoryColumns;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+public class HistoryColumns_Tests {
+
+    private static HistoryColumns sample() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("bob",   "ann", DifficultyLevel.EASY,   3, 40, true,  90, 1_000);
+        h.add("Ann",   "cat", DifficultyLevel.HARD,   1, 10, false, 30, 2_000);
+        h.add("carl",  "ann", DifficultyLevel.MEDIUM, 2, 40, true,  60, 3_000);
+        h.add("bob",   "dan", DifficultyLevel.EASY,   0, 25, false, 45, 4_000);
+        return h;
+    }
+
+    private static int[] sort(HistoryColumns h, HistoryColumns.Field f, boolean asc, int[] rows) {
+        return HistoryColumns.order(h.sortKeys(f, rows), rows, asc);
+    }
+
+    @Test
+    // equal keys keep store order whichever way the column is sorted
+    public void testSortIsStableInBothDirections() {
+        HistoryColumns h = sample();
+        assertArrayEquals(new int[]{1, 3, 0, 2}, sort(h, HistoryColumns.Field.POINTS, true, null));
+        assertArrayEquals(new int[]{0, 2, 3, 1}, sort(h, HistoryColumns.Field.POINTS, false, null));
+    }
+
+    @Test
+    // names sort case-insensitively; a subset comes back as store positions
+    public void testNamesAndSubsets() {
+        HistoryColumns h = sample();
+        assertArrayEquals(new int[]{1, 0, 3, 2}, sort(h, HistoryColumns.Field.P1, true, null));
+        assertArrayEquals(new int[]{3, 2}, sort(h, HistoryColumns.Field.DATE, false, new int[]{2, 3}));
+    }
+
+    @Test
+    // keys too far apart to pack (timestamps around Long.MIN/MAX) still sort correctly
+    public void testWideKeyRange() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("a", "b", DifficultyLevel.EASY, 1, 1, true, 1, Long.MAX_VALUE);
+        h.add("a", "b", DifficultyLevel.EASY, 1, 1, true, 1, Long.MIN_VALUE);
+        h.add("a", "b", DifficultyLevel.EASY, 1, 1, true, 1, 0);
+        assertArrayEquals(new int[]{1, 2, 0}, sort(h, HistoryColumns.Field.DATE, true, null));
+        assertArrayEquals(new int[]{0, 2, 1}, sort(h, HistoryColumns.Field.DATE, false, null));
+    }
+
+    @Test
+    // hearts and time are stored at full width, get(i) returns what was added
+    public void testValuesAreNotTruncated() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("a", "b", DifficultyLevel.HARD, 40_000, -5, false, 3_000_000_000L, 7);
+        assertEquals(40_000, h.hearts(0));
+        assertEquals(3_000_000_000L, h.timeSec(0));
+        assertEquals(3_000_000_000L, h.get(0).timeSec);
+        assertEquals("b", h.get(0).p2);
+        assertEquals(DifficultyLevel.HARD, h.get(0).level);
+    }
+}
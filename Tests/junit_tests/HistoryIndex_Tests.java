@@ -0,0 +1,55 @@
+package junit_tests;
+
+import model.DifficultyLevel;
+import model.HistoryIndex;
+import model.HistoryIndex.Filter;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+public class HistoryIndex_Tests {
+
+    private static HistoryIndex sample() {
+        HistoryIndex idx = new HistoryIndex();
+        idx.add("Anna",  "Bob",   DifficultyLevel.EASY,   true,  1_000, 0);
+        idx.add("bob",   "Carl",  DifficultyLevel.HARD,   false, 3_000, 1);
+        idx.add("Andy",  "Anna",  DifficultyLevel.EASY,   false, 2_000, 2); // older than the one before
+        idx.add("Carl",  "Dora",  DifficultyLevel.MEDIUM, true,  4_000, 3);
+        return idx;
+    }
+
+    @Test
+    // no criteria means "everything", answered without building a position list
+    public void testAllReturnsNull() {
+        assertNull(sample().query(Filter.ALL));
+        assertNull(sample().query(new Filter("  ", null, null, null, null)));
+    }
+
+    @Test
+    // name prefixes match either player, case-insensitively, in store order
+    public void testNamePrefix() {
+        HistoryIndex idx = sample();
+        assertArrayEquals(new int[]{0, 2}, idx.query(new Filter("AN", null, null, null, null)));
+        assertArrayEquals(new int[]{0, 1}, idx.query(new Filter("bo", null, null, null, null)));
+        assertArrayEquals(new int[0], idx.query(new Filter("zed", null, null, null, null)));
+    }
+
+    @Test
+    // level, result and an inclusive time range combine with AND
+    public void testCombinedCriteria() {
+        HistoryIndex idx = sample();
+        assertArrayEquals(new int[]{2}, idx.query(new Filter(null, DifficultyLevel.EASY, false, null, null)));
+        assertArrayEquals(new int[]{1, 2}, idx.query(new Filter(null, null, null, 2_000L, 3_000L)));
+        assertArrayEquals(new int[]{1}, idx.query(new Filter("carl", null, false, 2_500L, null)));
+        assertArrayEquals(new int[]{0, 3}, idx.query(new Filter(null, null, true, null, null)));
+    }
+
+    @Test
+    // clear() forgets every position
+    public void testClear() {
+        HistoryIndex idx = sample();
+        idx.clear();
+        assertArrayEquals(new int[0], idx.query(new Filter(null, DifficultyLevel.EASY, null, null, null)));
+        idx.add("Eve", "Finn", DifficultyLevel.EASY, true, 5_000, 0);
+        assertArrayEquals(new int[]{0}, idx.query(new Filter("e", null, null, 0L, 9_000L)));
+    }
+}
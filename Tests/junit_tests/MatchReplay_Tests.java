@@ -0,0 +1,157 @@
+package junit_tests;
+
+import controller.MatchController;
+import model.DifficultyLevel;
+import model.Match;
+import model.MatchReplay;
+import model.Player;
+import model.Question;
+import model.QuestionLevel;
+import model.SysData;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class MatchReplay_Tests {
+
+    private static Match match(long seed) {
+        return new Match(new Player("Ann"), new Player("Bob"), DifficultyLevel.EASY, seed);
+    }
+
+    /** Reveals every cell twice per pass, so both boards get played to the end */
+    private static MatchReplay sweep(long seed) {
+        Match m = match(seed);
+        MatchReplay.Recorder rec = new MatchReplay.Recorder(m);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int r = 0; r < m.board1().rows(); r++) {
+                for (int c = 0; c < m.board1().cols(); c++) {
+                    rec.reveal(r, c);
+                    rec.reveal(r, c);
+                }
+            }
+        }
+        return rec.finish();
+    }
+
+    private static MatchReplay single(long seed, int r, int c) {
+        MatchReplay.Recorder rec = new MatchReplay.Recorder(match(seed));
+        rec.flag(r, c);
+        return rec.finish();
+    }
+
+    @Test
+    // cells moving back and forth (negative deltas) and question outcomes decode as recorded
+    public void testActionsRoundTrip() {
+        MatchReplay.Recorder rec = new MatchReplay.Recorder(match(1));
+        Question q = new Question("37", "q", List.of("a", "b", "c", "d"), 2, QuestionLevel.HARD);
+        rec.reveal(8, 8);
+        rec.flag(0, 0);
+        rec.question(4, 5, q, 1);
+        rec.surprise(8, 0);
+        rec.question(0, 8, null, 0);
+        MatchReplay replay = rec.finish();
+
+        List<MatchReplay.Action> a = replay.actions();
+        assertEquals(5, replay.size());
+        assertEquals(5, a.size());
+
+        assertEquals(MatchReplay.REVEAL, a.get(0).kind());
+        assertEquals(8, a.get(0).row());
+        assertEquals(8, a.get(0).col());
+        assertEquals(MatchReplay.FLAG, a.get(1).kind());
+        assertEquals(0, a.get(1).row());
+
+        MatchReplay.Action asked = a.get(2);
+        assertEquals(MatchReplay.QUESTION, asked.kind());
+        assertEquals(4, asked.row());
+        assertEquals(5, asked.col());
+        assertEquals(37, asked.questionId());
+        assertEquals(QuestionLevel.HARD, asked.questionLevel());
+        assertEquals(2, asked.correct());
+        assertEquals(1, asked.choice());
+        assertFalse(asked.right());
+
+        assertEquals(MatchReplay.SURPRISE, a.get(3).kind());
+        assertEquals(-1, a.get(4).questionId());
+        assertEquals(8, a.get(4).col());
+        for (int i = 1; i < a.size(); i++) assertTrue(a.get(i).atMs() >= a.get(i - 1).atMs());
+    }
+
+    @Test
+    // a half-written last entry (crash during append) is skipped by find and index
+    public void testTruncatedTailIsIgnored() throws IOException {
+        Path f = Files.createTempFile("replays", ".bin");
+        try {
+            MatchReplay first = single(1, 0, 0);
+            MatchReplay second = sweep(2);
+            MatchReplay.append(f, 100, first);
+            long at = MatchReplay.append(f, 200, second);
+            long end = Files.size(f);
+            MatchReplay.append(f, 300, sweep(3));
+            byte[] all = Files.readAllBytes(f);
+            Files.write(f, Arrays.copyOf(all, (int) end + 20), StandardOpenOption.TRUNCATE_EXISTING);
+
+            assertEquals(second, MatchReplay.find(f, 200));
+            assertNull(MatchReplay.find(f, 300));
+
+            Map<Long, Long> index = MatchReplay.index(f);
+            assertEquals(2, index.size());
+            assertEquals(Long.valueOf(at), index.get(200L));
+            assertEquals(first, MatchReplay.readAt(f, index.get(100L), 100));
+            assertEquals(second, MatchReplay.readAt(f, at, 200));
+            assertNull("offset of another match", MatchReplay.readAt(f, at, 100));
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+
+    @Test
+    // pruning keeps the newer entries readable and drops the rest (and the broken tail)
+    public void testPruneDropsOlderEntries() throws IOException {
+        Path f = Files.createTempFile("replays", ".bin");
+        try {
+            MatchReplay kept = single(2, 2, 2);
+            MatchReplay last = sweep(3);
+            MatchReplay.append(f, 10, single(1, 1, 1));
+            MatchReplay.append(f, 20, kept);
+            MatchReplay.append(f, 30, last);
+            Files.write(f, new byte[]{0, 0, 0}, StandardOpenOption.APPEND);
+
+            assertEquals(1, MatchReplay.prune(f, 20));
+
+            Map<Long, Long> index = MatchReplay.index(f);
+            assertEquals(2, index.size());
+            assertNull(MatchReplay.find(f, 10));
+            assertEquals(kept, MatchReplay.readAt(f, index.get(20L), 20));
+            assertEquals(last, MatchReplay.readAt(f, index.get(30L), 30));
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+
+    @Test
+    // a recorded match re-simulates to the same result every time (seeded boards and effects)
+    // If the game rules change on purpose, update the expected values below
+    public void testSimulateIsDeterministic() {
+        MatchReplay replay = sweep(42);
+        SysData.GameRecord a = MatchController.simulate(replay, "Ann", "Bob");
+        SysData.GameRecord b = MatchController.simulate(replay, "Ann", "Bob");
+
+        assertNotNull(a);
+        assertEquals(a.hearts, b.hearts);
+        assertEquals(a.points, b.points);
+        assertEquals(a.won, b.won);
+
+        assertEquals(DifficultyLevel.EASY, a.level);
+        assertEquals(0, a.hearts);
+        assertEquals(115, a.points);
+        assertFalse(a.won);
+    }
+}
@@ -0,0 +1,69 @@
+package junit_tests;
+
+import model.CellType;
+import model.DifficultyLevel;
+import model.MatchSave;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MatchSave_Tests {
+
+    /** Every valid code: a cell type in bits 0-2 and any of the four flags above */
+    private static byte[] codes(int n, int seed) {
+        byte[] c = new byte[n];
+        for (int i = 0; i < n; i++) {
+            int flags = (i * 7 + seed) & 0xF;
+            c[i] = (byte) ((flags << 3) | ((i + seed) % CellType.values().length));
+        }
+        return c;
+    }
+
+    @Test
+    // 7-bit cell codes that straddle long boundaries come back unchanged, on both boards
+    public void testRoundTripKeepsEveryCell() throws IOException {
+        int rows = 5, cols = 13; // 130 cells * 7 bits: codes cross several word boundaries
+        MatchSave.State s = new MatchSave.State("Ann", "Bob", DifficultyLevel.MEDIUM, 4, -12, 2,
+                3_725L, rows, cols, codes(rows * cols, 1), codes(rows * cols, 4));
+
+        Path f = Files.createTempFile("match", ".sav");
+        try {
+            MatchSave.write(f, s);
+            MatchSave.State r = MatchSave.read(f);
+
+            assertEquals("Ann", r.p1());
+            assertEquals("Bob", r.p2());
+            assertEquals(DifficultyLevel.MEDIUM, r.level());
+            assertEquals(4, r.lives());
+            assertEquals(-12, r.points());
+            assertEquals(2, r.active());
+            assertEquals(3_725L, r.elapsedSeconds());
+            assertEquals(rows, r.rows());
+            assertEquals(cols, r.cols());
+            assertArrayEquals(s.cells1(), r.cells1());
+            assertArrayEquals(s.cells2(), r.cells2());
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+
+    @Test
+    // a file without the save header is refused instead of decoded as garbage
+    public void testForeignFileIsRejected() throws IOException {
+        Path f = Files.createTempFile("match", ".sav");
+        try {
+            Files.write(f, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9});
+            try {
+                MatchSave.read(f);
+                fail("foreign file was read");
+            } catch (IOException expected) {
+                // ok
+            }
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+}
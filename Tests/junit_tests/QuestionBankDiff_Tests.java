@@ -0,0 +1,117 @@
+package junit_tests;
+
+import model.Question;
+import model.QuestionBankDiff;
+import model.QuestionLevel;
+import model.SysData;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class QuestionBankDiff_Tests {
+
+    private static Question q(String id, String text) {
+        return new Question(id, text, List.of("a", "b", "c", "d"), 0, QuestionLevel.EASY);
+    }
+
+    private static Question find(List<Question> bank, String id) {
+        for (Question q : bank) if (q.id().equals(id)) return q;
+        return null;
+    }
+
+    private static void writeBank(Path csv, String... texts) throws IOException {
+        StringBuilder sb = new StringBuilder("ID,Question,Difficulty,A,B,C,D,CorrectAnswer\n");
+        for (int i = 0; i < texts.length; i++) {
+            sb.append(9001 + i).append(',').append(texts[i]).append(",1,a,b,c,d,A\n");
+        }
+        Files.writeString(csv, sb.toString(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    // new ids are added, edited ids changed, missing ids removed
+    public void testAddedChangedRemoved() {
+        List<Question> current = List.of(q("1", "One"), q("2", "Two"), q("3", "Three"));
+        List<Question> parsed = List.of(q("1", "One"), q("2", "Two, edited"), q("4", "Four"));
+
+        QuestionBankDiff diff = QuestionBankDiff.of(current, parsed);
+        assertEquals(1, diff.added().size());
+        assertEquals("4", diff.added().get(0).id());
+        assertEquals(1, diff.changed().size());
+        assertEquals("Two, edited", diff.changed().get(0).text());
+        assertEquals(List.of("3"), diff.removed());
+        assertFalse(diff.isEmpty());
+    }
+
+    @Test
+    // an id listed twice in the file counts once, with its last version
+    public void testDuplicateIdLastWins() {
+        List<Question> current = List.of(q("1", "One"));
+
+        QuestionBankDiff same = QuestionBankDiff.of(current, List.of(q("1", "Old"), q("1", "One")));
+        assertTrue(same.isEmpty());
+
+        QuestionBankDiff edited = QuestionBankDiff.of(current, List.of(q("1", "One"), q("1", "New")));
+        assertEquals(1, edited.changed().size());
+        assertEquals("New", edited.changed().get(0).text());
+
+        QuestionBankDiff added = QuestionBankDiff.of(List.of(), List.of(q("2", "A"), q("2", "B")));
+        assertEquals(1, added.added().size());
+        assertEquals("B", added.added().get(0).text());
+    }
+
+    @Test
+    // re-reading an unchanged bank (e.g. our own save) gives an empty diff
+    public void testUnchangedBankIsEmpty() {
+        List<Question> current = List.of(q("1", "One"), q("2", "Two"));
+        List<Question> parsed = List.of(q("2", "Two"), q("1", "One"));
+
+        QuestionBankDiff diff = QuestionBankDiff.of(current, parsed);
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    // the fingerprint is exact: fixing only the letter case is a change
+    public void testCaseOnlyEditIsChanged() {
+        assertNotEquals(QuestionBankDiff.fingerprint(q("1", "what is UML?")),
+                QuestionBankDiff.fingerprint(q("1", "What is UML?")));
+
+        QuestionBankDiff diff = QuestionBankDiff.of(List.of(q("1", "what is UML?")), List.of(q("1", "What is UML?")));
+        assertEquals(1, diff.changed().size());
+        assertEquals(List.of(), diff.added());
+        assertEquals(List.of(), diff.removed());
+    }
+
+    @Test
+    // a reload swaps in only the edited question; unchanged ones keep their instances
+    public void testReloadKeepsUnchangedInstances() throws IOException {
+        SysData sd = SysData.getInstance();
+        Path dir = Files.createTempDirectory("qbank");
+        Path csv = dir.resolve("questions.csv");
+        try {
+            writeBank(csv, "First", "Second", "Third");
+            sd.reloadQuestions(csv);
+            List<Question> before = sd.questionsCopy();
+            assertEquals(3, before.size());
+
+            writeBank(csv, "First", "Second (edited)", "Third");
+            QuestionBankDiff diff = sd.reloadQuestions(csv);
+            assertEquals(1, diff.changed().size());
+
+            List<Question> after = sd.questionsCopy();
+            assertEquals(3, after.size());
+            assertSame(find(before, "9001"), find(after, "9001"));
+            assertSame(find(before, "9003"), find(after, "9003"));
+            assertNotSame(find(before, "9002"), find(after, "9002"));
+            assertEquals("Second (edited)", find(after, "9002").text());
+        } finally {
+            sd.reloadQuestions(); // back to questions.csv
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
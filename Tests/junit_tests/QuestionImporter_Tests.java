@@ -0,0 +1,84 @@
+package junit_tests;
+
+import model.Question;
+import model.QuestionImporter;
+import model.QuestionImporter.Result;
+import model.QuestionLevel;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class QuestionImporter_Tests {
+
+    private static Result importText(String suffix, String content, List<Question> bank) throws IOException {
+        Path f = Files.createTempFile("pack", suffix);
+        try {
+            Files.write(f, content.getBytes(StandardCharsets.UTF_8));
+            return QuestionImporter.read(f, bank);
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+
+    @Test
+    // valid rows become drafts in file order; bad rows are reported by line
+    public void testCsvValidation() throws IOException {
+        String csv = "ID,Question,Difficulty,A,B,C,D,CorrectAnswer\n"
+                + "1,What is 2+2?,1,3,4,5,6,B\n"
+                + "Capital of France?,HARD,Paris,Rome,Oslo,Bern,a\n"
+                + "2,,1,a,b,c,d,A\n"
+                + "3,Same options?,2,x,x,y,z,A\n"
+                + "4,Bad level?,9,a,b,c,d,A\n"
+                + "5,Bad answer?,2,a,b,c,d,E\n"
+                + "too,few\n";
+        Result r = importText(".csv", csv, List.of());
+
+        assertEquals(2, r.questions().size());
+        Question first = r.questions().get(0);
+        assertEquals("What is 2+2?", first.text());
+        assertEquals(QuestionLevel.EASY, first.level());
+        assertEquals(1, first.correctIndex());
+        assertEquals(QuestionLevel.HARD, r.questions().get(1).level());
+        assertEquals(0, r.questions().get(1).correctIndex());
+
+        assertEquals(5, r.errors().size());
+        long[] lines = r.errors().stream().mapToLong(QuestionImporter.LineError::line).toArray();
+        assertArrayEquals(new long[]{4, 5, 6, 7, 8}, lines);
+    }
+
+    @Test
+    // duplicates (case and spacing ignored) are skipped, inside the pack and against the bank
+    public void testDuplicates() throws IOException {
+        Question existing = new Question("7", "Largest planet?", List.of("Jupiter", "Mars", "Venus", "Earth"),
+                0, QuestionLevel.EASY);
+        String json = "[\n"
+                + "{\"question\": \"largest  PLANET?\", \"difficulty\": 1,"
+                + " \"options\": [\"jupiter\", \"mars\", \"venus\", \"earth\"], \"correct\": \"A\"},\n"
+                + "{\"text\": \"Smallest planet?\", \"level\": \"MEDIUM\","
+                + " \"A\": \"Mercury\", \"B\": \"Mars\", \"C\": \"Pluto\", \"D\": \"Earth\", \"answer\": \"1\"},\n"
+                + "{\"question\": \"Smallest  planet?\", \"difficulty\": 2,"
+                + " \"options\": [\"Mercury\", \"Mars\", \"Pluto\", \"Earth\"], \"correct\": \"A\"}\n"
+                + "]";
+        Result r = importText(".json", json, List.of(existing));
+
+        assertEquals(1, r.questions().size());
+        assertEquals("Smallest planet?", r.questions().get(0).text());
+        assertEquals(QuestionLevel.MEDIUM, r.questions().get(0).level());
+        assertEquals(2, r.duplicates());
+        assertTrue(r.errors().isEmpty());
+    }
+
+    @Test
+    // the hash is the full SHA-256 and ignores case and extra spaces
+    public void testContentHash() {
+        String a = QuestionImporter.contentHash("Q  one", List.of("a", "b", "c", "d"));
+        assertEquals(64, a.length());
+        assertEquals(a, QuestionImporter.contentHash(" q ONE", List.of("A", "b ", "c", "d")));
+        assertNotEquals(a, QuestionImporter.contentHash("Q one", List.of("b", "a", "c", "d")));
+    }
+}
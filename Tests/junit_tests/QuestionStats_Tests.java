@@ -0,0 +1,66 @@
+package junit_tests;
+
+import model.QuestionStats;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class QuestionStats_Tests {
+
+    private static void delete(Path dir) throws IOException {
+        Files.deleteIfExists(dir.resolve("questions.stats"));
+        Files.deleteIfExists(dir.resolve("questions.stats.tmp"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    // answers survive a flush and a fresh load, time histogram included
+    public void testBinaryRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("qstats");
+        try {
+            Path file = dir.resolve("questions.stats");
+            QuestionStats stats = new QuestionStats(file);
+            stats.record("1", true, 1_500);
+            stats.record("1", false, 9_000);
+            stats.record("2", true, 120_000);
+            stats.snapshotAsync().join();
+            stats.flushNow();
+
+            QuestionStats.Entry e = new QuestionStats(file).get("1");
+            assertNotNull(e);
+            assertEquals(2, e.attempts());
+            assertEquals(1, e.correct());
+            assertEquals(10_500L, e.totalMillis());
+            assertEquals(1, e.histogram()[0]);
+            assertEquals(1, e.histogram()[3]);
+            assertEquals(1, new QuestionStats(file).get("2").histogram()[QuestionStats.BUCKETS - 1]);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    // remapped ids are what the next snapshot sees; unmapped ids are dropped
+    public void testRemapBeforeSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("qstats");
+        try {
+            QuestionStats stats = new QuestionStats(dir.resolve("questions.stats"));
+            stats.record("1", true, 100);
+            stats.record("2", false, 100);
+            stats.record("3", true, 100);
+            stats.remap(Map.of("1", "1", "3", "2"));
+
+            Map<String, QuestionStats.Entry> snap = stats.snapshotAsync().join();
+            assertEquals(2, snap.size());
+            assertEquals(1, snap.get("2").correct());
+            assertNull(snap.get("3"));
+            stats.flushNow();
+        } finally {
+            delete(dir);
+        }
+    }
+}
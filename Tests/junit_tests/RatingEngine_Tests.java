@@ -0,0 +1,93 @@
+package junit_tests;
+
+import model.DifficultyLevel;
+import model.HistoryColumns;
+import model.RatingEngine;
+import model.SysData.GameRecord;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class RatingEngine_Tests {
+
+    /** Snapshot values are stored as floats */
+    private static final double DELTA = 0.01;
+
+    private static HistoryColumns history() {
+        HistoryColumns h = new HistoryColumns();
+        h.add("Ann", "Bob", DifficultyLevel.EASY,   3, 40, true,  90, 1_000);
+        h.add("ann", "Cat", DifficultyLevel.HARD,   1, 10, false, 30, 2_000);
+        h.add("Bob", "Cat", DifficultyLevel.MEDIUM, 2, 40, true,  60, 3_000);
+        h.add("Ann", "Bob", DifficultyLevel.HARD,   2, 55, true,  80, 4_000);
+        return h;
+    }
+
+    private static void assertSameRating(RatingEngine.Rating want, RatingEngine.Rating got) {
+        assertEquals(want.games(), got.games());
+        assertEquals(want.rating(), got.rating(), DELTA);
+        assertEquals(want.rd(), got.rd(), DELTA);
+        assertEquals(want.volatility(), got.volatility(), 1e-5);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        Files.deleteIfExists(dir.resolve("ratings.bin"));
+        Files.deleteIfExists(dir.resolve("ratings.bin.tmp"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    // a written snapshot restores the same players and pairs (names match case-insensitively)
+    public void testSnapshotRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("ratings");
+        try {
+            Path file = dir.resolve("ratings.bin");
+            RatingEngine built = RatingEngine.restore(file, history());
+            built.flushNow();
+            assertTrue(Files.exists(file));
+
+            RatingEngine loaded = RatingEngine.restore(file, history());
+            assertSameRating(built.player("Ann"), loaded.player("ANN"));
+            assertSameRating(built.player("Cat"), loaded.player("Cat"));
+            assertSameRating(built.pair("Ann", "Bob"), loaded.pair("Bob", "Ann"));
+            assertEquals(3, loaded.player("ann").games());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    // restoring replays only the matches newer than the snapshot, same result as a full rebuild
+    public void testRestoreReplaysNewerMatches() throws IOException {
+        Path dir = Files.createTempDirectory("ratings");
+        try {
+            Path file = dir.resolve("ratings.bin");
+            RatingEngine.restore(file, history()).flushNow();
+
+            HistoryColumns more = history();
+            more.add("Cat", "Ann", DifficultyLevel.EASY, 3, 70, true, 40, 5_000);
+            RatingEngine restored = RatingEngine.restore(file, more);
+
+            RatingEngine rebuilt = new RatingEngine(null);
+            rebuilt.rebuild(more);
+            assertSameRating(rebuilt.player("Ann"), restored.player("Ann"));
+            assertSameRating(rebuilt.pair("Cat", "Ann"), restored.pair("Cat", "Ann"));
+            restored.flushNow();
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    // without a file the engine still rates matches and never writes
+    public void testInMemoryEngine() {
+        RatingEngine e = new RatingEngine(null);
+        assertEquals(0, e.player("Ann").games());
+        e.add(new GameRecord("Ann", "Bob", DifficultyLevel.HARD, 3, 50, true, 60, 1_000));
+        e.flushNow();
+        assertEquals(1, e.player("Ann").games());
+        assertTrue(e.player("Ann").rating() > RatingEngine.INITIAL_RATING);
+    }
+}
@@ -0,0 +1,123 @@
+package junit_tests;
+
+import model.*;
+import org.junit.Test;              // JUNIT 4
+import static org.junit.Assert.*;   // JUNIT 4
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class WeightedSelector_Tests {
+
+    private static Question q(String id, QuestionLevel lvl) {
+        return new Question(id, "Q" + id, List.of("a", "b", "c", "d"), 0, lvl);
+    }
+
+    @Test
+    // prefix sums and find() agree with a plain array after updates and appends
+    public void testFenwickMatchesNaiveSums() {
+        long[] w = {5, 0, 3, 7, 1};
+        FenwickTree t = FenwickTree.of(w, w.length);
+        t.set(1, 4);
+        int idx = t.append(6);
+
+        long[] expected = {5, 4, 3, 7, 1, 6};
+        assertEquals(5, idx);
+        long run = 0;
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(run, t.prefix(i));
+            assertEquals(i, t.find(run));
+            run += expected[i];
+        }
+        assertEquals(run, t.total());
+        assertEquals(-1, t.find(run));
+    }
+
+    @Test
+    // a question answered wrong many times is drawn more often than one always answered right
+    public void testWrongAnswersRaiseDrawRate() {
+        List<Question> bank = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) bank.add(q(String.valueOf(i), QuestionLevel.EASY));
+
+        WeightedQuestionSelector sel = new WeightedQuestionSelector();
+        sel.rebuild(bank);
+        for (int i = 0; i < 20; i++) {
+            sel.recordAnswer("1", false);
+            sel.recordAnswer("2", true);
+        }
+
+        Random rnd = new Random(42);
+        int hard = 0, easy = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Question d = sel.draw(DifficultyLevel.EASY, rnd);
+            if (d.id().equals("1")) hard++;
+            if (d.id().equals("2")) easy++;
+        }
+        assertTrue("wrong-answered question should be drawn more", hard > easy * 2);
+    }
+
+    @Test
+    // removed questions are never drawn, appended ones are counted
+    public void testRemovedQuestionsAreSkipped() {
+        WeightedQuestionSelector sel = new WeightedQuestionSelector();
+        sel.rebuild(List.of(q("1", QuestionLevel.EASY), q("2", QuestionLevel.HARD)));
+        sel.add(q("3", QuestionLevel.MEDIUM));
+        sel.remove("2");
+        assertEquals(2, sel.size());
+
+        Random rnd = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            assertFalse(sel.draw(DifficultyLevel.HARD, rnd).id().equals("2"));
+        }
+    }
+
+    @Test
+    // after ids are renumbered, the adaptive weight follows the question, not the id
+    public void testRemapMovesTalliesWithTheQuestion() {
+        List<Question> bank = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) bank.add(q(String.valueOf(i), QuestionLevel.EASY));
+
+        WeightedQuestionSelector sel = new WeightedQuestionSelector();
+        sel.rebuild(bank);
+        for (int i = 0; i < 30; i++) sel.recordAnswer("3", false);
+
+        // "1" deleted: everything after it moves down by one, "3" becomes "2"
+        Map<String, String> idMap = new HashMap<>();
+        List<Question> renumbered = new ArrayList<>();
+        for (int i = 2; i <= 100; i++) {
+            idMap.put(String.valueOf(i), String.valueOf(i - 1));
+            renumbered.add(q(String.valueOf(i - 1), QuestionLevel.EASY));
+        }
+        sel.remap(idMap);
+        sel.rebuild(renumbered);
+
+        Random rnd = new Random(3);
+        int moved = 0, old = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String id = sel.draw(DifficultyLevel.EASY, rnd).id();
+            if (id.equals("2")) moved++;
+            if (id.equals("3")) old++;
+        }
+        assertTrue("tally should now belong to id 2", moved > old * 2);
+    }
+
+    @Test
+    // removing many questions does not leave the trees full of dead slots
+    public void testRemovedSlotsAreCompacted() {
+        WeightedQuestionSelector sel = new WeightedQuestionSelector();
+        sel.rebuild(List.of());
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 10; i++) sel.add(q(round + "-" + i, QuestionLevel.MEDIUM));
+            for (int i = 0; i < 10; i++) sel.remove(round + "-" + i);
+        }
+        sel.add(q("keep", QuestionLevel.MEDIUM));
+
+        assertEquals(1, sel.size());
+        assertTrue("dead slots should be reclaimed", sel.slotCount() < 40);
+        Random rnd = new Random(1);
+        for (int i = 0; i < 100; i++) assertEquals("keep", sel.draw(DifficultyLevel.MEDIUM, rnd).id());
+    }
+}
@@ -1,10 +1,25 @@
 package app;
 import controller.AppController;
+import model.AppSettings;
 import util.BackgroundMusic;
+import util.EdtWatchdog;
 
 public class Main {
     public static void main(String[] args) {
-        BackgroundMusic.start();
+        // Logs EDT freezes with sampled stacks to edt-stalls.log (-Dedt.watchdog=false to turn off)
+        EdtWatchdog.start();
+
+        // Audio decoding is slow on kiosk machines; it must not delay the first frame
+        Thread music = new Thread(() -> {
+            AppSettings settings = AppSettings.getInstance();
+            if (!settings.get(AppSettings.MUSIC_ENABLED)) return;
+            BackgroundMusic.start();
+            BackgroundMusic.setVolume(settings.get(AppSettings.MUSIC_VOLUME) / 100f);
+        }, "music-start");
+        music.setDaemon(true);
+        music.start();
+
+        // AppController starts the SysData background loads; the menu does not wait for them
         AppController.getInstance().showMainMenu();
     }
 }
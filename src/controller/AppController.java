@@ -1,5 +1,7 @@
 package controller;
 
+import java.awt.Color;
+
 import javax.swing.SwingUtilities;
 
 import model.DifficultyLevel;
@@ -27,8 +29,12 @@ public class AppController implements StartListener {
 
     //Private constructor to prevent direct instantiation
     private AppController(){
+    	// SysData loads its files in the background; only the (tiny) theme is awaited here
+    	// because the first screen is drawn with the accent color
     	sys = SysData.getInstance();
     	UIStyles.setAccent(sys.getAccentColor());
+    	AppSettings.getInstance().addListener(AppSettings.ACCENT_RGB,
+    	        rgb -> UIStyles.setAccent(new Color(rgb, true)));
     	
     }
 
@@ -65,6 +71,30 @@ public class AppController implements StartListener {
         new view.GameViewTwoBoards(mc, this).showSelf();
     }
  
+    /**
+     * Continues the match saved by "Back to Main" / autosave
+     * return false if there is no readable save
+     */
+    public boolean resumeMatch(){
+        MatchSave.State saved = MatchSave.load();
+        if (saved == null) return false;
+
+        MatchController mc = MatchController.getInstance();
+        mc.resume(saved, sys);
+        new view.GameViewTwoBoards(mc, this).showSelf();
+        return true;
+    }
+ 
+    /**
+     * Plays back a recorded match in the game view (nothing is saved)
+     * @param rec    the stored result of the match (names)
+     * @param replay its recorded action log
+     */
+    public void openReplay(SysData.GameRecord rec, MatchReplay replay){
+        MatchController mc = MatchController.forReplay(replay, rec.p1, rec.p2);
+        new view.GameViewTwoBoards(mc, this).showSelf();
+    }
+
     //Opens the "New Match" screen
     public void openNewMatch(){
         if (!hasEnoughQuestionsForMatch()) {
@@ -92,6 +122,11 @@ public class AppController implements StartListener {
         new view.HistoryView(sys).showSelf();
     }
 
+    //Opens the leaderboard screen (reads the running aggregates, no history scan)
+    public void openLeaderboard(){
+        new view.LeaderboardView(this, sys.aggregates()).showSelf();
+    }
+
     //Opens the question management screen which allows CRUD operations on questions
     public void openQuestionManager(){
         QuestionController qc = QuestionController.getInstance(sys);
@@ -1,6 +1,7 @@
 package controller;
 
 import model.*;
+import util.UiMetrics;
 import view.QuestionDTO;
 import view.QuestionUI;
 
@@ -28,7 +29,11 @@ public class MatchController {
     private SysData sys;
     private QuestionUI questionUI;
 
-    private final Random rnd = new Random();
+    // Seeded per match (see MatchReplay), so recorded matches replay exactly
+    private Random rnd = new Random();
+
+    /** Salt between the board layout and the effect stream of the same seed */
+    private static final long EFFECT_SALT = 0x9E3779B97F4A7C15L;
 
     private static final int[] DR = {-1,-1,-1,0,0,1,1,1};
     private static final int[] DC = {-1, 0, 1,-1,1,-1,0,1};
@@ -40,11 +45,13 @@ public class MatchController {
     private final List<MatchListener> listeners = new ArrayList<>();
 
     private void publish() {
-        if (match == null) return;
+        if (match == null || listeners.isEmpty()) return;
+        long t0 = UiMetrics.start();
         MatchSnapshot s = match.snapshot();
         for (MatchListener l : new ArrayList<>(listeners)) {
             l.onMatchChanged(s);
         }
+        UiMetrics.action("publish", t0);
     }
 
     // Time runs always (independent of Match implementation)
@@ -53,6 +60,7 @@ public class MatchController {
 
     public long getElapsedSeconds(){
         if (frozenElapsedSeconds >= 0) return frozenElapsedSeconds;
+        if (script != null) return replayClockMs / 1000;
         if (matchStartMillis == 0) return 0;
         return (System.currentTimeMillis() - matchStartMillis) / 1000;
     }
@@ -128,6 +136,27 @@ public class MatchController {
 
     // ---------- init/reset ----------
     public synchronized void init(Match match, SysData sys, AppController app){
+        reset(match, sys);
+        rnd = new Random(match.seed() ^ EFFECT_SALT);
+        recorder = new MatchReplay.Recorder(match);
+        matchStartMillis = System.currentTimeMillis();
+        publish(); // initial snapshot
+    }
+
+    /**
+     * Continues a saved match (see MatchSave): boards, pending interactions and clock
+     * The effect stream cannot be restored, so a resumed match is not recorded
+     */
+    public synchronized void resume(MatchSave.State saved, SysData sys){
+        reset(saved.toMatch(), sys);
+        rnd = new Random();
+        restorePending(saved.pending(0), pendingP1);
+        restorePending(saved.pending(1), pendingP2);
+        matchStartMillis = System.currentTimeMillis() - saved.elapsedSeconds() * 1000;
+        publish();
+    }
+
+    private void reset(Match match, SysData sys){
         this.match = match;
         this.sys   = sys;
         this.questionUI = null;
@@ -140,13 +169,52 @@ public class MatchController {
         lastQuestionCorrectIndex = -1;
         setLastInteraction(0,0,0,null);
 
-        matchStartMillis = System.currentTimeMillis();
         frozenElapsedSeconds = -1;
+        actionsSinceSave = 0;
+        recorder = null;
+    }
 
-        publish(); // initial snapshot
+    // ---------- Save / autosave ----------
+
+    /** A background save is taken after this many actions */
+    private static final int AUTOSAVE_EVERY = 5;
+
+    private int actionsSinceSave = 0;
+
+    /**
+     * Saves the running match for "Resume Game"
+     * Only the in-memory copy is made here; encoding and the file write run in the background
+     */
+    public void saveNow(){
+        if (match == null || match.isFinished() || script != null) return;
+        actionsSinceSave = 0;
+        MatchSave.saveAsync(MatchSave.State.capture(match, getElapsedSeconds(),
+                pendingBits(pendingP1), pendingBits(pendingP2)));
+    }
+
+    private void afterAction(){
+        if (script != null) return;
+        if (++actionsSinceSave >= AUTOSAVE_EVERY) saveNow();
+    }
+
+    private BitSet pendingBits(Set<Key> pend){
+        BitSet out = new BitSet();
+        int C = match.board1().cols();
+        for (Key k : pend) out.set(k.r * C + k.c);
+        return out;
+    }
+
+    private void restorePending(BitSet bits, Set<Key> into){
+        int C = match.board1().cols();
+        Board b = (into == pendingP1) ? match.board1() : match.board2();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)){
+            int r = i / C, c = i % C;
+            into.add(new Key(r, c, b.cell(r, c) instanceof QuestionCell));
+        }
     }
 
     public void setQuestionUI(QuestionUI ui){
+        if (script != null) return; // replays take confirmations and answers from the log
         this.questionUI = ui;
     }
 
@@ -195,11 +263,21 @@ public class MatchController {
     // ======================== Actions ========================
 
     public void reveal(int row,int col){
+        long t0 = UiMetrics.start();
+        try {
+            revealCell(row, col);
+        } finally {
+            UiMetrics.action("reveal", t0);
+        }
+    }
+
+    private void revealCell(int row,int col){
         Board b = match.boardOfActive();
         Cell  cell = b.cell(row,col);
         if (cell.isRevealed()) return;
 
         int playerIdx = match.activeIndex();
+        if (recorder != null) recorder.reveal(row, col);
 
         if (cell instanceof EmptyCell || cell instanceof QuestionCell || cell instanceof SurpriseCell) {
             floodReveal(b, playerIdx, row, col);
@@ -217,6 +295,7 @@ public class MatchController {
 
         endTurn();
         publish();
+        afterAction();
     }
 
     /**
@@ -248,25 +327,37 @@ public class MatchController {
             // pay cost first
             match.addPoints(-cost);
 
-            Question q = sys.drawRandomQuestion();
             boolean right;
             QuestionLevel qLevel;
             int correctIdxForMsg = -1;
 
-            if (q == null){
+            Question q = (replayStep != null) ? null : sys.drawQuestionForMatch(match.level());
+
+            if (replayStep != null){
+                right = replayStep.right();
+                qLevel = replayStep.questionLevel();
+                correctIdxForMsg = replayStep.correct();
+                lastQuestionCorrectIndex = correctIdxForMsg;
+            } else if (q == null){
                 right = true;
                 qLevel = QuestionLevel.EASY;
+                if (recorder != null) recorder.question(row, col, null, 0);
             } else {
                 lastQuestionCorrectIndex = q.correctIndex();
                 correctIdxForMsg = q.correctIndex();
 
                 QuestionDTO dto = new QuestionDTO(q.id(), q.text(), q.options(), q.level().name());
+                long askedAt = System.currentTimeMillis();
                 int choice = (questionUI != null) ? questionUI.ask(dto) : 0;
+                long answerMillis = System.currentTimeMillis() - askedAt;
 
                 if (choice < 0) choice = 0;
 
                 right = (choice == q.correctIndex());
                 qLevel = q.level();
+                if (recorder != null) recorder.question(row, col, q, choice);
+
+                sys.recordAnswer(q, right, answerMillis);
             }
 
             QuestionEffect eff = computeQuestionEffect(match.level(), qLevel, right);
@@ -294,6 +385,7 @@ public class MatchController {
 
             endTurn();
             publish();
+            afterAction();
             return true;
         }
 
@@ -316,6 +408,7 @@ public class MatchController {
             match.addPoints(-cost);
 
             sc.operate();
+            if (recorder != null) recorder.surprise(row, col);
 
             boolean good = rnd.nextBoolean();
             SurpriseEffect se = computeSurpriseEffect(match.level(), good);
@@ -337,6 +430,7 @@ public class MatchController {
 
             endTurn();
             publish();
+            afterAction();
             return true;
         }
 
@@ -350,6 +444,15 @@ public class MatchController {
      * always publish (so UI never gets stuck)
      */
     public void toggleFlag(int playerIndex,int row,int col){
+        long t0 = UiMetrics.start();
+        try {
+            toggleFlagCell(playerIndex, row, col);
+        } finally {
+            UiMetrics.action("flag", t0);
+        }
+    }
+
+    private void toggleFlagCell(int playerIndex,int row,int col){
         if (playerIndex != match.activeIndex()) return;
 
         Board b = (playerIndex==0)? match.board1() : match.board2();
@@ -361,6 +464,7 @@ public class MatchController {
 
         if (before != after) {
             applyFlagScoring(cell, after);
+            if (recorder != null) recorder.flag(row, col);
         }
 
         match.checkFinish();
@@ -371,6 +475,7 @@ public class MatchController {
         }
 
         publish();
+        afterAction();
     }
 
 
@@ -421,8 +526,17 @@ public class MatchController {
         match.convertLivesToPoints();
         revealAllBoards();
 
+        if (script != null) {
+            // replay: the result is only reported, never stored
+            lastRecord = new SysData.GameRecord(getP1(), getP2(), match.level(),
+                    match.lives(), match.points(), won, frozenElapsedSeconds);
+            return;
+        }
+
         SysData.GameRecord rec = match.toRecord(won);
         sys.addRecord(rec);
+        if (recorder != null) sys.saveReplay(rec, recorder.finish());
+        MatchSave.deleteAsync(); // nothing left to resume
 
         lastRecord = rec;
     }
@@ -441,6 +555,73 @@ public class MatchController {
         }
     }
 
+    // ======================== Replay ========================
+
+    // Recording of the live match (null for resumed matches and replays)
+    private MatchReplay.Recorder recorder;
+
+    // Replay mode: the recorded actions, the next one to apply and the replay clock
+    private List<MatchReplay.Action> script;
+    private int scriptPos;
+    private long replayClockMs;
+
+    // Action being replayed (supplies the logged question outcome)
+    private MatchReplay.Action replayStep;
+
+    /**
+     * Controller that plays back a recorded match (not the singleton)
+     * Nothing is saved or recorded and no dialogs are shown; the view drives it with stepReplay()
+     */
+    public static MatchController forReplay(MatchReplay replay, String p1, String p2){
+        MatchController c = new MatchController();
+        c.reset(new Match(new Player(p1), new Player(p2), replay.level(), replay.seed()), null);
+        c.rnd = new Random(replay.seed() ^ EFFECT_SALT);
+        c.script = replay.actions();
+        return c;
+    }
+
+    /**
+     * Re-simulates a recorded match without any UI (regression checks)
+     * return the resulting record (not stored), or null if the log ends before the match does
+     */
+    public static SysData.GameRecord simulate(MatchReplay replay, String p1, String p2){
+        MatchController c = forReplay(replay, p1, p2);
+        while (c.hasNextAction()) c.stepReplay();
+        return c.lastRecord;
+    }
+
+    public boolean isReplay(){ return script != null; }
+
+    public boolean hasNextAction(){
+        return script != null && scriptPos < script.size() && !match.isFinished();
+    }
+
+    /** return time of the next recorded action since the start of the match (ms) */
+    public long nextActionAtMs(){
+        return script.get(scriptPos).atMs();
+    }
+
+    /**
+     * Applies the next recorded action
+     * return its kind (MatchReplay.REVEAL / FLAG / QUESTION / SURPRISE)
+     */
+    public int stepReplay(){
+        MatchReplay.Action a = script.get(scriptPos++);
+        replayClockMs = a.atMs();
+        replayStep = a;
+        try {
+            int player = match.activeIndex();
+            switch (a.kind()){
+                case MatchReplay.REVEAL -> reveal(a.row(), a.col());
+                case MatchReplay.FLAG   -> toggleFlag(player, a.row(), a.col());
+                default                 -> tryInteract(player, a.row(), a.col());
+            }
+        } finally {
+            replayStep = null;
+        }
+        return a.kind();
+    }
+
     // ======================== Helpers ========================
 
     private void endTurn(){
@@ -1,7 +1,15 @@
 package controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import model.Question;
+import model.QuestionBankDiff;
+import model.QuestionImporter;
+import model.QuestionStats;
 import model.SysData;
 
 /**
@@ -48,6 +56,39 @@ public class QuestionController {
         sys.replaceQuestion(oldId, updated);  
     }
 
+    /*
+     * Import a CSV/JSON question pack: validate, drop duplicates, store the rest in one write
+     * Slow for big packs - call it off the EDT
+     */
+    public ImportReport importPack(Path file) throws IOException {
+        // a copy: the live bank may change (hot reload, edits) while the pack is validated
+        QuestionImporter.Result r = QuestionImporter.read(file, sys.questionsCopy());
+        List<Question> added = sys.addQuestionsBatch(r.questions());
+        return new ImportReport(added.size(), r.duplicates(), r.errors());
+    }
+
+    /* Summary of one pack import */
+    public record ImportReport(int imported, int duplicates, List<QuestionImporter.LineError> errors) {}
+
+    /* Answer statistics per question id (copy, safe to keep in the table model) */
+    public Map<String, QuestionStats.Entry> stats(){
+        return sys.questionStats();
+    }
+
+    /* Statistics after pending updates (e.g. the id remap of a delete); completes off the EDT */
+    public CompletableFuture<Map<String, QuestionStats.Entry>> statsAfterUpdates(){
+        return sys.questionStatsAsync();
+    }
+
+    /* Notify about edits made to questions.csv outside the app (called off the EDT) */
+    public void addChangeListener(Consumer<QuestionBankDiff> l){
+        sys.addQuestionsListener(l);
+    }
+
+    public void removeChangeListener(Consumer<QuestionBankDiff> l){
+        sys.removeQuestionsListener(l);
+    }
+
     /* Provide next numeric ID for auto numbering in UI if needed */
     public int nextId(){
         return sys.nextQuestionId();
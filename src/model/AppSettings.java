@@ -0,0 +1,183 @@
+package model;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import util.DebouncedSave;
+
+/**
+ * AppSettings (Singleton)
+ * The one owner of theme.properties: typed settings held in memory, change
+ * listeners per key, and debounced background persistence
+ *
+ * set() only updates memory and notifies listeners (always on the EDT), so a
+ * slider drag or a color click costs nothing on the EDT; the file is rewritten
+ * SAVE_DELAY_MS after the last change, from a temp file moved into place.
+ * Keys this class does not know are kept as they are
+ */
+public final class AppSettings {
+
+    static final String FILE = "theme.properties";
+
+    /** Delay before pending changes are written to disk */
+    private static final long SAVE_DELAY_MS = 500;
+
+    /**
+     * One typed setting: property name, default and parser
+     * A value that does not parse falls back to the default
+     */
+    public static final class Key<T> {
+        private final String name;
+        private final T def;
+        private final Function<String, T> parser;
+
+        private Key(String name, T def, Function<String, T> parser) {
+            this.name = name;
+            this.def = def;
+            this.parser = parser;
+        }
+
+        public String name() { return name; }
+        public T defaultValue() { return def; }
+
+        T parse(String raw) {
+            if (raw == null) return def;
+            try {
+                T v = parser.apply(raw.trim());
+                return v == null ? def : v;
+            } catch (RuntimeException e) {
+                return def;
+            }
+        }
+    }
+
+    // ---------- Settings ----------
+    public static final Key<Integer> ACCENT_RGB =
+            new Key<>("accentRGB", 0xFFFFCC00, Integer::parseInt); // gold
+    public static final Key<String> BACKGROUND =
+            new Key<>("backgroundKey", "BG1", s -> s.isEmpty() ? null : s); // BG1 / BG2 / BG3
+    public static final Key<Boolean> MUSIC_ENABLED =
+            new Key<>("musicEnabled", true, Boolean::parseBoolean);
+    public static final Key<Integer> MUSIC_VOLUME =
+            new Key<>("musicVolume", 60, s -> Math.max(0, Math.min(100, Integer.parseInt(s))));
+    /** Adaptive question draw (SysData.DrawMode.ADAPTIVE); off = uniform shuffled decks */
+    public static final Key<Boolean> ADAPTIVE_QUESTIONS =
+            new Key<>("adaptiveQuestions", false, Boolean::parseBoolean);
+    /** Matches older than this many days are archived (SysData.compactHistory); 0 = keep all */
+    public static final Key<Integer> HISTORY_HORIZON_DAYS =
+            new Key<>("historyHorizonDays", Integer.getInteger("history.horizonDays", 0),
+                    s -> Math.max(0, Integer.parseInt(s)));
+
+    // ---------- Singleton ----------
+    private static AppSettings INSTANCE;
+
+    public static synchronized AppSettings getInstance() {
+        if (INSTANCE == null) INSTANCE = new AppSettings(SysData.sidecarPath(FILE));
+        return INSTANCE;
+    }
+
+    private final Path file;
+
+    /** Raw values by property name (includes unknown keys, written back unchanged) */
+    private final Properties props = new Properties();
+
+    private final Map<Key<?>, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "settings-save");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Debounced writes; its shutdown hook persists a change made right before exit */
+    private final DebouncedSave save;
+
+    AppSettings(Path file) {
+        this.file = file;
+        this.save = new DebouncedSave(file, this, SAVE_DELAY_MS, saver, "settings-flush", this::copyForSave);
+        load();
+    }
+
+    // ============================================================
+    // Access
+    // ============================================================
+
+    public synchronized <T> T get(Key<T> key) {
+        return key.parse(props.getProperty(key.name));
+    }
+
+    /**
+     * Changes a setting; listeners of the key run on the EDT (right away when
+     * called from it, otherwise through invokeLater), since they touch Swing state
+     * Setting the current value again does nothing
+     */
+    public <T> void set(Key<T> key, T value) {
+        T v = value == null ? key.def : value;
+        synchronized (this) {
+            if (Objects.equals(get(key), v) && props.containsKey(key.name)) return;
+            props.setProperty(key.name, String.valueOf(v));
+        }
+        save.changed();
+
+        List<Consumer<Object>> ls = listeners.get(key);
+        if (ls == null || ls.isEmpty()) return;
+        Runnable notify = () -> { for (Consumer<Object> l : ls) l.accept(v); };
+        if (EventQueue.isDispatchThread()) notify.run();
+        else EventQueue.invokeLater(notify);
+    }
+
+    /** Listener is called on the EDT with the new value whenever the key changes */
+    @SuppressWarnings("unchecked")
+    public <T> void addListener(Key<T> key, Consumer<? super T> listener) {
+        listeners.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add((Consumer<Object>) listener);
+    }
+
+    public <T> void removeListener(Key<T> key, Consumer<? super T> listener) {
+        List<Consumer<Object>> ls = listeners.get(key);
+        if (ls != null) ls.remove(listener);
+    }
+
+    // ============================================================
+    // Persistence
+    // ============================================================
+
+    private void load() {
+        Path src = file;
+        // older versions wrote the background key relative to the working directory
+        if (!Files.exists(src)) src = Paths.get(FILE);
+        if (!Files.exists(src)) return;
+
+        try (InputStream in = Files.newInputStream(src)) {
+            props.load(in);
+        } catch (IOException e) {
+            System.err.println("[SETTINGS] Could not read " + src + ": " + e.getMessage());
+        }
+        if (!src.equals(file)) save.markDirty(); // move it next to the data files on the next save
+    }
+
+    /** Writes pending changes now (temp file + atomic move); waits for a write in progress */
+    public void flushNow() {
+        save.flushNow();
+    }
+
+    /** Copies the properties (called by the saver with the lock held); the copy is stored outside of it */
+    private DebouncedSave.Snapshot copyForSave() {
+        Properties copy = new Properties();
+        copy.putAll(props);
+        return out -> copy.store(out, "Minesweeper settings");
+    }
+}
@@ -16,7 +16,7 @@ public class Board {
     private final Cell[][] grid;
 
     private final CellFactory factory;
-    private final Random rnd = new Random();
+    private final Random rnd;
 
     // ---------------- Constructors ----------------
 
@@ -27,7 +27,16 @@ public class Board {
 
     /** Overload that allows injecting a factory */
     public Board(DifficultyLevel level, CellFactory factory) {
+        this(level, factory, new Random());
+    }
+
+    /**
+     * Overload with the source of the layout: the same Random state gives the same
+     * board (seeded matches / replays)
+     */
+    public Board(DifficultyLevel level, CellFactory factory, Random rnd) {
         this.factory = (factory != null) ? factory : new DefaultCellFactory();
+        this.rnd = rnd;
 
         this.rows = DifficultyConfig.getRows(level);
         this.cols = DifficultyConfig.getCols(level);
@@ -59,6 +68,7 @@ public class Board {
         this.rows = rows;
         this.cols = cols;
         this.factory = (factory != null) ? factory : new DefaultCellFactory();
+        this.rnd = new Random();
         this.grid = new Cell[rows][cols];
         initEmptyGrid();
     }
@@ -39,6 +39,14 @@ public abstract class Cell {
             flagged = !flagged;
     }
 
+    /**
+     * Sets revealed / flagged directly (used when a saved match is restored, see MatchSave)
+     */
+    void restoreState(boolean revealed, boolean flagged){
+        this.revealed = revealed;
+        this.flagged = flagged;
+    }
+
     /**
      * Returns the logical type of the cell (mine, empty, number, question, surprise)
      */
@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over non-negative long weights
+ * Supports point updates, prefix sums and "find by cumulative weight" in O(log n)
+ * Appending a new slot is also O(log n) (amortized, the backing arrays double when full)
+ */
+public class FenwickTree {
+
+    /** 1-based tree array: tree[i] holds the sum of weights (i - lowbit(i), i] */
+    private long[] tree;
+
+    /** Raw weights, 0-based, kept so set() can compute the delta */
+    private long[] weights;
+
+    /** Number of used slots */
+    private int size;
+
+    public FenwickTree() {
+        this(16);
+    }
+
+    public FenwickTree(int capacity) {
+        int cap = Math.max(1, capacity);
+        this.tree = new long[cap + 1];
+        this.weights = new long[cap];
+    }
+
+    /**
+     * Builds the tree from an array of weights in O(n)
+     */
+    public static FenwickTree of(long[] w, int n) {
+        FenwickTree t = new FenwickTree(Math.max(16, n));
+        System.arraycopy(w, 0, t.weights, 0, n);
+        for (int i = 1; i <= n; i++) {
+            t.tree[i] += w[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= n) t.tree[parent] += t.tree[i];
+        }
+        t.size = n;
+        return t;
+    }
+
+    public int size() { return size; }
+
+    public long weight(int idx) { return weights[idx]; }
+
+    /**
+     * Appends a new slot with the given weight and returns its index
+     */
+    public int append(long w) {
+        if (w < 0) throw new IllegalArgumentException("Weight must be >= 0");
+        if (size == weights.length) {
+            int cap = weights.length * 2;
+            weights = Arrays.copyOf(weights, cap);
+            tree = Arrays.copyOf(tree, cap + 1);
+        }
+
+        int i = size + 1;
+        // node i covers (i - lowbit(i), i]: everything before i in that range is already stored
+        tree[i] = w + prefix(i - 1) - prefix(i - (i & -i));
+        weights[size] = w;
+        return size++;
+    }
+
+    /**
+     * Sets the weight of a slot
+     */
+    public void set(int idx, long w) {
+        if (w < 0) throw new IllegalArgumentException("Weight must be >= 0");
+        long delta = w - weights[idx];
+        if (delta == 0) return;
+        weights[idx] = w;
+        for (int i = idx + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of weights of slots [0, count)
+     */
+    public long prefix(int count) {
+        long s = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            s += tree[i];
+        }
+        return s;
+    }
+
+    public long total() {
+        return prefix(size);
+    }
+
+    /**
+     * Returns the slot whose cumulative range contains target
+     * (smallest idx with prefix(idx + 1) > target), or -1 if target is out of range
+     */
+    public int find(long target) {
+        if (target < 0 || size == 0) return -1;
+
+        int pos = 0;
+        int step = Integer.highestOneBit(size);
+        long rem = target;
+
+        for (; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] <= rem) {
+                pos = next;
+                rem -= tree[next];
+            }
+        }
+        return pos < size ? pos : -1;
+    }
+}
@@ -0,0 +1,281 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import model.SysData.GameRecord;
+
+/**
+ * Running statistics over the match history, per player and per pair of players,
+ * for every DifficultyLevel:
+ * games, wins, best / average points and fastest win
+ *
+ * For each level and kind (player / pair) it keeps bounded top-K leaderboards
+ * (best score, most wins, fastest win). All three values only ever improve, so
+ * an entry that falls out of a board never has to come back unless it improves,
+ * and one update costs O(log K)
+ *
+ * Built once from the whole history (in parallel, see build) and then updated
+ * per added record by SysData
+ */
+public class HistoryAggregates {
+
+    /** Entries kept per leaderboard */
+    public static final int TOP_K = 50;
+
+    /** Records per partial aggregate when building in parallel */
+    private static final int CHUNK = 8_192;
+
+    public enum Board { BEST_SCORE, MOST_WINS, FASTEST_WIN }
+
+    /** Read-only copy of one player's / pair's statistics on one level */
+    public record Summary(String name, int games, int wins, int bestPoints, double avgPoints, long fastestWinSec) {
+
+        /** return share of won games (0..1), or 0 without games */
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public boolean hasWin() {
+            return fastestWinSec != Long.MAX_VALUE;
+        }
+    }
+
+    /** One leaderboard row; value is the board's metric (points, wins or seconds) */
+    public record Ranked(String name, long value, int games, int wins) {}
+
+    /** Mutable totals for one key on one level */
+    private static final class Stats {
+        final String name;
+        int games;
+        int wins;
+        long sumPoints;
+        int bestPoints = Integer.MIN_VALUE;
+        long fastestWin = Long.MAX_VALUE;
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void add(int g, int w, long sum, int best, long fastest) {
+            games += g;
+            wins += w;
+            sumPoints += sum;
+            bestPoints = Math.max(bestPoints, best);
+            fastestWin = Math.min(fastestWin, fastest);
+        }
+
+        void merge(Stats o) {
+            add(o.games, o.wins, o.sumPoints, o.bestPoints, o.fastestWin);
+        }
+
+        Summary summary() {
+            return new Summary(name, games, wins, bestPoints,
+                    games == 0 ? 0 : (double) sumPoints / games, fastestWin);
+        }
+    }
+
+    /**
+     * Bounded top-K set for one metric
+     * The set holds immutable (value, entry) items, so an improved entry is
+     * removed by its previous item and re-inserted in O(log K)
+     */
+    private static final class TopK {
+        private record Item(long value, Stats stats) {}
+
+        private final Board board;
+        private final TreeSet<Item> set;
+        private final Map<Stats, Item> members = new HashMap<>();
+
+        TopK(Board board) {
+            this.board = board;
+            Comparator<Item> byValue = board == Board.FASTEST_WIN
+                    ? Comparator.comparingLong(Item::value)
+                    : Comparator.comparingLong(Item::value).reversed();
+            // tie-break on name so distinct entries never compare equal
+            this.set = new TreeSet<>(byValue.thenComparing(it -> it.stats().name));
+        }
+
+        /** Call after s changed */
+        void offer(Stats s) {
+            if (board == Board.FASTEST_WIN && s.fastestWin == Long.MAX_VALUE) return;
+
+            Item item = new Item(metric(board, s), s);
+            Item old = members.remove(s);
+            if (old != null) {
+                set.remove(old);
+            } else if (set.size() == TOP_K && set.comparator().compare(item, set.last()) >= 0) {
+                return; // not good enough for a full board
+            }
+
+            set.add(item);
+            members.put(s, item);
+            if (set.size() > TOP_K) members.remove(set.pollLast().stats());
+        }
+
+        List<Ranked> ranked() {
+            List<Ranked> out = new ArrayList<>(set.size());
+            for (Item it : set) out.add(new Ranked(it.stats().name, it.value(), it.stats().games, it.stats().wins));
+            return out;
+        }
+    }
+
+    private static long metric(Board board, Stats s) {
+        return switch (board) {
+            case BEST_SCORE -> s.bestPoints;
+            case MOST_WINS -> s.wins;
+            case FASTEST_WIN -> s.fastestWin;
+        };
+    }
+
+    // ---------- State ----------
+    private final EnumMap<DifficultyLevel, Map<String, Stats>> players = new EnumMap<>(DifficultyLevel.class);
+    private final EnumMap<DifficultyLevel, Map<String, Stats>> pairs = new EnumMap<>(DifficultyLevel.class);
+    private final EnumMap<DifficultyLevel, EnumMap<Board, TopK>> playerBoards = new EnumMap<>(DifficultyLevel.class);
+    private final EnumMap<DifficultyLevel, EnumMap<Board, TopK>> pairBoards = new EnumMap<>(DifficultyLevel.class);
+
+    public HistoryAggregates() {
+        for (DifficultyLevel d : DifficultyLevel.values()) {
+            players.put(d, new HashMap<>());
+            pairs.put(d, new HashMap<>());
+            playerBoards.put(d, boards());
+            pairBoards.put(d, boards());
+        }
+    }
+
+    private static EnumMap<Board, TopK> boards() {
+        EnumMap<Board, TopK> m = new EnumMap<>(Board.class);
+        for (Board b : Board.values()) m.put(b, new TopK(b));
+        return m;
+    }
+
+    // ============================================================
+    // Building / updates
+    // ============================================================
+
+    /**
+     * Builds the aggregates from the columnar history
+     * Chunks are aggregated on the common pool and merged; the boards are filled last
+     */
+    public static HistoryAggregates build(HistoryColumns log) {
+        int n = log.size();
+        int chunks = (n + CHUNK - 1) / CHUNK;
+
+        HistoryAggregates all = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    HistoryAggregates part = new HistoryAggregates();
+                    int end = Math.min(n, (c + 1) * CHUNK);
+                    for (int i = c * CHUNK; i < end; i++) part.accumulate(log, i);
+                    return part;
+                })
+                .reduce(HistoryAggregates::mergeInto)
+                .orElseGet(HistoryAggregates::new);
+
+        all.fillBoards();
+        return all;
+    }
+
+    /** Adds one finished match: O(1) map update plus O(log K) per board */
+    public synchronized void add(GameRecord r) {
+        addBucket(r.p1, r.p2, r.level, 1, r.won ? 1 : 0, r.points, r.points,
+                r.won ? r.timeSec : Long.MAX_VALUE);
+    }
+
+    /**
+     * Adds a pre-aggregated bucket of games played by one pair on one level
+     * (used for compacted history, where single records no longer exist)
+     */
+    public synchronized void addBucket(String p1, String p2, DifficultyLevel level,
+                                       int games, int wins, long sumPoints, int bestPoints, long fastestWinSec) {
+        List<Stats> touched = touch(p1, p2, level, games, wins, sumPoints, bestPoints, fastestWinSec);
+        for (int i = 0; i < touched.size(); i++) {
+            boolean pair = i == touched.size() - 1; // touch() returns the pair entry last
+            for (TopK t : (pair ? pairBoards : playerBoards).get(level).values()) t.offer(touched.get(i));
+        }
+    }
+
+    private void accumulate(HistoryColumns log, int i) {
+        boolean w = log.won(i);
+        touch(log.p1(i), log.p2(i), log.level(i), 1, w ? 1 : 0, log.points(i), log.points(i),
+                w ? log.timeSec(i) : Long.MAX_VALUE);
+    }
+
+    /** Updates the player and pair totals; returns the touched entries, the pair entry last */
+    private List<Stats> touch(String p1, String p2, DifficultyLevel level,
+                              int games, int wins, long sumPoints, int bestPoints, long fastestWinSec) {
+        List<Stats> touched = new ArrayList<>(3);
+        Map<String, Stats> pm = players.get(level);
+
+        String a = PlayerNames.display(p1);
+        String b = PlayerNames.display(p2);
+        String ka = PlayerNames.key(a);
+        String kb = PlayerNames.key(b);
+
+        Stats sa = pm.computeIfAbsent(ka, k -> new Stats(a));
+        sa.add(games, wins, sumPoints, bestPoints, fastestWinSec);
+        touched.add(sa);
+        if (!ka.equals(kb)) {
+            Stats sb = pm.computeIfAbsent(kb, k -> new Stats(b));
+            sb.add(games, wins, sumPoints, bestPoints, fastestWinSec);
+            touched.add(sb);
+        }
+
+        Stats sp = pairs.get(level).computeIfAbsent(PlayerNames.pairKey(ka, kb),
+                k -> new Stats(PlayerNames.pairName(a, b)));
+        sp.add(games, wins, sumPoints, bestPoints, fastestWinSec);
+        touched.add(sp);
+        return touched;
+    }
+
+    private static HistoryAggregates mergeInto(HistoryAggregates into, HistoryAggregates from) {
+        for (DifficultyLevel d : DifficultyLevel.values()) {
+            mergeMaps(into.players.get(d), from.players.get(d));
+            mergeMaps(into.pairs.get(d), from.pairs.get(d));
+        }
+        return into;
+    }
+
+    private static void mergeMaps(Map<String, Stats> into, Map<String, Stats> from) {
+        for (Map.Entry<String, Stats> e : from.entrySet()) {
+            Stats s = into.get(e.getKey());
+            if (s == null) into.put(e.getKey(), e.getValue());
+            else s.merge(e.getValue());
+        }
+    }
+
+    private void fillBoards() {
+        for (DifficultyLevel d : DifficultyLevel.values()) {
+            for (TopK t : playerBoards.get(d).values()) players.get(d).values().forEach(t::offer);
+            for (TopK t : pairBoards.get(d).values()) pairs.get(d).values().forEach(t::offer);
+        }
+    }
+
+    // ============================================================
+    // Queries
+    // ============================================================
+
+    /** return the leaderboard, best first (at most TOP_K rows) */
+    public synchronized List<Ranked> top(Board board, DifficultyLevel level, boolean ofPairs) {
+        return (ofPairs ? pairBoards : playerBoards).get(level).get(board).ranked();
+    }
+
+    /** return statistics of one player on one level, or null if they never played it */
+    public synchronized Summary player(String name, DifficultyLevel level) {
+        Stats s = players.get(level).get(PlayerNames.key(name));
+        return s == null ? null : s.summary();
+    }
+
+    /** return statistics of a pair (in either order) on one level, or null */
+    public synchronized Summary pair(String p1, String p2, DifficultyLevel level) {
+        String ka = PlayerNames.key(PlayerNames.display(p1));
+        String kb = PlayerNames.key(PlayerNames.display(p2));
+        Stats s = pairs.get(level).get(PlayerNames.pairKey(ka, kb));
+        return s == null ? null : s.summary();
+    }
+}
@@ -0,0 +1,251 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import model.SysData.GameRecord;
+import util.AtomicFiles;
+import util.CsvReader;
+import util.CsvWriter;
+
+/**
+ * Compacted history on disk
+ * - summary buckets (history-summary.csv): one row per day, pair and level with
+ *   games / wins / points / fastest win; they keep the aggregates and leaderboards
+ *   correct after raw rows left history.csv
+ * - archive segments (history-archive/*.csv.gz): the raw rows that were compacted,
+ *   in history.csv format, gzip compressed; opened on demand by HistoryView
+ *
+ * The summary file starts with a "#compactedBefore" row holding the cutoff of the
+ * last compaction; raw rows older than that are already counted in the buckets
+ */
+public final class HistoryArchive {
+
+    static final String SUMMARY_FILE = "history-summary.csv";
+    static final String ARCHIVE_DIR = "history-archive";
+
+    private static final String CUTOFF_TAG = "#compactedBefore";
+    private static final char DELIMITER = ';';
+
+    private HistoryArchive() {}
+
+    /** Totals of the games one pair played on one level on one day */
+    public record Bucket(long epochDay, String p1, String p2, DifficultyLevel level,
+                         int games, int wins, long sumPoints, int bestPoints, long fastestWinSec) {
+
+        Bucket plus(Bucket o) {
+            return new Bucket(epochDay, p1, p2, level,
+                    games + o.games, wins + o.wins, sumPoints + o.sumPoints,
+                    Math.max(bestPoints, o.bestPoints), Math.min(fastestWinSec, o.fastestWinSec));
+        }
+    }
+
+    /** Contents of the summary file */
+    public record Summary(long compactedBefore, List<Bucket> buckets) {
+        static final Summary EMPTY = new Summary(Long.MIN_VALUE, List.of());
+    }
+
+    private record Key(long epochDay, String p1, String p2, DifficultyLevel level) {}
+
+    // ============================================================
+    // Summary buckets
+    // ============================================================
+
+    public static Summary readSummary(Path file) {
+        if (!Files.exists(file)) return Summary.EMPTY;
+
+        long cutoff = Long.MIN_VALUE;
+        List<Bucket> out = new ArrayList<>();
+        try (CsvReader in = new CsvReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), DELIMITER)) {
+            while (in.next()) {
+                try {
+                    if (in.get(0).equals(CUTOFF_TAG)) {
+                        cutoff = in.getLong(1);
+                        continue;
+                    }
+                    if (in.fieldCount() < 9) continue;
+                    out.add(new Bucket(in.getLong(0), in.get(1), in.get(2),
+                            DifficultyLevel.valueOf(in.get(3).trim()),
+                            in.getInt(4), in.getInt(5), in.getLong(6), in.getInt(7), in.getLong(8)));
+                } catch (IllegalArgumentException bad) {
+                    System.err.println("[HISTORY] Skipping bad summary line " + in.lineNumber());
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return new Summary(cutoff, out);
+    }
+
+    public static void writeSummary(Path file, long compactedBefore, Collection<Bucket> buckets) throws IOException {
+        Path tmp = AtomicFiles.tempFor(file);
+        try (CsvWriter out = new CsvWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8), DELIMITER)) {
+            out.field(CUTOFF_TAG).field(compactedBefore);
+            out.endRecord();
+            for (Bucket b : buckets) {
+                out.field(b.epochDay()).field(b.p1()).field(b.p2()).field(b.level().name())
+                   .field(b.games()).field(b.wins()).field(b.sumPoints()).field(b.bestPoints())
+                   .field(b.fastestWinSec());
+                out.endRecord();
+            }
+        }
+        AtomicFiles.moveIntoPlace(tmp, file);
+    }
+
+    /**
+     * Adds the given history rows to existing buckets (same day, pair and level are merged)
+     */
+    public static List<Bucket> rollUp(List<Bucket> existing, HistoryColumns h, int[] rows) {
+        Map<Key, Bucket> map = new LinkedHashMap<>();
+        for (Bucket b : existing) map.merge(keyOf(b), b, Bucket::plus);
+
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i : rows) {
+            long day = LocalDate.ofInstant(Instant.ofEpochMilli(h.timestamp(i)), zone).toEpochDay();
+            boolean won = h.won(i);
+            Bucket b = new Bucket(day, h.p1(i), h.p2(i), h.level(i), 1, won ? 1 : 0,
+                    h.points(i), h.points(i), won ? h.timeSec(i) : Long.MAX_VALUE);
+            map.merge(keyOf(b), b, Bucket::plus);
+        }
+        return new ArrayList<>(map.values());
+    }
+
+    private static Key keyOf(Bucket b) {
+        return new Key(b.epochDay(), b.p1(), b.p2(), b.level());
+    }
+
+    // ============================================================
+    // Archive segments
+    // ============================================================
+
+    /**
+     * Writes the given rows as a gzip segment named after their date range
+     * return the segment path
+     */
+    public static Path writeSegment(Path dir, HistoryColumns h, int[] rows) throws IOException {
+        Files.createDirectories(dir);
+
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (int i : rows) {
+            min = Math.min(min, h.timestamp(i));
+            max = Math.max(max, h.timestamp(i));
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        String base = "history-" + LocalDate.ofInstant(Instant.ofEpochMilli(min), zone)
+                + "_" + LocalDate.ofInstant(Instant.ofEpochMilli(max), zone);
+
+        Path seg = dir.resolve(base + ".csv.gz");
+        for (int n = 2; Files.exists(seg); n++) seg = dir.resolve(base + "-" + n + ".csv.gz");
+
+        Path tmp = AtomicFiles.tempFor(seg);
+        try (CsvWriter out = new CsvWriter(new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8)), DELIMITER)) {
+            for (int i : rows) {
+                out.field(h.p1(i)).field(h.p2(i)).field(h.level(i).name())
+                   .field(h.hearts(i)).field(h.points(i)).field(String.valueOf(h.won(i)))
+                   .field(h.timeSec(i)).field(h.timestamp(i));
+                out.endRecord();
+            }
+        }
+        AtomicFiles.moveIntoPlace(tmp, seg);
+        return seg;
+    }
+
+    /** return archive segments, oldest first */
+    public static List<Path> segments() {
+        Path dir = SysData.sidecarPath(ARCHIVE_DIR);
+        List<Path> out = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return out;
+
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.csv.gz")) {
+            for (Path p : ds) out.add(p);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out.sort(null);
+        return out;
+    }
+
+    /**
+     * Reads one archive segment into its own columns and indexes (slow - call off the EDT)
+     */
+    public static HistorySource open(Path segment) throws IOException {
+        HistoryColumns cols = new HistoryColumns();
+        try (CsvReader in = new CsvReader(new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment)), StandardCharsets.UTF_8)), DELIMITER)) {
+            while (in.next()) {
+                if (in.fieldCount() < 8) continue;
+                try {
+                    cols.add(in.get(0), in.get(1), DifficultyLevel.valueOf(in.get(2).trim()),
+                            in.getInt(3), in.getInt(4), Boolean.parseBoolean(in.get(5).trim()),
+                            in.getLong(6), in.getLong(7));
+                } catch (IllegalArgumentException ignored) { }
+            }
+        }
+        return new ColumnsSource(cols);
+    }
+
+
+    /** Read-only HistorySource over a loaded segment */
+    private static final class ColumnsSource implements HistorySource {
+        private final HistoryColumns cols;
+        private final HistoryIndex index = new HistoryIndex();
+
+        ColumnsSource(HistoryColumns cols) {
+            this.cols = cols;
+            for (int i = 0; i < cols.size(); i++) {
+                index.add(cols.p1(i), cols.p2(i), cols.level(i), cols.won(i), cols.timestamp(i), i);
+            }
+        }
+
+        @Override
+        public int size() {
+            return cols.size();
+        }
+
+        @Override
+        public GameRecord[] window(int from, int to) {
+            int f = Math.max(0, from);
+            int t = Math.min(cols.size(), to);
+            GameRecord[] out = new GameRecord[Math.max(0, t - f)];
+            for (int i = f; i < t; i++) out[i - f] = cols.get(i);
+            return out;
+        }
+
+        @Override
+        public GameRecord[] rows(int[] positions, int from, int to) {
+            int t = Math.min(positions.length, to);
+            GameRecord[] out = new GameRecord[Math.max(0, t - from)];
+            for (int i = from; i < t; i++) out[i - from] = cols.get(positions[i]);
+            return out;
+        }
+
+        @Override
+        public int[] find(HistoryIndex.Filter filter) {
+            return index.query(filter);
+        }
+
+        @Override
+        public int[] sorted(HistoryColumns.Field field, boolean ascending, int[] positions) {
+            return HistoryColumns.order(cols.sortKeys(field, positions), positions, ascending);
+        }
+    }
+}
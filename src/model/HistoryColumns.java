@@ -0,0 +1,229 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.SysData.GameRecord;
+
+/**
+ * Column-oriented match history
+ * One primitive array per field; player names are dictionary-encoded (int ids),
+ * so a record costs about 34 bytes instead of a GameRecord plus two Strings
+ *
+ * Sorting and HistoryAggregates.build read the arrays directly;
+ * GameRecord objects are only created on demand, through get(i)
+ *
+ * Not thread-safe; SysData guards it with its own lock
+ */
+public class HistoryColumns {
+
+    private static final DifficultyLevel[] LEVELS = DifficultyLevel.values();
+
+    // ---------- Columns ----------
+    private int[] p1 = new int[256];
+    private int[] p2 = new int[256];
+    private byte[] level = new byte[256];
+    private int[] hearts = new int[256];
+    private int[] points = new int[256];
+    private boolean[] won = new boolean[256];
+    private long[] timeSec = new long[256];
+    private long[] timestamp = new long[256];
+    private int size = 0;
+
+    // ---------- Name dictionary ----------
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+
+    /** Sortable fields, in history table column order */
+    public enum Field { P1, P2, LEVEL, HEARTS, POINTS, WON, TIME, DATE }
+
+    // ============================================================
+    // Updates
+    // ============================================================
+
+    public void clear() {
+        size = 0;
+        names.clear();
+        nameIds.clear();
+    }
+
+    public void add(GameRecord r) {
+        add(r.p1, r.p2, r.level, r.hearts, r.points, r.won, r.timeSec, r.timestamp);
+    }
+
+    public void add(String a, String b, DifficultyLevel lvl, int h, int pts, boolean w, long sec, long ts) {
+        if (size == p1.length) grow();
+        p1[size] = nameId(a);
+        p2[size] = nameId(b);
+        level[size] = (byte) lvl.ordinal();
+        hearts[size] = h;
+        points[size] = pts;
+        won[size] = w;
+        timeSec[size] = sec;
+        timestamp[size] = ts;
+        size++;
+    }
+
+    /**
+     * Keeps only the records with timestamp >= minTimestamp (order preserved)
+     * and rebuilds the name dictionary
+     * return number of removed records
+     */
+    public int retainFrom(long minTimestamp) {
+        List<String> oldNames = new ArrayList<>(names);
+        names.clear();
+        nameIds.clear();
+
+        int w = 0;
+        for (int r = 0; r < size; r++) {
+            if (timestamp[r] < minTimestamp) continue;
+            p1[w] = nameId(oldNames.get(p1[r]));
+            p2[w] = nameId(oldNames.get(p2[r]));
+            level[w] = level[r];
+            hearts[w] = hearts[r];
+            points[w] = points[r];
+            won[w] = won[r];
+            timeSec[w] = timeSec[r];
+            timestamp[w] = timestamp[r];
+            w++;
+        }
+        int removed = size - w;
+        size = w;
+        return removed;
+    }
+
+    private void grow() {
+        int cap = p1.length * 2;
+        p1 = Arrays.copyOf(p1, cap);
+        p2 = Arrays.copyOf(p2, cap);
+        level = Arrays.copyOf(level, cap);
+        hearts = Arrays.copyOf(hearts, cap);
+        points = Arrays.copyOf(points, cap);
+        won = Arrays.copyOf(won, cap);
+        timeSec = Arrays.copyOf(timeSec, cap);
+        timestamp = Arrays.copyOf(timestamp, cap);
+    }
+
+    /** return dictionary id of a name, adding it if new */
+    private int nameId(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) return id;
+        int nid = names.size();
+        names.add(name);
+        nameIds.put(name, nid);
+        return nid;
+    }
+
+    // ============================================================
+    // Row access
+    // ============================================================
+
+    public int size() { return size; }
+
+    public String p1(int i)             { return names.get(p1[i]); }
+    public String p2(int i)             { return names.get(p2[i]); }
+    public DifficultyLevel level(int i) { return LEVELS[level[i]]; }
+    public int hearts(int i)            { return hearts[i]; }
+    public int points(int i)            { return points[i]; }
+    public boolean won(int i)           { return won[i]; }
+    public long timeSec(int i)          { return timeSec[i]; }
+    public long timestamp(int i)        { return timestamp[i]; }
+
+    /** Materializes one record (for existing GameRecord-based callers) */
+    public GameRecord get(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Record " + i + " of " + size);
+        return new GameRecord(names.get(p1[i]), names.get(p2[i]), LEVELS[level[i]],
+                hearts[i], points[i], won[i], timeSec[i], timestamp[i]);
+    }
+
+    // ============================================================
+    // Sorting
+    // ============================================================
+
+    /**
+     * Sort key of each given row, read straight from the columns (no GameRecord)
+     * Names become their rank in case-insensitive order, so keys compare like the values
+     * @param rows store positions, or null for all rows; positions past the end get key 0
+     */
+    public long[] sortKeys(Field f, int[] rows) {
+        int n = rows == null ? size : rows.length;
+        long[] keys = new long[n];
+
+        int[] rank = null;
+        if (f == Field.P1 || f == Field.P2) {
+            // few distinct names: sort the dictionary once, then look up each row's rank
+            Integer[] ids = new Integer[names.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = i;
+            Comparator<String> byName = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+            Arrays.sort(ids, (a, b) -> byName.compare(names.get(a), names.get(b)));
+            rank = new int[ids.length];
+            for (int k = 0; k < ids.length; k++) rank[ids[k]] = k;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int r = rows == null ? i : rows[i];
+            if (r >= size) continue;
+            keys[i] = switch (f) {
+                case P1 -> rank[p1[r]];
+                case P2 -> rank[p2[r]];
+                case LEVEL -> level[r];
+                case HEARTS -> hearts[r];
+                case POINTS -> points[r];
+                case WON -> won[r] ? 1 : 0;
+                case TIME -> timeSec[r];
+                case DATE -> timestamp[r];
+            };
+        }
+        return keys;
+    }
+
+    /**
+     * Orders rows by their keys; stable in both directions (ties keep store order)
+     * Key and index are packed into one long so a primitive sort can be used
+     * @param keys one key per row, see sortKeys
+     * @param rows the rows the keys belong to, or null for 0..keys.length-1
+     * return the rows in sorted order
+     */
+    public static int[] order(long[] keys, int[] rows, boolean ascending) {
+        int n = keys.length;
+        int[] idx = new int[n];
+        if (n > 0) {
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (long k : keys) {
+                if (k < min) min = k;
+                if (k > max) max = k;
+            }
+            int idxBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1));
+            long range = max - min;
+
+            if (range >= 0 && range < (1L << (63 - idxBits))) {
+                // distance from the first key in the high bits, index in the low bits
+                long[] packed = new long[n];
+                for (int i = 0; i < n; i++) {
+                    long k = ascending ? keys[i] - min : max - keys[i];
+                    packed[i] = (k << idxBits) | i;
+                }
+                Arrays.parallelSort(packed);
+                long mask = (1L << idxBits) - 1;
+                for (int i = 0; i < n; i++) idx[i] = (int) (packed[i] & mask);
+            } else {
+                // key range too wide to pack: boxed sort
+                Integer[] boxed = new Integer[n];
+                for (int i = 0; i < n; i++) boxed[i] = i;
+                Arrays.parallelSort(boxed, (a, b) -> {
+                    int c = ascending ? Long.compare(keys[a], keys[b]) : Long.compare(keys[b], keys[a]);
+                    return c != 0 ? c : Integer.compare(a, b);
+                });
+                for (int i = 0; i < n; i++) idx[i] = boxed[i];
+            }
+        }
+        if (rows != null) {
+            for (int i = 0; i < n; i++) idx[i] = rows[idx[i]];
+        }
+        return idx;
+    }
+}
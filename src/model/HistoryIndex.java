@@ -0,0 +1,187 @@
+package model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import model.SysData.GameRecord;
+
+/**
+ * Search indexes over the match history, addressed by record position in SysData's store
+ * - player names: sorted dictionary (lower-case name -> positions), for prefix search
+ * - difficulty and won/lost: one bitmap each
+ * - timestamps: positions sorted by timestamp, for range queries by binary search
+ *
+ * The indexes grow with every appended record (SysData.addRecord), so a query
+ * never scans the GameRecord objects
+ */
+public class HistoryIndex {
+
+    /**
+     * Search criteria; null (or blank name) means "any"
+     * from / to are inclusive epoch millis
+     */
+    public record Filter(String namePrefix, DifficultyLevel level, Boolean won, Long from, Long to) {
+
+        public static final Filter ALL = new Filter(null, null, null, null, null);
+
+        public boolean isAll() {
+            return (namePrefix == null || namePrefix.isBlank())
+                    && level == null && won == null && from == null && to == null;
+        }
+    }
+
+    private final NavigableMap<String, BitSet> byName = new TreeMap<>();
+    private final EnumMap<DifficultyLevel, BitSet> byLevel = new EnumMap<>(DifficultyLevel.class);
+    private final BitSet won = new BitSet();
+
+    // positions ordered by timestamp (ts[i] belongs to pos[i])
+    private long[] ts = new long[256];
+    private int[] pos = new int[256];
+    private int size = 0;
+
+    /** true while timestamp order equals store order (records appended newest-last) */
+    private boolean storeOrdered = true;
+
+    public HistoryIndex() {
+        for (DifficultyLevel d : DifficultyLevel.values()) byLevel.put(d, new BitSet());
+    }
+
+    // ============================================================
+    // Updates
+    // ============================================================
+
+    public synchronized void clear() {
+        byName.clear();
+        for (BitSet b : byLevel.values()) b.clear();
+        won.clear();
+        size = 0;
+        storeOrdered = true;
+    }
+
+    /** Indexes the record stored at position p (positions are appended in order) */
+    public void add(GameRecord r, int p) {
+        add(r.p1, r.p2, r.level, r.won, r.timestamp, p);
+    }
+
+    /** Same as add(GameRecord, int), from column values */
+    public synchronized void add(String p1, String p2, DifficultyLevel level, boolean isWon, long timestamp, int p) {
+        nameBits(p1).set(p);
+        if (!p2.equalsIgnoreCase(p1)) nameBits(p2).set(p);
+        byLevel.get(level).set(p);
+        if (isWon) won.set(p);
+
+        if (size == ts.length) {
+            ts = Arrays.copyOf(ts, size * 2);
+            pos = Arrays.copyOf(pos, size * 2);
+        }
+        // usually already the newest record; otherwise shift it into place
+        int at = size;
+        if (size > 0 && timestamp < ts[size - 1]) {
+            at = upperBound(timestamp);
+            storeOrdered = false;
+        }
+        System.arraycopy(ts, at, ts, at + 1, size - at);
+        System.arraycopy(pos, at, pos, at + 1, size - at);
+        ts[at] = timestamp;
+        pos[at] = p;
+        size++;
+    }
+
+    private BitSet nameBits(String name) {
+        return byName.computeIfAbsent(key(name), k -> new BitSet());
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ============================================================
+    // Queries
+    // ============================================================
+
+    /**
+     * return positions of the matching records in store order, or null for Filter.ALL
+     */
+    public synchronized int[] query(Filter f) {
+        if (f == null || f.isAll()) return null;
+
+        BitSet result = null;
+
+        if (f.namePrefix() != null && !f.namePrefix().isBlank()) {
+            result = byPrefix(key(f.namePrefix()));
+        }
+        if (f.level() != null) {
+            result = and(result, byLevel.get(f.level()));
+        }
+        if (f.won() != null) {
+            if (f.won()) {
+                result = and(result, won);
+            } else {
+                BitSet lost = new BitSet(size);
+                lost.set(0, size);
+                lost.andNot(won);
+                result = and(result, lost);
+            }
+        }
+        if (f.from() != null || f.to() != null) {
+            result = and(result, byTime(
+                    f.from() == null ? Long.MIN_VALUE : f.from(),
+                    f.to() == null ? Long.MAX_VALUE : f.to()));
+        }
+
+        return result == null ? new int[0] : result.stream().toArray();
+    }
+
+    private BitSet byPrefix(String prefix) {
+        BitSet out = new BitSet();
+        // every key starting with prefix sorts between prefix and prefix + '\uffff'
+        for (Map.Entry<String, BitSet> e : byName.subMap(prefix, true, prefix + '\uffff', true).entrySet()) {
+            out.or(e.getValue());
+        }
+        return out;
+    }
+
+    private BitSet byTime(long from, long to) {
+        BitSet out = new BitSet();
+        int lo = lowerBound(from);
+        int hi = upperBound(to);
+        if (lo >= hi) return out;
+        if (storeOrdered) {
+            out.set(pos[lo], pos[hi - 1] + 1);
+        } else {
+            for (int i = lo; i < hi; i++) out.set(pos[i]);
+        }
+        return out;
+    }
+
+    /** First index with ts >= t */
+    private int lowerBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[mid] < t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First index with ts > t */
+    private int upperBound(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ts[mid] <= t) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static BitSet and(BitSet acc, BitSet b) {
+        if (acc == null) return (BitSet) b.clone();
+        acc.and(b);
+        return acc;
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+import model.SysData.GameRecord;
+
+/**
+ * Row access used by the history table
+ * Implemented by SysData's live history and by opened archive segments
+ */
+public interface HistorySource {
+
+    /** return number of records */
+    int size();
+
+    /** return copies of the records in [from, to), clamped to size() */
+    GameRecord[] window(int from, int to);
+
+    /** return the records at positions[from..to) */
+    GameRecord[] rows(int[] positions, int from, int to);
+
+    /** return positions matching the filter (ascending), or null when it matches everything */
+    int[] find(HistoryIndex.Filter filter);
+
+    /**
+     * return the positions (all, or the given subset) ordered by one field;
+     * ties keep store order in both directions (slow for big stores - call off the EDT)
+     */
+    int[] sorted(HistoryColumns.Field field, boolean ascending, int[] positions);
+}
@@ -1,6 +1,7 @@
 package model;
 
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -26,6 +27,9 @@ public class Match {
     /** Difficulty level of this match */
     private final DifficultyLevel level;
 
+    /** Seed of the board layout and of the random effects (see MatchReplay) */
+    private final long seed;
+
     /** Remaining lives (shared between players) */
     private int lives;
 
@@ -59,6 +63,7 @@ public class Match {
     }
 
     private void notifyListeners(){
+        if (listeners.isEmpty()) return; // a snapshot copies both boards
         MatchSnapshot s = snapshot();
         for (MatchListener l : listeners){
             l.onMatchChanged(s);
@@ -100,17 +105,45 @@ public class Match {
      * Initializes the boards and starting lives based on DifficultyConfig
      */
     public Match(Player p1, Player p2, DifficultyLevel level){
+        this(p1, p2, level, new Random().nextLong());
+    }
+
+    /**
+     * Creates a match whose boards follow from the seed
+     * (the same seed and level always give the same two boards)
+     */
+    public Match(Player p1, Player p2, DifficultyLevel level, long seed){
         this.p1 = p1;
         this.p2 = p2;
         this.level = level;
-        this.b1 = new Board(level);
-        this.b2 = new Board(level);
+        this.seed = seed;
+
+        Random layout = new Random(seed);
+        this.b1 = new Board(level, null, layout);
+        this.b2 = new Board(level, null, layout);
 
         this.lives = DifficultyConfig.getStartingLives(level);
         this.points = 0;
         this.startTimeMs = System.currentTimeMillis();
     }
 
+    /**
+     * Restores a saved match (see MatchSave); the clock continues from elapsedSeconds
+     */
+    Match(Player p1, Player p2, DifficultyLevel level, Board b1, Board b2,
+          int lives, int points, int active, long elapsedSeconds){
+        this.p1 = p1;
+        this.p2 = p2;
+        this.level = level;
+        this.seed = 0; // not recorded (see MatchController.resume)
+        this.b1 = b1;
+        this.b2 = b2;
+        this.lives = lives;
+        this.points = points;
+        this.active = active == 1 ? 1 : 0;
+        this.startTimeMs = System.currentTimeMillis() - elapsedSeconds * 1000;
+    }
+
     public Player player1(){ return p1; }
     public Player player2(){ return p2; }
 
@@ -137,6 +170,8 @@ public class Match {
 
     public DifficultyLevel level(){ return level; }
 
+    public long seed(){ return seed; }
+
     public int lives(){ return lives; }
     public int points(){ return points; }
 
@@ -0,0 +1,389 @@
+package model;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import util.AtomicFiles;
+
+/**
+ * Recorded match: its seed plus a compact log of the actions that changed it
+ *
+ * The seed fixes both boards and every random effect (MatchController draws from a
+ * Random seeded with it), and question outcomes are logged, so replaying the actions
+ * in order re-creates the match exactly without the question bank
+ *
+ * Action encoding:
+ *   varint  milliseconds since the previous action
+ *   byte    kind (bits 0-1); for QUESTION also choice (2-3), correct answer (4-5)
+ *           and question level (6-7)
+ *   varint  zigzag(cell - previous cell), cell = r * cols + c
+ *   QUESTION only: varint question id + 1 (0 = no question / id not numeric)
+ * A typical match takes 3-4 bytes per action
+ *
+ * Replays are kept in replays.bin next to history.csv, one entry per finished
+ * match, keyed by the GameRecord timestamp; index() maps timestamps to file
+ * offsets so a lookup reads one entry instead of the whole file
+ */
+public final class MatchReplay {
+
+    static final String FILE = "replays.bin";
+
+    // ---------- Action kinds ----------
+    public static final int REVEAL = 0;
+    public static final int FLAG = 1;
+    public static final int QUESTION = 2;
+    public static final int SURPRISE = 3;
+
+    private static final QuestionLevel[] Q_LEVELS = QuestionLevel.values();
+    private static final DifficultyLevel[] LEVELS = DifficultyLevel.values();
+
+    /**
+     * One decoded action
+     * @param atMs       time since the start of the match
+     * @param questionId id of the asked question, -1 if none (QUESTION only)
+     */
+    public record Action(int kind, int row, int col, long atMs,
+                         int questionId, QuestionLevel questionLevel, int correct, int choice) {
+
+        /** return true if the logged answer was right (a missing question counts as right) */
+        public boolean right() {
+            return choice == correct;
+        }
+    }
+
+    private final long seed;
+    private final DifficultyLevel level;
+    private final int count;
+    private final byte[] log;
+
+    MatchReplay(long seed, DifficultyLevel level, int count, byte[] log) {
+        this.seed = seed;
+        this.level = level;
+        this.count = count;
+        this.log = log;
+    }
+
+    public long seed() { return seed; }
+    public DifficultyLevel level() { return level; }
+
+    /** return number of actions */
+    public int size() { return count; }
+
+    /** return encoded size of the action log in bytes */
+    public int logBytes() { return log.length; }
+
+    /** Decodes the action log */
+    public List<Action> actions() {
+        int cols = DifficultyConfig.getCols(level);
+        List<Action> out = new ArrayList<>(count);
+        int[] pos = {0};
+        long at = 0;
+        int cell = 0;
+        for (int i = 0; i < count; i++) {
+            at += readVarint(log, pos);
+            int head = log[pos[0]++] & 0xFF;
+            cell += unzigzag((int) readVarint(log, pos));
+
+            int kind = head & 3;
+            if (kind == QUESTION) {
+                int qid = (int) readVarint(log, pos) - 1;
+                out.add(new Action(kind, cell / cols, cell % cols, at, qid,
+                        Q_LEVELS[(head >>> 6) & 3], (head >>> 4) & 3, (head >>> 2) & 3));
+            } else {
+                out.add(new Action(kind, cell / cols, cell % cols, at, -1, null, -1, -1));
+            }
+        }
+        return out;
+    }
+
+    // ============================================================
+    // Recording
+    // ============================================================
+
+    /**
+     * Builds the log while the match is played (game thread only)
+     */
+    public static final class Recorder {
+        private final long seed;
+        private final DifficultyLevel level;
+        private final int cols;
+        private final long startMs;
+
+        private final ByteArrayOutputStream log = new ByteArrayOutputStream(256);
+        private int count = 0;
+        private long lastAt = 0;
+        private int lastCell = 0;
+
+        public Recorder(Match m) {
+            this.seed = m.seed();
+            this.level = m.level();
+            this.cols = m.board1().cols();
+            this.startMs = System.currentTimeMillis();
+        }
+
+        public void reveal(int r, int c) { add(REVEAL, r, c); }
+        public void flag(int r, int c) { add(FLAG, r, c); }
+        public void surprise(int r, int c) { add(SURPRISE, r, c); }
+
+        /**
+         * @param q      the asked question, or null if the bank had none
+         * @param choice the chosen option (0..3)
+         */
+        public void question(int r, int c, Question q, int choice) {
+            if (q == null) {
+                add(QUESTION, r, c);
+                writeVarint(log, 0);
+                return;
+            }
+            int head = QUESTION | (choice & 3) << 2 | (q.correctIndex() & 3) << 4 | q.level().ordinal() << 6;
+            add(head, r, c);
+            writeVarint(log, numericId(q.id()) + 1);
+        }
+
+        private void add(int head, int r, int c) {
+            long at = Math.max(lastAt, System.currentTimeMillis() - startMs);
+            int cell = r * cols + c;
+            writeVarint(log, at - lastAt);
+            log.write(head);
+            writeVarint(log, zigzag(cell - lastCell));
+            lastAt = at;
+            lastCell = cell;
+            count++;
+        }
+
+        public MatchReplay finish() {
+            return new MatchReplay(seed, level, count, log.toByteArray());
+        }
+    }
+
+    private static long numericId(String id) {
+        try {
+            return Math.max(-1, Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // ============================================================
+    // Storage
+    // ============================================================
+
+    /**
+     * Appends the replay of the match stored as recordTs
+     * Entry: long recordTs, long seed, byte level, varint count, varint length, log
+     * return file offset of the new entry (see readAt)
+     */
+    public static long append(Path file, long recordTs, MatchReplay r) throws IOException {
+        long offset = Files.exists(file) ? Files.size(file) : 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+            out.writeLong(recordTs);
+            out.writeLong(r.seed);
+            out.writeByte(r.level.ordinal());
+            writeVarint(out, r.count);
+            writeVarint(out, r.log.length);
+            out.write(r.log);
+        }
+        return offset;
+    }
+
+    /**
+     * return the replay stored for recordTs, or null if there is none
+     * A truncated last entry (crash during append) is ignored
+     */
+    public static MatchReplay find(Path file, long recordTs) throws IOException {
+        if (!Files.exists(file)) return null;
+        MatchReplay found = null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                long ts;
+                try {
+                    ts = in.readLong();
+                } catch (EOFException e) {
+                    return found;
+                }
+                try {
+                    long seed = in.readLong();
+                    int level = in.readByte();
+                    int count = (int) readVarint(in);
+                    int len = (int) readVarint(in);
+                    if (ts != recordTs) {
+                        in.skipNBytes(len);
+                        continue;
+                    }
+                    byte[] log = new byte[len];
+                    in.readFully(log);
+                    found = new MatchReplay(seed, LEVELS[level], count, log);
+                } catch (EOFException e) {
+                    return found;
+                }
+            }
+        }
+    }
+
+    /**
+     * return the offset of every complete entry by record timestamp
+     * (a later entry for the same match wins, like find); only the headers are read
+     */
+    public static Map<Long, Long> index(Path file) throws IOException {
+        Map<Long, Long> offsets = new HashMap<>();
+        if (!Files.exists(file)) return offsets;
+        long size = Files.size(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            long pos = 0;
+            while (pos < size) {
+                try {
+                    long ts = in.readLong();
+                    in.skipNBytes(9); // seed, level
+                    long count = readVarint(in);
+                    long len = readVarint(in);
+                    long end = pos + 17 + varintSize(count) + varintSize(len) + len;
+                    if (end > size) break; // truncated last entry
+                    in.skipNBytes(len);
+                    offsets.put(ts, pos);
+                    pos = end;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * return the entry at offset (from append or index), or null if the entry
+     * there belongs to another match (stale offset)
+     */
+    public static MatchReplay readAt(Path file, long offset, long recordTs) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (offset < 0 || offset >= ch.size()) return null;
+            ch.position(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch)));
+            try {
+                if (in.readLong() != recordTs) return null;
+                long seed = in.readLong();
+                int level = in.readByte();
+                int count = (int) readVarint(in);
+                byte[] log = new byte[(int) readVarint(in)];
+                in.readFully(log);
+                return new MatchReplay(seed, LEVELS[level], count, log);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Drops the entries of matches recorded before minTs (history compaction archived
+     * them) and a truncated last entry; the file is rewritten from a temp file
+     * return number of dropped entries
+     */
+    public static int prune(Path file, long minTs) throws IOException {
+        if (!Files.exists(file)) return 0;
+        Path tmp = AtomicFiles.tempFor(file);
+        int dropped = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            while (true) {
+                long ts;
+                try {
+                    ts = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                try {
+                    long seed = in.readLong();
+                    int level = in.readByte();
+                    long count = readVarint(in);
+                    int len = (int) readVarint(in);
+                    if (ts < minTs) {
+                        in.skipNBytes(len);
+                        dropped++;
+                        continue;
+                    }
+                    byte[] log = new byte[len];
+                    in.readFully(log);
+                    out.writeLong(ts);
+                    out.writeLong(seed);
+                    out.writeByte(level);
+                    writeVarint(out, count);
+                    writeVarint(out, len);
+                    out.write(log);
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        AtomicFiles.moveIntoPlace(tmp, file);
+        return dropped;
+    }
+
+    // ============================================================
+    // Varints
+    // ============================================================
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private static int unzigzag(int v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarint(OutputStream out, long v) {
+        try {
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write((int) v);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int varintSize(long v) {
+        int n = 1;
+        while ((v & ~0x7FL) != 0) {
+            v >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    private static long readVarint(byte[] buf, int[] pos) {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = buf[pos[0]++] & 0xFF;
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) return v;
+        }
+    }
+
+    private static long readVarint(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) return v;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MatchReplay r && r.seed == seed && r.level == level
+                && r.count == count && Arrays.equals(r.log, log);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(seed) * 31 + Arrays.hashCode(log);
+    }
+}
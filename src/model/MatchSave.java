@@ -0,0 +1,293 @@
+package model;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import util.AtomicFiles;
+
+/**
+ * Saved match (Back to Main / autosave) for "Resume Game"
+ *
+ * A match is captured on the game thread into a State: plain values plus one
+ * byte code per cell and board. The capture is a private copy, so encoding and
+ * writing run on a background thread while the game goes on
+ *
+ * File format (version 1, big-endian):
+ *   int MAGIC, int VERSION, UTF p1, UTF p2, byte level, int lives, int points,
+ *   byte active, long elapsedSeconds, int rows, int cols,
+ *   then both boards as CELL_BITS bits per cell, packed into longs
+ * Mines, questions and surprises are stored; numbers are recomputed on load
+ */
+public final class MatchSave {
+
+    static final String FILE = "match.sav";
+
+    private static final int MAGIC = 0x4D534156; // "MSAV"
+    private static final int VERSION = 1;
+
+    // ---------- Cell code: type in bits 0-2, flags above ----------
+    private static final int TYPE_MASK = 0b111;
+    private static final int REVEALED = 1 << 3;
+    private static final int FLAGGED = 1 << 4;
+    private static final int OPERATED = 1 << 5;
+    private static final int PENDING = 1 << 6;
+    private static final int CELL_BITS = 7;
+
+    private static final CellType[] TYPES = CellType.values();
+
+    /** Single writer, so saves reach the disk in the order they were taken */
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "match-save");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Last queued write/delete and whether it leaves a save behind;
+    // lets exists() answer before the writer got to it (Back to Main checks right away)
+    private static CompletableFuture<Void> lastQueued = CompletableFuture.completedFuture(null);
+    private static boolean queuedSave = false;
+
+    static {
+        // System.exit right after a save (closing the game window) must not lose it
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            WRITER.shutdown();
+            try {
+                WRITER.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) { }
+        }, "match-save-flush"));
+    }
+
+    private MatchSave() {}
+
+    /**
+     * Captured match state; cells1 / cells2 hold one code per cell (row-major)
+     */
+    public record State(String p1, String p2, DifficultyLevel level, int lives, int points, int active,
+                        long elapsedSeconds, int rows, int cols, byte[] cells1, byte[] cells2) {
+
+        /**
+         * Copies the match (O(cells), no I/O)
+         * @param pending1 cells (r * cols + c) of player 1 with a pending question / surprise
+         */
+        public static State capture(Match m, long elapsedSeconds, BitSet pending1, BitSet pending2) {
+            Board b1 = m.board1();
+            return new State(m.player1().name(), m.player2().name(), m.level(), m.lives(), m.points(),
+                    m.activeIndex(), elapsedSeconds, b1.rows(), b1.cols(),
+                    codes(m.board1(), pending1), codes(m.board2(), pending2));
+        }
+
+        /** Builds a live Match from the saved state */
+        public Match toMatch() {
+            return new Match(new Player(p1), new Player(p2), level, board(cells1), board(cells2),
+                    lives, points, active, elapsedSeconds);
+        }
+
+        /** return cells (r * cols + c) with a pending interaction on the player's board */
+        public BitSet pending(int player) {
+            byte[] cells = player == 0 ? cells1 : cells2;
+            BitSet out = new BitSet();
+            for (int i = 0; i < cells.length; i++) {
+                if ((cells[i] & PENDING) != 0) out.set(i);
+            }
+            return out;
+        }
+
+        private Board board(byte[] cells) {
+            DefaultCellFactory f = new DefaultCellFactory();
+            Board b = new Board(rows, cols, f);
+
+            // specials first, so the numbers see every mine
+            for (int i = 0; i < cells.length; i++) {
+                CellType t = TYPES[cells[i] & TYPE_MASK];
+                if (t == CellType.MINE || t == CellType.QUESTION || t == CellType.SURPRISE) {
+                    b.setCell(i / cols, i % cols, f.create(t, i / cols, i % cols, b));
+                }
+            }
+            for (int i = 0; i < cells.length; i++) {
+                int r = i / cols, c = i % cols;
+                Cell cell = b.cell(r, c);
+                if (cell instanceof EmptyCell) {
+                    cell = f.create(CellType.NUMBER, r, c, b);
+                    b.setCell(r, c, cell);
+                }
+                cell.restoreState((cells[i] & REVEALED) != 0, (cells[i] & FLAGGED) != 0);
+                if (cell instanceof SurpriseCell sc) sc.restoreOperated((cells[i] & OPERATED) != 0);
+            }
+            return b;
+        }
+    }
+
+    private static byte[] codes(Board b, BitSet pending) {
+        int cols = b.cols();
+        byte[] out = new byte[b.rows() * cols];
+        for (int r = 0; r < b.rows(); r++) {
+            for (int c = 0; c < cols; c++) {
+                Cell cell = b.cell(r, c);
+                int code = cell.type().ordinal();
+                if (cell.isRevealed()) code |= REVEALED;
+                if (cell.isFlagged()) code |= FLAGGED;
+                if (cell instanceof SurpriseCell sc && sc.wasOperated()) code |= OPERATED;
+                if (pending != null && pending.get(r * cols + c)) code |= PENDING;
+                out[r * cols + c] = (byte) code;
+            }
+        }
+        return out;
+    }
+
+    // ============================================================
+    // Files
+    // ============================================================
+
+    public static Path path() {
+        return SysData.sidecarPath(FILE);
+    }
+
+    /** return true if a save is on disk or queued to be written (and not deleted after) */
+    public static synchronized boolean exists() {
+        if (!lastQueued.isDone()) return queuedSave;
+        return Files.exists(path());
+    }
+
+    /**
+     * Encodes and writes the state in the background (temp file + atomic move)
+     * return completes once the file is written (or the write failed and was logged)
+     */
+    public static synchronized CompletableFuture<Void> saveAsync(State s) {
+        queuedSave = true;
+        return lastQueued = CompletableFuture.runAsync(() -> {
+            try {
+                write(path(), s);
+            } catch (IOException e) {
+                System.err.println("[SAVE] Could not save match: " + e.getMessage());
+            }
+        }, WRITER);
+    }
+
+    /** Removes the save (after the match finished); queued behind pending writes */
+    public static synchronized CompletableFuture<Void> deleteAsync() {
+        queuedSave = false;
+        return lastQueued = CompletableFuture.runAsync(() -> {
+            try {
+                Files.deleteIfExists(path());
+            } catch (IOException e) {
+                System.err.println("[SAVE] Could not delete " + path() + ": " + e.getMessage());
+            }
+        }, WRITER);
+    }
+
+    /**
+     * return the saved match, or null if there is none or it cannot be read
+     * Waits for queued writes first, so a save taken just before is the one read
+     */
+    public static State load() {
+        CompletableFuture<Void> queued;
+        synchronized (MatchSave.class) {
+            queued = lastQueued;
+        }
+        queued.join();
+        Path p = path();
+        if (!Files.exists(p)) return null;
+        try {
+            return read(p);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[SAVE] Could not read " + p + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Writes a state to the given file (temp file + move); saveAsync uses it on the writer thread */
+    public static void write(Path file, State s) throws IOException {
+        Path tmp = AtomicFiles.tempFor(file);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(s.p1());
+            out.writeUTF(s.p2());
+            out.writeByte(s.level().ordinal());
+            out.writeInt(s.lives());
+            out.writeInt(s.points());
+            out.writeByte(s.active());
+            out.writeLong(s.elapsedSeconds());
+            out.writeInt(s.rows());
+            out.writeInt(s.cols());
+            for (long w : pack(s.cells1(), s.cells2())) out.writeLong(w);
+        }
+        AtomicFiles.moveIntoPlace(tmp, file);
+    }
+
+    /** Reads a state written by write(); throws IOException on a foreign or damaged file */
+    public static State read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC) throw new IOException("not a match save");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported save version " + version);
+
+            String p1 = in.readUTF();
+            String p2 = in.readUTF();
+            DifficultyLevel level = DifficultyLevel.values()[in.readByte()];
+            int lives = in.readInt();
+            int points = in.readInt();
+            int active = in.readByte();
+            long elapsed = in.readLong();
+            int rows = in.readInt();
+            int cols = in.readInt();
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > 1 << 24) throw new IOException("bad board size");
+
+            int n = rows * cols;
+            long[] words = new long[(int) ((2L * n * CELL_BITS + 63) / 64)];
+            for (int i = 0; i < words.length; i++) words[i] = in.readLong();
+
+            byte[] c1 = new byte[n];
+            byte[] c2 = new byte[n];
+            unpack(words, c1, c2);
+            return new State(p1, p2, level, lives, points, active, elapsed, rows, cols, c1, c2);
+        }
+    }
+
+    // ============================================================
+    // Bit packing
+    // ============================================================
+
+    /** Both boards, CELL_BITS bits per cell, back to back */
+    private static long[] pack(byte[] a, byte[] b) {
+        long[] words = new long[(int) (((long) (a.length + b.length) * CELL_BITS + 63) / 64)];
+        long bit = 0;
+        for (byte[] cells : new byte[][]{a, b}) {
+            for (byte code : cells) {
+                int w = (int) (bit >>> 6);
+                int off = (int) (bit & 63);
+                long v = code & ((1L << CELL_BITS) - 1);
+                words[w] |= v << off;
+                if (off + CELL_BITS > 64) words[w + 1] |= v >>> (64 - off);
+                bit += CELL_BITS;
+            }
+        }
+        return words;
+    }
+
+    private static void unpack(long[] words, byte[] a, byte[] b) {
+        long mask = (1L << CELL_BITS) - 1;
+        long bit = 0;
+        for (byte[] cells : new byte[][]{a, b}) {
+            for (int i = 0; i < cells.length; i++) {
+                int w = (int) (bit >>> 6);
+                int off = (int) (bit & 63);
+                long v = words[w] >>> off;
+                if (off + CELL_BITS > 64) v |= words[w + 1] << (64 - off);
+                int code = (int) (v & mask);
+                if ((code & TYPE_MASK) >= TYPES.length) throw new IllegalArgumentException("bad cell code");
+                cells[i] = (byte) code;
+                bit += CELL_BITS;
+            }
+        }
+    }
+}
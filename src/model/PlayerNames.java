@@ -0,0 +1,34 @@
+package model;
+
+import java.util.Locale;
+
+/**
+ * Name keys shared by the per-player and per-pair tables (HistoryAggregates, RatingEngine)
+ * Names are trimmed for display and matched case-insensitively; pairs are order-independent
+ */
+final class PlayerNames {
+
+    static final String PAIR_SEP = " & ";
+
+    private PlayerNames() { }
+
+    /** return the trimmed name ("" for null) */
+    static String display(String name) {
+        return name == null ? "" : name.trim();
+    }
+
+    /** return the lookup key of a display name */
+    static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /** return the lookup key of a pair, given both player keys in either order */
+    static String pairKey(String ka, String kb) {
+        return ka.compareTo(kb) <= 0 ? ka + PAIR_SEP + kb : kb + PAIR_SEP + ka;
+    }
+
+    /** Pair names are order-independent: "Ana & Ben" for both (Ana, Ben) and (Ben, Ana) */
+    static String pairName(String a, String b) {
+        return key(a).compareTo(key(b)) <= 0 ? a + PAIR_SEP + b : b + PAIR_SEP + a;
+    }
+}
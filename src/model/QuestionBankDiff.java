@@ -0,0 +1,100 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Difference between the question bank in memory and a freshly parsed questions.csv
+ * Questions are matched by id; a matched question counts as changed when its
+ * fingerprint (exact text, options, correct answer and level) differs
+ *
+ * @param added   questions whose id is new
+ * @param changed questions whose id exists but whose content differs (new version)
+ * @param removed ids that are no longer in the file
+ */
+public record QuestionBankDiff(List<Question> added, List<Question> changed, List<String> removed) {
+
+    public static final QuestionBankDiff EMPTY = new QuestionBankDiff(List.of(), List.of(), List.of());
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    /** return ids whose current version must leave the bank (changed and removed) */
+    public Set<String> staleIds() {
+        Set<String> out = new HashSet<>(removed);
+        for (Question q : changed) out.add(q.id());
+        return out;
+    }
+
+    /** return questions that must enter the bank (added and changed) */
+    public List<Question> fresh() {
+        List<Question> out = new ArrayList<>(added.size() + changed.size());
+        out.addAll(added);
+        out.addAll(changed);
+        return out;
+    }
+
+    /**
+     * Compares two versions of the bank (if an id occurs twice in a list the last one wins)
+     */
+    public static QuestionBankDiff of(List<Question> current, List<Question> parsed) {
+        Map<String, String> known = new HashMap<>(current.size() * 2);
+        for (Question q : current) known.put(q.id(), fingerprint(q));
+
+        Map<String, Question> latest = new LinkedHashMap<>(parsed.size() * 2);
+        for (Question q : parsed) latest.put(q.id(), q);
+
+        List<Question> added = new ArrayList<>();
+        List<Question> changed = new ArrayList<>();
+        for (Question q : latest.values()) {
+            String fp = known.get(q.id());
+            if (fp == null) added.add(q);
+            else if (!fp.equals(fingerprint(q))) changed.add(q);
+        }
+
+        List<String> removed = new ArrayList<>();
+        for (String id : known.keySet()) {
+            if (!latest.containsKey(id)) removed.add(id);
+        }
+        return new QuestionBankDiff(added, changed, removed);
+    }
+
+    /**
+     * Exact content hash of a question (unlike QuestionImporter.contentHash, case
+     * and spacing matter here, so a corrected typo is seen as a change)
+     */
+    public static String fingerprint(Question q) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(q.text().getBytes(StandardCharsets.UTF_8));
+            for (String o : q.options()) {
+                md.update((byte) 0);
+                md.update(o.getBytes(StandardCharsets.UTF_8));
+            }
+            md.update((byte) 0);
+            md.update((byte) q.correctIndex());
+            md.update((byte) (q.level() == null ? -1 : q.level().ordinal()));
+
+            byte[] d = md.digest();
+            char[] hex = new char[32];
+            for (int i = 0; i < 16; i++) {
+                hex[2 * i] = HEX[(d[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[d[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches one file (questions.csv) for changes made outside the app
+ *
+ * A daemon thread blocks on a WatchService registered on the file's directory.
+ * Editors usually write a file in several steps (truncate, write, rename), so the
+ * callback runs only after the file has been quiet for QUIET_MS, on a single
+ * background thread (never the EDT, never two at once)
+ */
+public final class QuestionFileWatcher implements AutoCloseable {
+
+    /** Quiet period after the last event before the callback runs */
+    private static final long QUIET_MS = 300;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final WatchService watch;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "questions-reload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ScheduledFuture<?> pending;
+
+    private QuestionFileWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.watch = FileSystems.getDefault().newWatchService();
+        this.file.getParent().register(watch,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Starts watching
+     * @param file     file to watch (its directory must exist)
+     * @param onChange called (debounced, on a background thread) after the file changed
+     */
+    public static QuestionFileWatcher start(Path file, Runnable onChange) throws IOException {
+        QuestionFileWatcher w = new QuestionFileWatcher(file, onChange);
+        Thread t = new Thread(w::loop, "questions-watch");
+        t.setDaemon(true);
+        t.start();
+        return w;
+    }
+
+    private void loop() {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watch.take();
+                boolean hit = false;
+                for (WatchEvent<?> ev : key.pollEvents()) {
+                    // OVERFLOW means events were lost: assume the file was among them
+                    if (ev.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(ev.context())) hit = true;
+                }
+                if (hit) schedule();
+                if (!key.reset()) return; // directory is gone
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private synchronized void schedule() {
+        if (pending != null) pending.cancel(false);
+        pending = timer.schedule(this::fire, QUIET_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void fire() {
+        try {
+            onChange.run();
+        } catch (RuntimeException e) {
+            System.err.println("[QUESTIONS] Reload after file change failed: " + e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watch.close();
+        } catch (IOException ignored) { }
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,438 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+import util.CsvReader;
+
+/**
+ * Reads a question pack (CSV or JSON) for a bulk import
+ * - the file is streamed; rows are handed to the common pool in batches
+ *   and validated / normalized there (4 options, correct letter, level)
+ * - duplicates are detected by a SHA-256 hash of the normalized content,
+ *   both inside the pack and against the existing bank
+ * - every rejected row is reported with its line number
+ *
+ * The importer only builds Question drafts (without ids); SysData.addQuestionsBatch
+ * numbers and stores them with a single write
+ *
+ * CSV: the questions.csv layout (ID,Question,Difficulty,A,B,C,D,CorrectAnswer),
+ * the ID column is optional and ignored
+ * JSON: an array of objects such as
+ * {"question": "...", "difficulty": 2, "options": ["a","b","c","d"], "correct": "B"}
+ * ("text", "level", "A".."D", "answer" are accepted as well)
+ */
+public class QuestionImporter {
+
+    /** Rows per validation task */
+    private static final int BATCH = 512;
+
+    /** Validation batches allowed in flight before the reader waits (bounds memory) */
+    private static final int MAX_IN_FLIGHT = Math.max(2, ForkJoinPool.getCommonPoolParallelism()) * 2;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Problem found in one row of the pack */
+    public record LineError(long line, String message) {}
+
+    /**
+     * Outcome of reading a pack
+     * questions are drafts in file order, not yet stored
+     */
+    public record Result(List<Question> questions, int duplicates, List<LineError> errors) {}
+
+    /** One row as read from the file, before validation */
+    private record RawRow(long line, String text, String level, String[] options, String correct) {}
+
+    /** Validated row: either a draft with its content hash, or an error */
+    private record Checked(long line, Question draft, String hash, String error) {}
+
+    private final Set<String> known = new HashSet<>();
+    private final List<Question> accepted = new ArrayList<>();
+    private final List<LineError> errors = new ArrayList<>();
+    private int duplicates = 0;
+
+    private final ArrayDeque<CompletableFuture<List<Checked>>> inFlight = new ArrayDeque<>();
+    private List<RawRow> batch = new ArrayList<>(BATCH);
+
+    private QuestionImporter(List<Question> existing) {
+        for (Question q : existing) known.add(contentHash(q.text(), q.options()));
+    }
+
+    /**
+     * Reads and validates a pack; files ending in .json are read as JSON, anything else as CSV
+     * @param file     pack to read
+     * @param existing current question bank (for duplicate detection)
+     */
+    public static Result read(Path file, List<Question> existing) throws IOException {
+        QuestionImporter imp = new QuestionImporter(existing);
+        boolean json = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json");
+
+        try (Reader in = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            if (json) imp.readJson(in);
+            else imp.readCsv(in);
+        }
+        imp.flushBatch();
+        while (!imp.inFlight.isEmpty()) imp.merge(imp.inFlight.pollFirst().join());
+
+        imp.errors.sort(Comparator.comparingLong(LineError::line));
+        return new Result(List.copyOf(imp.accepted), imp.duplicates, List.copyOf(imp.errors));
+    }
+
+    // ============================================================
+    // Streaming input
+    // ============================================================
+
+    private void readCsv(Reader r) throws IOException {
+        try (CsvReader in = new CsvReader(r, ',')) {
+            boolean first = true;
+            while (in.next()) {
+                if (first) {
+                    first = false;
+                    if (isHeader(in)) continue;
+                }
+
+                int n = in.fieldCount();
+                if (n != 7 && n != 8) {
+                    errors.add(new LineError(in.lineNumber(), "Expected 7 or 8 columns, found " + n));
+                    continue;
+                }
+                int o = n - 7; // skip the ID column when present
+                submit(new RawRow(in.lineNumber(), in.get(o), in.get(o + 1),
+                        new String[]{in.get(o + 2), in.get(o + 3), in.get(o + 4), in.get(o + 5)},
+                        in.get(o + 6)));
+            }
+        }
+    }
+
+    private static boolean isHeader(CsvReader in) {
+        for (int i = 0; i < in.fieldCount(); i++) {
+            if (in.get(i).trim().equalsIgnoreCase("question")) return true;
+        }
+        return false;
+    }
+
+    private void readJson(Reader r) throws IOException {
+        JsonStream js = new JsonStream(r);
+        js.expect('[');
+        if (js.peekIs(']')) return;
+
+        do {
+            long line = js.line();
+            Object value = js.value();
+            if (!(value instanceof Map<?, ?> obj)) {
+                errors.add(new LineError(line, "Expected an object"));
+                continue;
+            }
+            submit(fromJson(line, obj));
+        } while (js.nextElement(']'));
+    }
+
+    private static RawRow fromJson(long line, Map<?, ?> obj) {
+        String text = str(obj, "question", "text");
+        String level = str(obj, "difficulty", "level");
+        String correct = str(obj, "correct", "answer", "correctAnswer");
+
+        String[] opts = new String[4];
+        Object list = obj.get("options");
+        if (list instanceof List<?> l) {
+            if (l.size() != 4) opts = new String[l.size()];
+            for (int i = 0; i < l.size() && i < opts.length; i++) opts[i] = l.get(i) == null ? null : l.get(i).toString();
+        } else {
+            for (int i = 0; i < 4; i++) opts[i] = str(obj, String.valueOf((char) ('A' + i)), String.valueOf((char) ('a' + i)));
+        }
+        return new RawRow(line, text, level, opts, correct);
+    }
+
+    private static String str(Map<?, ?> obj, String... keys) {
+        for (String k : keys) {
+            Object v = obj.get(k);
+            if (v != null) return v.toString();
+        }
+        return null;
+    }
+
+    // ============================================================
+    // Parallel validation
+    // ============================================================
+
+    private void submit(RawRow row) {
+        batch.add(row);
+        if (batch.size() == BATCH) flushBatch();
+    }
+
+    private void flushBatch() {
+        if (batch.isEmpty()) return;
+        List<RawRow> work = batch;
+        batch = new ArrayList<>(BATCH);
+
+        inFlight.addLast(CompletableFuture.supplyAsync(() -> {
+            List<Checked> out = new ArrayList<>(work.size());
+            for (RawRow row : work) out.add(check(row));
+            return out;
+        }));
+        while (inFlight.size() > MAX_IN_FLIGHT) merge(inFlight.pollFirst().join());
+    }
+
+    /** Merges finished batches in file order, so the first copy of a duplicate wins */
+    private void merge(List<Checked> checked) {
+        for (Checked c : checked) {
+            if (c.error() != null) {
+                errors.add(new LineError(c.line(), c.error()));
+            } else if (!known.add(c.hash())) {
+                duplicates++;
+            } else {
+                accepted.add(c.draft());
+            }
+        }
+    }
+
+    private static Checked check(RawRow row) {
+        String text = normalize(row.text());
+        if (text.isEmpty()) return fail(row, "Question text is empty");
+
+        if (row.options().length != 4) return fail(row, "Expected 4 options, found " + row.options().length);
+        List<String> opts = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            String o = normalize(row.options()[i]);
+            if (o.isEmpty()) return fail(row, "Option " + (char) ('A' + i) + " is empty");
+            opts.add(o);
+        }
+        if (new HashSet<>(opts).size() < 4) return fail(row, "Options must be different");
+
+        QuestionLevel level = parseLevel(row.level());
+        if (level == null) return fail(row, "Unknown difficulty '" + row.level() + "'");
+
+        int correct = parseCorrect(row.correct());
+        if (correct < 0) return fail(row, "Correct answer must be A-D, found '" + row.correct() + "'");
+
+        Question draft = new Question("", text, opts, correct, level);
+        return new Checked(row.line(), draft, contentHash(text, opts), null);
+    }
+
+    private static Checked fail(RawRow row, String msg) {
+        return new Checked(row.line(), null, null, msg);
+    }
+
+    /** Trims and collapses inner runs of spaces and tabs (line breaks are kept) */
+    private static String normalize(String s) {
+        if (s == null) return "";
+        return s.strip().replaceAll("[ \\t]+", " ");
+    }
+
+    /** Accepts 1..4 or a QuestionLevel name */
+    static QuestionLevel parseLevel(String s) {
+        if (s == null) return null;
+        String v = s.trim().toUpperCase(Locale.ROOT);
+        switch (v) {
+            case "1": return QuestionLevel.EASY;
+            case "2": return QuestionLevel.MEDIUM;
+            case "3": return QuestionLevel.HARD;
+            case "4": return QuestionLevel.MASTER;
+            default:
+                try {
+                    return QuestionLevel.valueOf(v);
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+        }
+    }
+
+    /** Accepts a letter A..D (any case) or 1..4; returns -1 if invalid */
+    static int parseCorrect(String s) {
+        if (s == null) return -1;
+        String v = s.trim().toUpperCase(Locale.ROOT);
+        if (v.length() != 1) return -1;
+        char c = v.charAt(0);
+        if (c >= 'A' && c <= 'D') return c - 'A';
+        if (c >= '1' && c <= '4') return c - '1';
+        return -1;
+    }
+
+    /**
+     * SHA-256 of the normalized question content (case-insensitive text and options,
+     * in order) as 64 hex digits
+     * Two questions with the same hash are treated as duplicates
+     */
+    public static String contentHash(String text, List<String> options) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            md.update(normalize(text).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            for (String o : options) {
+                md.update((byte) 0);
+                md.update(normalize(o).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] d = md.digest();
+            char[] hex = new char[d.length * 2];
+            for (int i = 0; i < d.length; i++) {
+                hex[2 * i] = HEX[(d[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[d[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // ============================================================
+    // Minimal streaming JSON reader
+    // ============================================================
+
+    /**
+     * Pulls one array element at a time; objects become Maps, arrays Lists,
+     * numbers and booleans their text
+     */
+    private static final class JsonStream {
+        private final Reader in;
+        private int peeked = -2;
+        private long line = 1;
+
+        JsonStream(Reader in) {
+            this.in = in;
+        }
+
+        long line() throws IOException {
+            skipSpace();
+            return line;
+        }
+
+        void expect(char c) throws IOException {
+            skipSpace();
+            int r = read();
+            if (r != c) throw error("Expected '" + c + "'");
+        }
+
+        boolean peekIs(char c) throws IOException {
+            skipSpace();
+            if (peek() == c) {
+                read();
+                return true;
+            }
+            return false;
+        }
+
+        /** After an element: true if another follows (',' consumed), false at the closing bracket */
+        boolean nextElement(char close) throws IOException {
+            skipSpace();
+            int r = read();
+            if (r == ',') return true;
+            if (r == close) return false;
+            throw error("Expected ',' or '" + close + "'");
+        }
+
+        Object value() throws IOException {
+            skipSpace();
+            int c = peek();
+            switch (c) {
+                case '{': {
+                    read();
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    if (peekIs('}')) return m;
+                    do {
+                        skipSpace();
+                        if (read() != '"') throw error("Expected a key");
+                        String key = string();
+                        expect(':');
+                        m.put(key, value());
+                    } while (nextElement('}'));
+                    return m;
+                }
+                case '[': {
+                    read();
+                    List<Object> l = new ArrayList<>();
+                    if (peekIs(']')) return l;
+                    do {
+                        l.add(value());
+                    } while (nextElement(']'));
+                    return l;
+                }
+                case '"':
+                    read();
+                    return string();
+                case -1:
+                    throw error("Unexpected end of file");
+                default:
+                    StringBuilder sb = new StringBuilder();
+                    while (peek() >= 0 && ",}] \t\r\n".indexOf(peek()) < 0) sb.append((char) read());
+                    String lit = sb.toString();
+                    if (lit.isEmpty()) throw error("Unexpected '" + (char) c + "'");
+                    return lit.equals("null") ? null : lit;
+            }
+        }
+
+        private String string() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0) throw error("Unterminated string");
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append((char) c);
+                    continue;
+                }
+                int e = read();
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) hex[i] = (char) read();
+                        try {
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("Bad \\u escape");
+                        }
+                    }
+                    case -1 -> throw error("Unterminated string");
+                    default -> sb.append((char) e);
+                }
+            }
+        }
+
+        private void skipSpace() throws IOException {
+            while (true) {
+                int c = peek();
+                if (c == '\uFEFF' || (c >= 0 && Character.isWhitespace(c))) read();
+                else return;
+            }
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) peeked = in.read();
+            return peeked;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            peeked = -2;
+            if (c == '\n') line++;
+            return c;
+        }
+
+        private IOException error(String msg) {
+            return new IOException("JSON line " + line + ": " + msg);
+        }
+    }
+}
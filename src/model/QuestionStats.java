@@ -0,0 +1,266 @@
+package model;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import util.DebouncedSave;
+
+/**
+ * Per-question answer statistics (attempts, correct answers, answer-time histogram)
+ * Stored column-wise in primitive arrays and keyed by question id
+ *
+ * Updates are queued to a single background worker, so the game's interaction
+ * path never waits for the store or for disk
+ * The data is persisted to a small binary sidecar next to questions.csv
+ * (debounced, written to a temp file and moved into place)
+ */
+public class QuestionStats {
+
+    /** Upper bounds (exclusive, ms) of the answer-time buckets; the last bucket is open-ended */
+    public static final int[] BUCKET_LIMITS_MS = {2_000, 4_000, 8_000, 15_000, 30_000, 60_000};
+    public static final int BUCKETS = BUCKET_LIMITS_MS.length + 1;
+
+    private static final int MAGIC = 0x51535453; // "QSTS"
+    private static final int VERSION = 1;
+
+    /** Delay before pending changes are written to disk */
+    private static final long SAVE_DELAY_MS = 2_000;
+
+    /**
+     * Read-only copy of one question's statistics
+     */
+    public record Entry(String id, int attempts, int correct, long totalMillis, int[] histogram) {
+
+        /** return share of correct answers (0..1), or -1 if never answered */
+        public double correctRate() {
+            return attempts == 0 ? -1 : (double) correct / attempts;
+        }
+
+        /** return average answer time in ms, or -1 if never answered */
+        public long avgMillis() {
+            return attempts == 0 ? -1 : totalMillis / attempts;
+        }
+
+        public int wrong() {
+            return attempts - correct;
+        }
+    }
+
+    private final Path file;
+
+    // ---------- Columns ----------
+    private final Map<String, Integer> index = new HashMap<>();
+    private String[] ids = new String[64];
+    private int[] attempts = new int[64];
+    private int[] correct = new int[64];
+    private long[] totalMillis = new long[64];
+    private int[] hist = new int[64 * BUCKETS];
+    private int size = 0;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "question-stats");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Completes once the sidecar was read (loading runs on the worker, before any queued update) */
+    private final CompletableFuture<Void> loaded;
+
+    /** Debounced sidecar writes; its shutdown hook persists queued answers when the app exits */
+    private final DebouncedSave save;
+
+    public QuestionStats(Path file) {
+        this.file = file;
+        this.save = new DebouncedSave(file, this, SAVE_DELAY_MS, worker, "question-stats-flush", this::copyForSave);
+        this.loaded = CompletableFuture.runAsync(this::load, worker);
+    }
+
+    // ============================================================
+    // Updates (asynchronous)
+    // ============================================================
+
+    /**
+     * Queues one answer; returns immediately
+     */
+    public void record(String id, boolean right, long answerMillis) {
+        if (id == null) return;
+        worker.execute(() -> {
+            apply(id, right, answerMillis);
+            save.changed();
+        });
+    }
+
+    /**
+     * Re-keys entries after question ids changed (SysData renumbers on delete)
+     * Entries whose id is not a key of oldToNew are dropped
+     * return a future that completes once the new keys are visible to readers
+     */
+    public CompletableFuture<Void> remap(Map<String, String> oldToNew) {
+        return CompletableFuture.runAsync(() -> {
+            rekey(oldToNew);
+            save.changed();
+        }, worker);
+    }
+
+    private synchronized void apply(String id, boolean right, long ms) {
+        int i = slot(id);
+        attempts[i]++;
+        if (right) correct[i]++;
+        totalMillis[i] += Math.max(0, ms);
+        hist[i * BUCKETS + bucketOf(ms)]++;
+        save.markDirty();
+    }
+
+    private synchronized void rekey(Map<String, String> oldToNew) {
+        String[] oIds = Arrays.copyOf(ids, size);
+        int[] oAtt = Arrays.copyOf(attempts, size);
+        int[] oCor = Arrays.copyOf(correct, size);
+        long[] oTot = Arrays.copyOf(totalMillis, size);
+        int[] oHist = Arrays.copyOf(hist, size * BUCKETS);
+
+        index.clear();
+        size = 0;
+        for (int k = 0; k < oIds.length; k++) {
+            String nid = oldToNew.get(oIds[k]);
+            if (nid == null) continue;
+            int i = slot(nid);
+            attempts[i] = oAtt[k];
+            correct[i] = oCor[k];
+            totalMillis[i] = oTot[k];
+            System.arraycopy(oHist, k * BUCKETS, hist, i * BUCKETS, BUCKETS);
+        }
+        save.markDirty();
+    }
+
+    private int slot(String id) {
+        Integer i = index.get(id);
+        if (i != null) return i;
+
+        if (size == ids.length) {
+            int cap = size * 2;
+            ids = Arrays.copyOf(ids, cap);
+            attempts = Arrays.copyOf(attempts, cap);
+            correct = Arrays.copyOf(correct, cap);
+            totalMillis = Arrays.copyOf(totalMillis, cap);
+            hist = Arrays.copyOf(hist, cap * BUCKETS);
+        }
+        ids[size] = id;
+        attempts[size] = 0;
+        correct[size] = 0;
+        totalMillis[size] = 0;
+        Arrays.fill(hist, size * BUCKETS, (size + 1) * BUCKETS, 0);
+        index.put(id, size);
+        return size++;
+    }
+
+    private static int bucketOf(long ms) {
+        for (int b = 0; b < BUCKET_LIMITS_MS.length; b++) {
+            if (ms < BUCKET_LIMITS_MS[b]) return b;
+        }
+        return BUCKETS - 1;
+    }
+
+    // ============================================================
+    // Reads
+    // ============================================================
+
+    /** return a copy of the statistics of one question, or null if it was never answered */
+    public Entry get(String id) {
+        loaded.join();
+        synchronized (this) {
+            Integer i = index.get(id);
+            return i == null ? null : entryAt(i);
+        }
+    }
+
+    /** return a copy of all entries keyed by question id */
+    public Map<String, Entry> snapshot() {
+        loaded.join();
+        synchronized (this) {
+            Map<String, Entry> out = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) out.put(ids[i], entryAt(i));
+            return out;
+        }
+    }
+
+    /**
+     * Snapshot taken on the worker, after every update queued before this call
+     * (a table reloaded right after a delete sees the remapped ids)
+     */
+    public CompletableFuture<Map<String, Entry>> snapshotAsync() {
+        return loaded.thenApplyAsync(v -> snapshot(), worker);
+    }
+
+    private Entry entryAt(int i) {
+        return new Entry(ids[i], attempts[i], correct[i], totalMillis[i],
+                Arrays.copyOfRange(hist, i * BUCKETS, (i + 1) * BUCKETS));
+    }
+
+    // ============================================================
+    // Persistence
+    // ============================================================
+
+    /** Writes pending changes now (temp file + atomic move); waits for a write in progress */
+    public void flushNow() {
+        save.flushNow();
+    }
+
+    /** Copies the columns (called by the saver with the lock held); the copy is written outside of it */
+    private DebouncedSave.Snapshot copyForSave() {
+        int n = size;
+        String[] fIds = Arrays.copyOf(ids, n);
+        int[] fAtt = Arrays.copyOf(attempts, n);
+        int[] fCor = Arrays.copyOf(correct, n);
+        long[] fTot = Arrays.copyOf(totalMillis, n);
+        int[] fHist = Arrays.copyOf(hist, n * BUCKETS);
+
+        return os -> {
+            DataOutputStream out = new DataOutputStream(os);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(BUCKETS);
+            out.writeInt(n);
+            for (int i = 0; i < n; i++) {
+                out.writeUTF(fIds[i]);
+                out.writeInt(fAtt[i]);
+                out.writeInt(fCor[i]);
+                out.writeLong(fTot[i]);
+                for (int b = 0; b < BUCKETS; b++) out.writeInt(fHist[i * BUCKETS + b]);
+            }
+            out.flush();
+        };
+    }
+
+    private synchronized void load() {
+        if (!Files.exists(file)) return;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC) return;
+            int version = in.readInt();
+            if (version != VERSION) return;
+
+            int buckets = in.readInt();
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                int i = slot(in.readUTF());
+                attempts[i] = in.readInt();
+                correct[i] = in.readInt();
+                totalMillis[i] = in.readLong();
+                for (int b = 0; b < buckets; b++) {
+                    int v = in.readInt();
+                    if (b < BUCKETS) hist[i * BUCKETS + b] = v;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[STATS] Could not read " + file + ": " + e.getMessage());
+        }
+    }
+}
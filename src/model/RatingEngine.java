@@ -0,0 +1,426 @@
+package model;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import model.SysData.GameRecord;
+
+import util.DebouncedSave;
+
+/**
+ * Glicko-2 skill ratings for players and for pairs of players
+ *
+ * Both players of a match play together against the board, so there is no human
+ * opponent to rate against: every match is scored as one game against a fixed
+ * virtual opponent whose strength depends on the DifficultyLevel
+ * (won = 1, lost = 0). Each match is its own rating period
+ *
+ * - addRecord: O(1) per match (three map lookups and one update each)
+ * - rebuild: replays the history in timestamp order; players and pairs never
+ *   influence each other, so each one is replayed independently on the common pool
+ * - the ratings are saved to a small binary snapshot (debounced, temp file + move);
+ *   on start only the matches newer than the snapshot are replayed
+ *
+ * Matches rolled into summary buckets (HistoryArchive) can no longer be replayed;
+ * their effect survives through the snapshot
+ */
+public class RatingEngine {
+
+    static final String FILE = "ratings.bin";
+
+    private static final int MAGIC = 0x52544E47; // "RTNG"
+    private static final int VERSION = 1;
+
+    /** Delay before pending changes are written to disk */
+    private static final long SAVE_DELAY_MS = 2_000;
+
+    // ---------- Glicko-2 constants ----------
+    public static final double INITIAL_RATING = 1500;
+    public static final double INITIAL_RD = 350;
+    private static final double INITIAL_VOLATILITY = 0.06;
+    private static final double TAU = 0.5;
+    private static final double SCALE = 173.7178;
+    private static final double EPSILON = 1e-6;
+    private static final int MAX_ITERATIONS = 100;
+
+    /** Rating deviation never drops below this, so ratings keep moving */
+    private static final double MIN_RD = 30;
+
+    /** Virtual opponent rating per DifficultyLevel (by ordinal: EASY, MEDIUM, HARD) */
+    private static final double[] OPPONENT_RATING = {1200, 1500, 1800};
+    private static final double OPPONENT_RD = 50;
+
+    /** Read-only copy of one rating; rating and rd on the Glicko (1500) scale */
+    public record Rating(String name, double rating, double rd, double volatility, int games) {
+
+        /** return a conservative skill estimate (rating minus two deviations) */
+        public double conservative() {
+            return rating - 2 * rd;
+        }
+
+        @Override
+        public String toString() {
+            return Math.round(rating) + " \u00B1" + Math.round(2 * rd);
+        }
+    }
+
+    /** Mutable state of one player or pair, on the Glicko-2 scale */
+    private static final class State {
+        final String name;
+        double mu = 0;
+        double phi = INITIAL_RD / SCALE;
+        double sigma = INITIAL_VOLATILITY;
+        int games;
+
+        State(String name) {
+            this.name = name;
+        }
+
+        Rating rating() {
+            return new Rating(name, mu * SCALE + INITIAL_RATING, phi * SCALE, sigma, games);
+        }
+    }
+
+    private final Path file;
+
+    private final Map<String, State> players = new HashMap<>();
+    private final Map<String, State> pairs = new HashMap<>();
+
+    /** Timestamp of the newest match included in the ratings */
+    private long through = Long.MIN_VALUE;
+
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "rating-save");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Debounced snapshot writes, or null when the ratings are kept in memory only */
+    private final DebouncedSave save;
+
+    /** @param file snapshot file, or null to keep the ratings in memory only */
+    public RatingEngine(Path file) {
+        this.file = file;
+        this.save = file == null ? null
+                : new DebouncedSave(file, this, SAVE_DELAY_MS, saver, "rating-flush", this::copyForSave);
+    }
+
+    // ============================================================
+    // Loading / rebuilding
+    // ============================================================
+
+    /**
+     * Reads the snapshot and replays the matches that are newer than it
+     * Without a usable snapshot all ratings are rebuilt from the history
+     */
+    public static RatingEngine restore(Path file, HistoryColumns log) {
+        RatingEngine e = new RatingEngine(file);
+        if (!e.load()) {
+            e.rebuild(log);
+            return e;
+        }
+
+        int[] order = timeOrder(log);
+        int applied = 0;
+        for (int i : order) {
+            if (log.timestamp(i) <= e.through) continue;
+            e.apply(log.p1(i), log.p2(i), log.level(i), log.won(i), log.timestamp(i));
+            applied++;
+        }
+        if (applied > 0) e.scheduleSave();
+        return e;
+    }
+
+    /**
+     * Replaces all ratings by a replay of the given history
+     * Rows are ordered by timestamp, grouped per player and per pair, and every
+     * group is replayed on its own (the virtual opponent makes them independent)
+     */
+    public void rebuild(HistoryColumns log) {
+        int[] order = timeOrder(log);
+
+        Map<String, State> ps = new HashMap<>();
+        Map<String, State> prs = new HashMap<>();
+        Map<State, IntList> rowsOf = new HashMap<>();
+        long last = Long.MIN_VALUE;
+
+        for (int i : order) {
+            String a = PlayerNames.display(log.p1(i));
+            String b = PlayerNames.display(log.p2(i));
+            String ka = PlayerNames.key(a);
+            String kb = PlayerNames.key(b);
+
+            rowsOf.computeIfAbsent(ps.computeIfAbsent(ka, k -> new State(a)), s -> new IntList()).add(i);
+            if (!ka.equals(kb)) {
+                rowsOf.computeIfAbsent(ps.computeIfAbsent(kb, k -> new State(b)), s -> new IntList()).add(i);
+            }
+            rowsOf.computeIfAbsent(prs.computeIfAbsent(PlayerNames.pairKey(ka, kb),
+                    k -> new State(PlayerNames.pairName(a, b))), s -> new IntList()).add(i);
+            last = Math.max(last, log.timestamp(i));
+        }
+
+        rowsOf.entrySet().parallelStream().forEach(en -> {
+            State s = en.getKey();
+            IntList rows = en.getValue();
+            for (int k = 0; k < rows.size; k++) {
+                int i = rows.data[k];
+                update(s, log.level(i), log.won(i));
+            }
+        });
+
+        synchronized (this) {
+            players.clear();
+            players.putAll(ps);
+            pairs.clear();
+            pairs.putAll(prs);
+            through = last;
+        }
+        scheduleSave();
+    }
+
+    /** return row indices sorted by timestamp (store order on ties) */
+    private static int[] timeOrder(HistoryColumns log) {
+        int n = log.size();
+        int[] idx = new int[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            idx[i] = i;
+            if (i > 0 && log.timestamp(i) < log.timestamp(i - 1)) sorted = false;
+        }
+        if (sorted) return idx; // the usual case: history.csv is append-only
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) boxed[i] = i;
+        Arrays.parallelSort(boxed, (x, y) -> {
+            int c = Long.compare(log.timestamp(x), log.timestamp(y));
+            return c != 0 ? c : Integer.compare(x, y);
+        });
+        for (int i = 0; i < n; i++) idx[i] = boxed[i];
+        return idx;
+    }
+
+    /** Growable int array (row lists per player / pair) */
+    private static final class IntList {
+        int[] data = new int[8];
+        int size;
+
+        void add(int v) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = v;
+        }
+    }
+
+    // ============================================================
+    // Updates
+    // ============================================================
+
+    /** Rates one finished match for both players and for the pair */
+    public void add(GameRecord r) {
+        apply(r.p1, r.p2, r.level, r.won, r.timestamp);
+        scheduleSave();
+    }
+
+    private synchronized void apply(String p1, String p2, DifficultyLevel level, boolean won, long ts) {
+        String a = PlayerNames.display(p1);
+        String b = PlayerNames.display(p2);
+        String ka = PlayerNames.key(a);
+        String kb = PlayerNames.key(b);
+
+        update(players.computeIfAbsent(ka, k -> new State(a)), level, won);
+        if (!ka.equals(kb)) update(players.computeIfAbsent(kb, k -> new State(b)), level, won);
+        update(pairs.computeIfAbsent(PlayerNames.pairKey(ka, kb),
+                k -> new State(PlayerNames.pairName(a, b))), level, won);
+
+        through = Math.max(through, ts);
+    }
+
+    /**
+     * One Glicko-2 rating period with a single game against the level's virtual opponent
+     * (Glickman, "Example of the Glicko-2 system", steps 3-8)
+     */
+    private static void update(State s, DifficultyLevel level, boolean won) {
+        double muJ = (OPPONENT_RATING[level.ordinal()] - INITIAL_RATING) / SCALE;
+        double phiJ = OPPONENT_RD / SCALE;
+        double score = won ? 1 : 0;
+
+        double g = 1 / Math.sqrt(1 + 3 * phiJ * phiJ / (Math.PI * Math.PI));
+        double e = 1 / (1 + Math.exp(-g * (s.mu - muJ)));
+        double v = 1 / (g * g * e * (1 - e));
+        double delta = v * g * (score - e);
+
+        double sigma = volatility(s.phi, s.sigma, v, delta);
+
+        double phiStar = Math.sqrt(s.phi * s.phi + sigma * sigma);
+        double phi = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / v);
+
+        s.mu += phi * phi * g * (score - e);
+        s.phi = Math.max(MIN_RD / SCALE, phi);
+        s.sigma = sigma;
+        s.games++;
+    }
+
+    /** New volatility (step 5, Illinois variant of regula falsi) */
+    private static double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double d2 = delta * delta;
+        double p2 = phi * phi;
+
+        double A = a;
+        double B;
+        if (d2 > p2 + v) {
+            B = Math.log(d2 - p2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * TAU, a, d2, p2, v) < 0 && k < MAX_ITERATIONS) k++;
+            B = a - k * TAU;
+        }
+
+        double fA = f(A, a, d2, p2, v);
+        double fB = f(B, a, d2, p2, v);
+        for (int it = 0; Math.abs(B - A) > EPSILON && it < MAX_ITERATIONS; it++) {
+            double C = A + (A - B) * fA / (fB - fA);
+            double fC = f(C, a, d2, p2, v);
+            if (fC * fB <= 0) {
+                A = B;
+                fA = fB;
+            } else {
+                fA /= 2;
+            }
+            B = C;
+            fB = fC;
+        }
+        return Math.exp(A / 2);
+    }
+
+    private static double f(double x, double a, double d2, double p2, double v) {
+        double ex = Math.exp(x);
+        double den = p2 + v + ex;
+        return ex * (d2 - p2 - v - ex) / (2 * den * den) - (x - a) / (TAU * TAU);
+    }
+
+    // ============================================================
+    // Queries
+    // ============================================================
+
+    /** return a player's rating, or an unrated default for unknown names */
+    public synchronized Rating player(String name) {
+        State s = players.get(PlayerNames.key(PlayerNames.display(name)));
+        return s == null ? unrated(PlayerNames.display(name)) : s.rating();
+    }
+
+    /** return a pair's rating (in either order), or an unrated default */
+    public synchronized Rating pair(String p1, String p2) {
+        String a = PlayerNames.display(p1);
+        String b = PlayerNames.display(p2);
+        State s = pairs.get(PlayerNames.pairKey(PlayerNames.key(a), PlayerNames.key(b)));
+        return s == null ? unrated(PlayerNames.pairName(a, b)) : s.rating();
+    }
+
+    /** return all pairs, highest conservative rating first (for balanced pairings) */
+    public synchronized List<Rating> pairsRanked() {
+        List<Rating> out = new ArrayList<>(pairs.size());
+        for (State s : pairs.values()) out.add(s.rating());
+        out.sort((x, y) -> Double.compare(y.conservative(), x.conservative()));
+        return out;
+    }
+
+    private static Rating unrated(String name) {
+        return new Rating(name, INITIAL_RATING, INITIAL_RD, INITIAL_VOLATILITY, 0);
+    }
+
+    // ============================================================
+    // Persistence
+    // ============================================================
+
+    /** Marks the ratings changed and schedules a snapshot write */
+    private void scheduleSave() {
+        if (save != null) save.changed();
+    }
+
+    /** Writes pending changes now (temp file + atomic move); waits for a write in progress */
+    public void flushNow() {
+        if (save != null) save.flushNow();
+    }
+
+    /** Copies the entries (called by the saver with the lock held); the copy is written outside of it */
+    private DebouncedSave.Snapshot copyForSave() {
+        List<String> keys = new ArrayList<>();
+        List<State> states = new ArrayList<>();
+        copyInto(players, keys, states);
+        int playerCount = keys.size();
+        copyInto(pairs, keys, states);
+        long thr = through;
+
+        return os -> {
+            DataOutputStream out = new DataOutputStream(os);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(thr);
+            out.writeInt(states.size());
+            for (int i = 0; i < states.size(); i++) {
+                State s = states.get(i);
+                out.writeBoolean(i >= playerCount); // false = player, true = pair
+                out.writeUTF(keys.get(i));
+                out.writeUTF(s.name);
+                out.writeFloat((float) s.mu);
+                out.writeFloat((float) s.phi);
+                out.writeFloat((float) s.sigma);
+                out.writeInt(s.games);
+            }
+            out.flush();
+        };
+    }
+
+    private static void copyInto(Map<String, State> m, List<String> keys, List<State> copies) {
+        for (Map.Entry<String, State> e : m.entrySet()) {
+            State s = e.getValue();
+            State c = new State(s.name);
+            c.mu = s.mu;
+            c.phi = s.phi;
+            c.sigma = s.sigma;
+            c.games = s.games;
+            keys.add(e.getKey());
+            copies.add(c);
+        }
+    }
+
+    /** return true if a snapshot was read */
+    private synchronized boolean load() {
+        if (!Files.exists(file)) return false;
+
+        Map<String, State> ps = new HashMap<>();
+        Map<String, State> prs = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return false;
+
+            long thr = in.readLong();
+            int n = in.readInt();
+            for (int k = 0; k < n; k++) {
+                boolean pair = in.readBoolean();
+                String key = in.readUTF();
+                State s = new State(in.readUTF());
+                s.mu = in.readFloat();
+                s.phi = in.readFloat();
+                s.sigma = in.readFloat();
+                s.games = in.readInt();
+                (pair ? prs : ps).put(key, s);
+            }
+            players.putAll(ps);
+            pairs.putAll(prs);
+            through = thr;
+            return true;
+        } catch (IOException e) {
+            System.err.println("[RATINGS] Could not read " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+}
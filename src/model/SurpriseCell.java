@@ -23,6 +23,11 @@ public class SurpriseCell extends Cell {
         return true;
     }
 
+    /** Marks the surprise as used (restoring a saved match) */
+    void restoreOperated(boolean operated){
+        this.operated = operated;
+    }
+
     @Override
     public CellType type(){ return CellType.SURPRISE; }
 
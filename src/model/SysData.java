@@ -4,9 +4,20 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.awt.Color;
 
+import util.AtomicFiles;
+import util.CsvReader;
+import util.CsvWriter;
+import util.EdtWatchdog;
+
 public class SysData {
 
     // ---------- Singleton ----------
@@ -16,12 +27,66 @@ public class SysData {
         return INSTANCE;
     }
 
+    // ---------- Startup loading ----------
+    // Each file is parsed on its own background thread so the main menu can
+    // appear right away; accessors wait only for the data they actually touch
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(3, r -> {
+        Thread t = new Thread(r, "sysdata-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final CompletableFuture<Void> questionsReady;
+    private final CompletableFuture<Void> historyReady;
+    private final CompletableFuture<Void> themeReady;
+
     private SysData() {
-        loadQuestions();
-        loadHistory();
-        loadTheme();
+        questionsReady = CompletableFuture.runAsync(this::loadQuestions, LOADER);
+        historyReady   = CompletableFuture.runAsync(this::loadHistory, LOADER);
+        themeReady     = CompletableFuture.runAsync(AppSettings::getInstance, LOADER);
+
+        // roll old matches into summary buckets once history is in memory
+        // (only if the player set a horizon, see AppSettings.HISTORY_HORIZON_DAYS)
+        historyReady.thenRunAsync(() -> compactHistory(getHistoryHorizonDays()), LOADER)
+                .exceptionally(e -> {
+                    System.err.println("[SYSDATA] History compaction failed: " + e.getCause());
+                    return null;
+                });
+
+        // pick up edits made to questions.csv while the app runs (-Dquestions.watch=false to disable)
+        if (!"false".equals(System.getProperty("questions.watch"))) {
+            questionsReady.thenRunAsync(this::watchQuestionsFile, LOADER);
+        }
+    }
+
+    /** Completes when questions.csv (and the question statistics) are loaded */
+    public CompletableFuture<Void> questionsLoaded() { return questionsReady; }
+
+    /** Completes when history.csv is loaded */
+    public CompletableFuture<Void> historyLoaded()   { return historyReady; }
+
+    /** Completes when theme.properties is loaded */
+    public CompletableFuture<Void> themeLoaded()     { return themeReady; }
+
+    /**
+     * Blocks until a startup load finished
+     * Call it before taking the SysData lock: a slow disk read must not hold
+     * up every other caller, and loader steps may need the lock themselves
+     * A failed load is reported once and the (partial) data is used as-is,
+     * same as the old synchronous loaders did on I/O errors
+     */
+    private static void await(CompletableFuture<Void> f) {
+        try {
+            f.join();
+        } catch (CompletionException e) {
+            System.err.println("[SYSDATA] Startup load failed: " + e.getCause());
+        }
     }
 
+    private void awaitQuestions() { await(questionsReady); }
+    private void awaitHistory()   { await(historyReady); }
+    private void awaitTheme()     { await(themeReady); }
+
     // ============================================================
     //         DYNAMIC CSV PATHS
     // ============================================================
@@ -58,6 +123,25 @@ public class SysData {
         }
     }
 
+    /**
+     * Path of a data file that lives next to questions.csv / history.csv
+     */
+    static Path sidecarPath(String fileName) {
+        try {
+            Path jarDir = Paths.get(
+                    SysData.class.getProtectionDomain()
+                            .getCodeSource()
+                            .getLocation()
+                            .toURI()
+            ).getParent();
+
+            return jarDir.resolve(fileName);
+
+        } catch (Exception e) {
+            return Paths.get(fileName);
+        }
+    }
+
     // ---------- Constants ----------
     private static final int MIN_QUESTIONS = 20;
 
@@ -91,11 +175,136 @@ public class SysData {
     }
 
     // ---------- Data ----------
-    private final List<GameRecord> history   = new ArrayList<>();
+    private final HistoryColumns   history   = new HistoryColumns();
     private final List<Question>   questions = new ArrayList<>();
 
-    public List<GameRecord> history()   { return Collections.unmodifiableList(history); }
-    public List<Question>   questions() { return Collections.unmodifiableList(questions); }
+    public List<Question>   questions() { awaitQuestions(); return Collections.unmodifiableList(questions); }
+
+    /** return a copy of the bank taken under the lock, safe to iterate on any thread */
+    public List<Question> questionsCopy() {
+        awaitQuestions();
+        synchronized (this) {
+            return List.copyOf(questions);
+        }
+    }
+
+    // ---------- Paged history access (HistoryView) ----------
+
+    // Name / difficulty / result / date indexes, kept in step with history
+    private final HistoryIndex historyIndex = new HistoryIndex();
+
+    // Per-player / per-pair statistics and leaderboards, kept in step with history
+    private volatile HistoryAggregates aggregates = new HistoryAggregates();
+
+    /** Leaderboards and player statistics (ready once history is loaded) */
+    public HistoryAggregates aggregates() {
+        awaitHistory();
+        return aggregates;
+    }
+
+    // Glicko-2 ratings of players and pairs, kept in step with history
+    // Until loadHistory replaces it (or if it fails) this is an empty engine that is never saved,
+    // so a broken load cannot overwrite ratings.bin with a partial snapshot
+    private volatile RatingEngine ratings = new RatingEngine(null);
+
+    /** Player and pair skill ratings (ready once history is loaded) */
+    public RatingEngine ratings() {
+        awaitHistory();
+        return ratings;
+    }
+
+    private final List<Runnable> historyListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Listener is called after records were added or the store was rewritten
+     * (store positions may have changed); it runs on the thread that changed it
+     */
+    public void addHistoryListener(Runnable l) {
+        historyListeners.add(l);
+    }
+
+    public void removeHistoryListener(Runnable l) {
+        historyListeners.remove(l);
+    }
+
+    private void fireHistoryChanged() {
+        for (Runnable l : historyListeners) l.run();
+    }
+
+    /** The live history as a table source (HistoryView; archives use HistoryArchive.open) */
+    public HistorySource liveHistory() {
+        return liveSource;
+    }
+
+    private final HistorySource liveSource = new HistorySource() {
+        @Override public int size()                                   { return historySize(); }
+        @Override public GameRecord[] window(int from, int to)        { return historyWindow(from, to); }
+        @Override public GameRecord[] rows(int[] pos, int from, int to) { return historyRows(pos, from, to); }
+        @Override public int[] find(HistoryIndex.Filter f)            { return findHistory(f); }
+        @Override public int[] sorted(HistoryColumns.Field f, boolean asc, int[] pos) {
+            return sortHistory(f, asc, pos);
+        }
+    };
+
+    /**
+     * return store positions of the records matching the filter (ascending),
+     * or null when the filter matches everything
+     */
+    public int[] findHistory(HistoryIndex.Filter filter) {
+        awaitHistory();
+        return historyIndex.query(filter);
+    }
+
+    /**
+     * return store positions (all, or the given subset) ordered by one field
+     * Only the keys are read under the lock; the sort itself runs without it
+     */
+    public int[] sortHistory(HistoryColumns.Field field, boolean ascending, int[] positions) {
+        awaitHistory();
+        long[] keys;
+        synchronized (this) {
+            keys = history.sortKeys(field, positions);
+        }
+        return HistoryColumns.order(keys, positions, ascending);
+    }
+
+    public int historySize() {
+        awaitHistory();
+        synchronized (this) {
+            return history.size();
+        }
+    }
+
+    /** return a copy of the records in [from, to), clamped to the store size */
+    public GameRecord[] historyWindow(int from, int to) {
+        awaitHistory();
+        synchronized (this) {
+            int f = Math.max(0, from);
+            int t = Math.min(history.size(), to);
+            if (f >= t) return new GameRecord[0];
+            GameRecord[] out = new GameRecord[t - f];
+            for (int i = f; i < t; i++) out[i - f] = history.get(i);
+            return out;
+        }
+    }
+
+    /**
+     * return a copy of the records at positions[from..to) (store order indices),
+     * used when the history table shows a sorted permutation
+     */
+    public GameRecord[] historyRows(int[] positions, int from, int to) {
+        awaitHistory();
+        synchronized (this) {
+            int t = Math.min(positions.length, to);
+            if (from >= t) return new GameRecord[0];
+            GameRecord[] out = new GameRecord[t - from];
+            for (int i = from; i < t; i++) {
+                int p = positions[i];
+                out[i - from] = p < history.size() ? history.get(p) : null;
+            }
+            return out;
+        }
+    }
 
     // ---------- Question decks ----------
     private final EnumMap<QuestionLevel, ArrayDeque<Question>> decks =
@@ -103,385 +312,682 @@ public class SysData {
 
     private final ArrayDeque<Question> deckAll = new ArrayDeque<>();
 
+    // Adaptive (weighted) draw, see WeightedQuestionSelector
+    private final WeightedQuestionSelector selector = new WeightedQuestionSelector();
+
+    // Per-question answer statistics (binary sidecar next to questions.csv)
+    private final QuestionStats stats = new QuestionStats(sidecarPath("questions.stats"));
+
+    /** How questions are drawn for question cells (AppSettings.ADAPTIVE_QUESTIONS, UNIFORM by default) */
+    public enum DrawMode { UNIFORM, ADAPTIVE }
+
+    public DrawMode getDrawMode() {
+        return AppSettings.getInstance().get(AppSettings.ADAPTIVE_QUESTIONS) ? DrawMode.ADAPTIVE : DrawMode.UNIFORM;
+    }
+
+    public void setDrawMode(DrawMode mode) {
+        if (mode != null) AppSettings.getInstance().set(AppSettings.ADAPTIVE_QUESTIONS, mode == DrawMode.ADAPTIVE);
+    }
+
     private void invalidateDecks() {
         decks.clear();
         deckAll.clear();
     }
 
     public int questionCount() {
+        awaitQuestions();
         return questions.size();
     }
 
-    public synchronized Question drawQuestion(QuestionLevel lvl) {
-        ArrayDeque<Question> deck = decks.computeIfAbsent(lvl, k -> new ArrayDeque<>());
-        if (deck.isEmpty()) {
-            List<Question> pool = new ArrayList<>();
-            for (Question q : questions) {
-                if (q.level() == lvl) pool.add(q);
+    public Question drawQuestion(QuestionLevel lvl) {
+        awaitQuestions();
+        synchronized (this) {
+            ArrayDeque<Question> deck = decks.computeIfAbsent(lvl, k -> new ArrayDeque<>());
+            if (deck.isEmpty()) {
+                List<Question> pool = new ArrayList<>();
+                for (Question q : questions) {
+                    if (q.level() == lvl) pool.add(q);
+                }
+                Collections.shuffle(pool, ThreadLocalRandom.current());
+                deck.addAll(pool);
             }
-            Collections.shuffle(pool, ThreadLocalRandom.current());
-            deck.addAll(pool);
+            return deck.isEmpty() ? null : deck.pollFirst();
         }
-        return deck.isEmpty() ? null : deck.pollFirst();
     }
 
-    public synchronized Question drawRandomQuestion() {
-        if (questions.isEmpty()) return null;
-        if (deckAll.isEmpty()) {
-            List<Question> pool = new ArrayList<>(questions);
-            Collections.shuffle(pool, ThreadLocalRandom.current());
-            deckAll.addAll(pool);
+    public Question drawRandomQuestion() {
+        awaitQuestions();
+        synchronized (this) {
+            if (questions.isEmpty()) return null;
+            if (deckAll.isEmpty()) {
+                List<Question> pool = new ArrayList<>(questions);
+                Collections.shuffle(pool, ThreadLocalRandom.current());
+                deckAll.addAll(pool);
+            }
+            return deckAll.pollFirst();
+        }
+    }
+
+    /**
+     * Draws a question for a match of the given difficulty using the current DrawMode
+     * ADAPTIVE weighs each question by its answer history, how recently it was shown
+     * and how well its level fits the match (O(log n) per draw)
+     */
+    public Question drawQuestionForMatch(DifficultyLevel matchLevel) {
+        awaitQuestions();
+        synchronized (this) {
+            if (getDrawMode() == DrawMode.UNIFORM || matchLevel == null) return drawRandomQuestion();
+            return selector.draw(matchLevel, ThreadLocalRandom.current());
+        }
+    }
+
+    /**
+     * Feeds the outcome of an answered question back into the adaptive weights
+     * and the statistics store (the store update is queued, this never waits on disk)
+     * @param answerMillis time the player needed to answer
+     */
+    public void recordAnswer(Question q, boolean right, long answerMillis) {
+        awaitQuestions();
+        if (q == null) return;
+        selector.recordAnswer(q.id(), right);
+        stats.record(q.id(), right, answerMillis);
+    }
+
+    /** return a copy of the answer statistics keyed by question id */
+    public Map<String, QuestionStats.Entry> questionStats() {
+        return stats.snapshot();
+    }
+
+    /** Same as questionStats(), once the statistics updates queued so far are applied */
+    public CompletableFuture<Map<String, QuestionStats.Entry>> questionStatsAsync() {
+        return stats.snapshotAsync();
+    }
+
+    private void seedSelectorFromStats() {
+        for (QuestionStats.Entry e : stats.snapshot().values()) {
+            selector.seed(e.id(), e.attempts(), e.wrong());
         }
-        return deckAll.pollFirst();
     }
 
     // ============================================================
     // Public mutators
     // ============================================================
 
-    public synchronized void addRecord(GameRecord r) {
-        history.add(r);
-        appendHistoryCsv(r);
+    public void addRecord(GameRecord r) {
+        EdtWatchdog.Task t = EdtWatchdog.task("SysData.addRecord");
+        try {
+            awaitHistory();
+            synchronized (this) {
+                history.add(r);
+                historyIndex.add(r, history.size() - 1);
+                aggregates.add(r);
+                ratings.add(r);
+                appendHistoryCsv(r);
+            }
+        } finally {
+            t.close();
+        }
+        fireHistoryChanged();
     }
 
-    public synchronized void addQuestion(Question q) {
-        questions.add(q);
-        saveAllQuestions();
-        invalidateDecks();
-    }
+    // replays.bin offsets by record timestamp; built on the first lookup, null until then
+    // Guarded by replayLock (not the SysData lock) so replay I/O never blocks history readers
+    private final Object replayLock = new Object();
+    private Map<Long, Long> replayOffsets;
 
-    public synchronized boolean deleteQuestion(String id) {
-        if (questions.size() <= MIN_QUESTIONS)
-            return false;
+    /** Stores the action log of a finished match next to its record (see MatchReplay) */
+    public void saveReplay(GameRecord r, MatchReplay replay) {
+        EdtWatchdog.Task t = EdtWatchdog.task("SysData.saveReplay");
+        try {
+            synchronized (replayLock) {
+                long offset = MatchReplay.append(sidecarPath(MatchReplay.FILE), r.timestamp, replay);
+                if (replayOffsets != null) replayOffsets.put(r.timestamp, offset);
+            }
+        } catch (IOException e) {
+            System.err.println("[SYSDATA] Could not save replay: " + e.getMessage());
+        } finally {
+            t.close();
+        }
+    }
 
-        boolean removed = questions.removeIf(q -> q.id().equals(id));
+    /**
+     * return the recorded replay of a match, or null if it was not recorded
+     * Reads a single entry through the offset index (the first call builds it); call off the EDT
+     */
+    public MatchReplay replayOf(GameRecord r) {
+        EdtWatchdog.Task t = EdtWatchdog.task("SysData.replayOf");
+        try {
+            synchronized (replayLock) {
+                Path file = sidecarPath(MatchReplay.FILE);
+                if (replayOffsets == null) replayOffsets = MatchReplay.index(file);
+                Long offset = replayOffsets.get(r.timestamp);
+                return offset == null ? null : MatchReplay.readAt(file, offset, r.timestamp);
+            }
+        } catch (IOException e) {
+            System.err.println("[SYSDATA] Could not read replays: " + e.getMessage());
+            return null;
+        } finally {
+            t.close();
+        }
+    }
 
-        if (removed) {
-            List<Question> renumbered = new ArrayList<>();
+    public void addQuestion(Question q) {
+        awaitQuestions();
+        synchronized (this) {
+            questions.add(q);
+            saveAllQuestions();
+            invalidateDecks();
+            selector.add(q);
+        }
+    }
 
-            for (int i = 0; i < questions.size(); i++) {
-                Question q = questions.get(i);
-                String newId = String.valueOf(i + 1);
-
-                renumbered.add(
-                        new Question(
-                                newId,
-                                q.text(),
-                                q.options(),
-                                q.correctIndex(),
-                                q.level()
-                        )
-                );
+    /**
+     * Adds many questions with a single write of questions.csv
+     * Ids are assigned here (continuing after the highest existing id); the ids of
+     * the given drafts are ignored
+     * return the stored questions with their ids
+     */
+    public List<Question> addQuestionsBatch(List<Question> drafts) {
+        awaitQuestions();
+        synchronized (this) {
+            if (drafts.isEmpty()) return List.of();
+
+            int next = nextQuestionId();
+            List<Question> added = new ArrayList<>(drafts.size());
+            for (Question d : drafts) {
+                added.add(new Question(String.valueOf(next++), d.text(), d.options(), d.correctIndex(), d.level()));
             }
 
-            questions.clear();
-            questions.addAll(renumbered);
-
+            questions.addAll(added);
             saveAllQuestions();
             invalidateDecks();
+            for (Question q : added) selector.add(q);
+            return added;
         }
+    }
+
+    public boolean deleteQuestion(String id) {
+        awaitQuestions();
+        synchronized (this) {
+            if (questions.size() <= MIN_QUESTIONS)
+                return false;
+
+            boolean removed = questions.removeIf(q -> q.id().equals(id));
+
+            if (removed) {
+                List<Question> renumbered = new ArrayList<>();
+                Map<String, String> idMap = new HashMap<>();
+
+                for (int i = 0; i < questions.size(); i++) {
+                    Question q = questions.get(i);
+                    String newId = String.valueOf(i + 1);
+                    idMap.put(q.id(), newId);
+
+                    renumbered.add(
+                            new Question(
+                                    newId,
+                                    q.text(),
+                                    q.options(),
+                                    q.correctIndex(),
+                                    q.level()
+                            )
+                    );
+                }
 
-        return removed;
+                questions.clear();
+                questions.addAll(renumbered);
+
+                saveAllQuestions();
+                invalidateDecks();
+                stats.remap(idMap);
+                selector.remap(idMap);
+                selector.rebuild(questions);
+            }
+
+            return removed;
+        }
     }
 
-    public synchronized int nextQuestionId() {
-        int max = 0;
-        for (Question q : questions) {
-            try {
-                int v = Integer.parseInt(q.id().trim());
-                if (v > max) max = v;
-            } catch (Exception ignored) {}
+    public int nextQuestionId() {
+        awaitQuestions();
+        synchronized (this) {
+            int max = 0;
+            for (Question q : questions) {
+                try {
+                    int v = Integer.parseInt(q.id().trim());
+                    if (v > max) max = v;
+                } catch (Exception ignored) {}
+            }
+            return max + 1;
         }
-        return max + 1;
     }
 
     // ============================================================
     // CSV helpers
     // ============================================================
 
-    private static String esc(String s) {
-        if (s == null) return "";
-        boolean q = s.contains(",") || s.contains("\"") ||
-                s.contains("\n") || s.contains("\r");
-        String body = s.replace("\"", "\"\"");
-        return q ? "\"" + body + "\"" : body;
-    }
-
-    private static String[] splitCsvLine(String line) {
-        List<String> out = new ArrayList<>();
-        StringBuilder cur = new StringBuilder();
-        boolean inQ = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char ch = line.charAt(i);
-            if (inQ) {
-                if (ch == '"' && i+1 < line.length() && line.charAt(i+1)=='"') {
-                    cur.append('"'); i++;
-                } else if (ch == '"') {
-                    inQ = false;
-                } else {
-                    cur.append(ch);
-                }
-            } else {
-                if (ch == ',') {
-                    out.add(cur.toString());
-                    cur.setLength(0);
-                } else if (ch == '"') {
-                    inQ = true;
-                } else {
-                    cur.append(ch);
-                }
-            }
-        }
+    /** Questions file: comma separated, header row, quoted fields may span lines */
+    private static final char QUESTIONS_DELIMITER = ',';
 
-        out.add(cur.toString());
-        return out.toArray(new String[0]);
-    }
+    /** History file: semicolon separated, no header */
+    private static final char HISTORY_DELIMITER = ';';
 
+    private static final String QUESTIONS_HEADER = "ID,Question,Difficulty,A,B,C,D,CorrectAnswer";
 
-    private static Path themePath() {
+    /** Difficulty column value (1..4) to QuestionLevel; anything else is EASY */
+    static QuestionLevel levelFromCsv(String diff) {
         try {
-            Path jarDir = Paths.get(
-                    SysData.class.getProtectionDomain()
-                            .getCodeSource()
-                            .getLocation()
-                            .toURI()
-            ).getParent();
-            return jarDir.resolve("theme.properties");
+            return switch (Integer.parseInt(diff.trim())) {
+                case 2 -> QuestionLevel.MEDIUM;
+                case 3 -> QuestionLevel.HARD;
+                case 4 -> QuestionLevel.MASTER;
+                default -> QuestionLevel.EASY;
+            };
         } catch (Exception e) {
-            return Paths.get("theme.properties");
+            return QuestionLevel.EASY;
         }
     }
 
-    private void loadTheme() {
-        Path p = themePath();
-        if (!Files.exists(p)) return;
-
-        Properties props = new Properties();
-        try (InputStream in = Files.newInputStream(p)) {
-            props.load(in);
-            String v = props.getProperty("accentRGB");
-            if (v != null) accentRGB = Integer.parseInt(v.trim());
-        } catch (Exception ignored) {}
-    }
-
-    private void saveTheme() {
-        Properties props = new Properties();
-        props.setProperty("accentRGB", String.valueOf(accentRGB));
-
-        try (OutputStream out = Files.newOutputStream(themePath(),
-                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
-            props.store(out, "Minesweeper Theme");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    static int levelToCsv(QuestionLevel level) {
+        return switch (level) {
+            case EASY   -> 1;
+            case MEDIUM -> 2;
+            case HARD   -> 3;
+            case MASTER -> 4;
+        };
     }
 
-
     // ============================================================
     // Load Questions
     // ============================================================
 
     private void loadQuestions() {
         questions.clear();
-        Path csv = questionsPath();
-
-        if (!Files.exists(csv)) return;
+        questions.addAll(readQuestions(questionsPath()));
 
-        try (BufferedReader br =
-                     Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+        invalidateDecks();
+        selector.rebuild(questions);
+        seedSelectorFromStats();
+    }
 
-            String line;
-            boolean first = true;
+    /** Parses a questions file; a missing or unreadable file gives what could be read */
+    private static List<Question> readQuestions(Path csv) {
+        List<Question> out = new ArrayList<>();
 
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
+        if (Files.exists(csv)) {
+            try (CsvReader in = new CsvReader(
+                    new InputStreamReader(Files.newInputStream(csv), StandardCharsets.UTF_8),
+                    QUESTIONS_DELIMITER)) {
 
-                if (first) {
-                    first = false;
-                    String low = line.toLowerCase();
-                    if (low.contains("question") && low.contains("difficulty"))
-                        continue;
-                }
+                boolean first = true;
 
-                String[] f = splitCsvLine(line);
-                if (f.length < 8) continue;
+                while (in.next()) {
+                    if (first) {
+                        first = false;
+                        if (isQuestionsHeader(in)) continue;
+                    }
 
-                String id   = f[0].trim();
-                String text = f[1].trim();
-                String diff = f[2].trim();
+                    if (in.fieldCount() < 8) continue;
 
-                String optA = f[3].trim();
-                String optB = f[4].trim();
-                String optC = f[5].trim();
-                String optD = f[6].trim();
+                    String id   = in.get(0).trim();
+                    String text = in.get(1).trim();
+                    QuestionLevel level = levelFromCsv(in.get(2));
 
-                String correctLetter = f[7].trim().toUpperCase(Locale.ROOT);
+                    List<String> opts = List.of(
+                            in.get(3).trim(), in.get(4).trim(),
+                            in.get(5).trim(), in.get(6).trim());
 
-                QuestionLevel level;
-                try {
-                    int d = Integer.parseInt(diff);
-                    level = switch (d) {
-                        case 1 -> QuestionLevel.EASY;
-                        case 2 -> QuestionLevel.MEDIUM;
-                        case 3 -> QuestionLevel.HARD;
-                        case 4 -> QuestionLevel.MASTER;
-                        default -> QuestionLevel.EASY;
-                    };
-                } catch (Exception e) {
-                    level = QuestionLevel.EASY;
-                }
+                    String correctLetter = in.get(7).trim().toUpperCase(Locale.ROOT);
 
-                int numericIndex;
-                if (correctLetter.length() == 1)
-                    numericIndex = correctLetter.charAt(0) - 'A';
-                else
-                    numericIndex = 0;
+                    int numericIndex;
+                    if (correctLetter.length() == 1)
+                        numericIndex = correctLetter.charAt(0) - 'A';
+                    else
+                        numericIndex = 0;
 
-                int correctIndex = Math.max(0, Math.min(3, numericIndex));
+                    int correctIndex = Math.max(0, Math.min(3, numericIndex));
 
-                List<String> opts = List.of(optA, optB, optC, optD);
+                    out.add(new Question(id, text, opts, correctIndex, level));
+                }
 
-                questions.add(new Question(id, text, opts, correctIndex, level));
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return out;
+    }
 
-        invalidateDecks();
+    private static boolean isQuestionsHeader(CsvReader in) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < in.fieldCount(); i++) sb.append(in.get(i)).append(',');
+        String low = sb.toString().toLowerCase(Locale.ROOT);
+        return low.contains("question") && low.contains("difficulty");
     }
 
     // ============================================================
     // Save Questions
     // ============================================================
 
+    /**
+     * Writes the bank to questions.csv (temp file + move, so the file watcher never
+     * sees a half-written file)
+     */
     private void saveAllQuestions() {
-        try (BufferedWriter bw =
-                     Files.newBufferedWriter(questionsPath(), StandardCharsets.UTF_8,
-                             StandardOpenOption.CREATE,
-                             StandardOpenOption.TRUNCATE_EXISTING)) {
-
-            bw.write("ID,Question,Difficulty,A,B,C,D,CorrectAnswer");
-            bw.newLine();
+        questionsVersion++;
+        Path csv = questionsPath();
+        Path tmp = AtomicFiles.tempFor(csv);
 
-            for (Question q : questions) {
-                int diffNum = switch (q.level()) {
-                    case EASY   -> 1;
-                    case MEDIUM -> 2;
-                    case HARD   -> 3;
-                    case MASTER -> 4;
-                };
-
-                char correct = (char)('A' + q.correctIndex());
-
-                String line = String.join(",",
-                        esc(q.id()),
-                        esc(q.text()),
-                        String.valueOf(diffNum),
-                        esc(q.options().get(0)),
-                        esc(q.options().get(1)),
-                        esc(q.options().get(2)),
-                        esc(q.options().get(3)),
-                        String.valueOf(correct)
-                );
-
-                bw.write(line);
-                bw.newLine();
+        EdtWatchdog.Task t = EdtWatchdog.task("SysData.saveAllQuestions");
+        try {
+            try (CsvWriter out = new CsvWriter(
+                    Files.newBufferedWriter(tmp, StandardCharsets.UTF_8), QUESTIONS_DELIMITER)) {
+
+                out.writeRecord(QUESTIONS_HEADER.split(","));
+
+                for (Question q : questions) {
+                    out.field(q.id())
+                       .field(q.text())
+                       .field(levelToCsv(q.level()))
+                       .field(q.options().get(0))
+                       .field(q.options().get(1))
+                       .field(q.options().get(2))
+                       .field(q.options().get(3))
+                       .field(String.valueOf(q.correctLetter()));
+                    out.endRecord();
+                }
             }
+            AtomicFiles.moveIntoPlace(tmp, csv);
 
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            t.close();
         }
     }
 
     // ============================================================
-    // HISTORY LOAD
+    // RELOAD QUESTIONS (external edits)
     // ============================================================
 
-    private static List<String> parseLine(String line) {
-        List<String> out = new ArrayList<>();
-        StringBuilder cur = new StringBuilder();
-        boolean inQ = false;
-
-        for (int i = 0; i < line.length(); i++) {
-            char ch = line.charAt(i);
-            if (inQ) {
-                if (ch=='"' && i+1<line.length() && line.charAt(i+1)=='"') {
-                    cur.append('"'); i++;
-                } else if (ch=='"') {
-                    inQ = false;
-                } else {
-                    cur.append(ch);
-                }
-            } else {
-                if (ch==';') {
-                    out.add(cur.toString());
-                    cur.setLength(0);
-                } else if (ch=='"') {
-                    inQ = true;
-                } else {
-                    cur.append(ch);
-                }
+    /** Bumped by every write of the bank; a reload applies its diff only to the version it read */
+    private int questionsVersion = 0;
+
+    private final List<Consumer<QuestionBankDiff>> questionListeners = new CopyOnWriteArrayList<>();
+
+    private QuestionFileWatcher questionsWatcher;
+
+    /** Listener is called (on a background thread) after questions.csv was changed outside the app */
+    public void addQuestionsListener(Consumer<QuestionBankDiff> l) {
+        questionListeners.add(l);
+    }
+
+    public void removeQuestionsListener(Consumer<QuestionBankDiff> l) {
+        questionListeners.remove(l);
+    }
+
+    private void watchQuestionsFile() {
+        try {
+            questionsWatcher = QuestionFileWatcher.start(questionsPath(), this::reloadQuestions);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[SYSDATA] Not watching questions.csv: " + e);
+        }
+    }
+
+    /**
+     * Re-reads questions.csv and applies only what changed
+     * Parsing and diffing run without the lock; the lock is held just to swap the
+     * changed entries in. If the bank was written meanwhile, the diff is recomputed
+     * Questions already handed to a running match stay valid (they are immutable)
+     * return the applied diff (empty if nothing changed)
+     */
+    public QuestionBankDiff reloadQuestions() {
+        return reloadQuestions(questionsPath());
+    }
+
+    /** Same as reloadQuestions(), reading the bank from csv instead of questions.csv */
+    public QuestionBankDiff reloadQuestions(Path csv) {
+        awaitQuestions();
+        for (int attempt = 0; attempt < 3; attempt++) {
+            List<Question> current;
+            int version;
+            synchronized (this) {
+                current = new ArrayList<>(questions);
+                version = questionsVersion;
+            }
+
+            List<Question> parsed = readQuestions(csv);
+            if (parsed.isEmpty() && !current.isEmpty()) {
+                System.err.println("[SYSDATA] questions.csv is empty or unreadable; keeping the current bank");
+                return QuestionBankDiff.EMPTY;
+            }
+
+            QuestionBankDiff diff = QuestionBankDiff.of(current, parsed);
+            if (diff.isEmpty()) return diff; // e.g. our own save
+
+            synchronized (this) {
+                if (version != questionsVersion) continue; // written meanwhile: diff again
+                applyDiff(diff, parsed);
             }
+            System.out.println("[SYSDATA] questions.csv changed: " + diff.added().size() + " added, "
+                    + diff.changed().size() + " changed, " + diff.removed().size() + " removed");
+            for (Consumer<QuestionBankDiff> l : questionListeners) l.accept(diff);
+            return diff;
         }
+        return QuestionBankDiff.EMPTY;
+    }
 
-        out.add(cur.toString());
-        return out;
+    /**
+     * Swaps the changed entries in; unchanged questions keep their objects, selector
+     * weights and deck positions (caller holds the lock)
+     */
+    private void applyDiff(QuestionBankDiff diff, List<Question> parsed) {
+        Map<String, Question> kept = new HashMap<>(questions.size() * 2);
+        for (Question q : questions) kept.put(q.id(), q);
+        Set<String> stale = diff.staleIds();
+
+        // file order, but reuse the existing instance of every unchanged question
+        questions.clear();
+        for (Question q : parsed) {
+            Question old = kept.get(q.id());
+            questions.add(old != null && !stale.contains(q.id()) ? old : q);
+        }
+
+        for (String id : stale) selector.remove(id);
+        for (Question q : diff.fresh()) selector.add(q);
+
+        // decks: drop stale entries, queue new versions behind the remaining cards
+        for (ArrayDeque<Question> deck : decks.values()) deck.removeIf(q -> stale.contains(q.id()));
+        deckAll.removeIf(q -> stale.contains(q.id()));
+        for (Question q : diff.fresh()) {
+            ArrayDeque<Question> deck = decks.get(q.level());
+            if (deck != null && !deck.isEmpty()) deck.addLast(q);
+            if (!deckAll.isEmpty()) deckAll.addLast(q);
+        }
     }
 
+    // ============================================================
+    // HISTORY LOAD
+    // ============================================================
+
     private void loadHistory() {
         history.clear();
+        historyIndex.clear();
         Path csv = historyPath();
 
-        if (!Files.exists(csv)) return;
-
-        try (BufferedReader br =
-                     Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+        HistoryArchive.Summary summary = HistoryArchive.readSummary(sidecarPath(HistoryArchive.SUMMARY_FILE));
+        long compactedBefore = summary.compactedBefore();
 
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
+        if (!Files.exists(csv)) {
+            aggregates = withBuckets(HistoryAggregates.build(history), summary);
+            ratings = RatingEngine.restore(sidecarPath(RatingEngine.FILE), history);
+            return;
+        }
 
-                List<String> f = parseLine(line);
-                if (f.size() < 8) continue;
+        try (CsvReader in = new CsvReader(
+                new InputStreamReader(Files.newInputStream(csv), StandardCharsets.UTF_8),
+                HISTORY_DELIMITER)) {
 
-                GameRecord r = new GameRecord(
-                        f.get(0), f.get(1),
-                        DifficultyLevel.valueOf(f.get(2)),
-                        Integer.parseInt(f.get(3)),
-                        Integer.parseInt(f.get(4)),
-                        Boolean.parseBoolean(f.get(5)),
-                        Long.parseLong(f.get(6)),
-                        Long.parseLong(f.get(7))
-                );
+            // rows go straight into the columns; no GameRecord per line
+            while (in.next()) {
+                if (in.fieldCount() < 8) continue;
 
-                history.add(r);
+                try {
+                    DifficultyLevel level = DifficultyLevel.valueOf(in.get(2).trim());
+                    int hearts = in.getInt(3);
+                    int points = in.getInt(4);
+                    boolean won = Boolean.parseBoolean(in.get(5).trim());
+                    long timeSec = in.getLong(6);
+                    long ts = in.getLong(7);
+                    if (ts < compactedBefore) continue; // already counted in the summary buckets
+
+                    history.add(in.get(0), in.get(1), level, hearts, points, won, timeSec, ts);
+                } catch (IllegalArgumentException bad) {
+                    System.err.println("[SYSDATA] Skipping bad history line " + in.lineNumber()
+                            + ": " + bad.getMessage());
+                }
             }
 
         } catch (IOException e) {
             e.printStackTrace();
         }
+
+        for (int i = 0; i < history.size(); i++) {
+            historyIndex.add(history.p1(i), history.p2(i), history.level(i),
+                    history.won(i), history.timestamp(i), i);
+        }
+        aggregates = withBuckets(HistoryAggregates.build(history), summary);
+        ratings = RatingEngine.restore(sidecarPath(RatingEngine.FILE), history);
+    }
+
+    private static HistoryAggregates withBuckets(HistoryAggregates agg, HistoryArchive.Summary summary) {
+        for (HistoryArchive.Bucket b : summary.buckets()) {
+            agg.addBucket(b.p1(), b.p2(), b.level(), b.games(), b.wins(),
+                    b.sumPoints(), b.bestPoints(), b.fastestWinSec());
+        }
+        return agg;
     }
 
     // ============================================================
-    // HISTORY SAVE
+    // HISTORY COMPACTION
     // ============================================================
 
-    private void appendHistoryCsv(GameRecord r) {
-        try (BufferedWriter bw =
-                     Files.newBufferedWriter(historyPath(), StandardCharsets.UTF_8,
-                             StandardOpenOption.CREATE,
-                             StandardOpenOption.APPEND)) {
+    /** Matches older than this are rolled up and archived (AppSettings.HISTORY_HORIZON_DAYS, 0 = never) */
+    public int getHistoryHorizonDays() {
+        return AppSettings.getInstance().get(AppSettings.HISTORY_HORIZON_DAYS);
+    }
+
+    public void setHistoryHorizonDays(int days) {
+        AppSettings.getInstance().set(AppSettings.HISTORY_HORIZON_DAYS, Math.max(0, days));
+    }
+
+    /**
+     * Moves matches older than the horizon out of history.csv:
+     * raw rows go to a gzip archive segment, their totals into summary buckets
+     * Aggregates and leaderboards already include those matches and stay as they are
+     * Files are written in the order segment, summary, history.csv; a crash in between
+     * only leaves rows that the next load skips (older than the summary cutoff)
+     * History listeners are notified afterwards, since store positions change
+     * return number of compacted records
+     */
+    public int compactHistory(int horizonDays) {
+        if (horizonDays <= 0) return 0;
+        awaitHistory();
+        int compacted;
+        synchronized (this) {
+            compacted = compactLocked(horizonDays);
+        }
+        if (compacted > 0) fireHistoryChanged();
+        return compacted;
+    }
+
+    /** Caller holds the lock; return number of compacted records */
+    private int compactLocked(int horizonDays) {
+        long cutoff = System.currentTimeMillis() - horizonDays * 86_400_000L;
 
-            String line = String.join(";",
-                    esc(r.p1), esc(r.p2), r.level.name(),
-                    String.valueOf(r.hearts), String.valueOf(r.points),
-                    String.valueOf(r.won), String.valueOf(r.timeSec),
-                    String.valueOf(r.timestamp));
+        int old = 0;
+        for (int i = 0; i < history.size(); i++) if (history.timestamp(i) < cutoff) old++;
+        if (old == 0) return 0;
 
-            bw.write(line);
-            bw.newLine();
+        int[] rows = new int[old];
+        for (int i = 0, k = 0; i < history.size(); i++) if (history.timestamp(i) < cutoff) rows[k++] = i;
+
+        try {
+            Path summaryFile = sidecarPath(HistoryArchive.SUMMARY_FILE);
+            HistoryArchive.Summary summary = HistoryArchive.readSummary(summaryFile);
+
+            HistoryArchive.writeSegment(sidecarPath(HistoryArchive.ARCHIVE_DIR), history, rows);
+            HistoryArchive.writeSummary(summaryFile, Math.max(cutoff, summary.compactedBefore()),
+                    HistoryArchive.rollUp(summary.buckets(), history, rows));
+
+            history.retainFrom(cutoff);
+            rewriteHistoryCsv();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+
+        // replays of archived matches can no longer be opened from the history table
+        synchronized (replayLock) {
+            try {
+                MatchReplay.prune(sidecarPath(MatchReplay.FILE), cutoff);
+            } catch (IOException e) {
+                System.err.println("[SYSDATA] Could not prune replays: " + e.getMessage());
+            }
+            replayOffsets = null;
+        }
+
+        historyIndex.clear();
+        for (int i = 0; i < history.size(); i++) {
+            historyIndex.add(history.p1(i), history.p2(i), history.level(i),
+                    history.won(i), history.timestamp(i), i);
+        }
+        System.out.println("[SYSDATA] Compacted " + old + " history records older than " + horizonDays + " days");
+        return old;
+    }
+
+    /** Writes the in-memory history as a new history.csv (temp file + move) */
+    private void rewriteHistoryCsv() throws IOException {
+        Path csv = historyPath();
+        Path tmp = AtomicFiles.tempFor(csv);
+
+        try (CsvWriter out = new CsvWriter(
+                Files.newBufferedWriter(tmp, StandardCharsets.UTF_8), HISTORY_DELIMITER)) {
+            for (int i = 0; i < history.size(); i++) {
+                out.field(history.p1(i))
+                   .field(history.p2(i))
+                   .field(history.level(i).name())
+                   .field(history.hearts(i))
+                   .field(history.points(i))
+                   .field(String.valueOf(history.won(i)))
+                   .field(history.timeSec(i))
+                   .field(history.timestamp(i));
+                out.endRecord();
+            }
+        }
+        AtomicFiles.moveIntoPlace(tmp, csv);
+    }
+
+
+    // ============================================================
+    // HISTORY SAVE
+    // ============================================================
+
+    private void appendHistoryCsv(GameRecord r) {
+        try (CsvWriter out = new CsvWriter(
+                Files.newBufferedWriter(historyPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND),
+                HISTORY_DELIMITER)) {
+
+            out.field(r.p1)
+               .field(r.p2)
+               .field(r.level.name())
+               .field(r.hearts)
+               .field(r.points)
+               .field(String.valueOf(r.won))
+               .field(r.timeSec)
+               .field(r.timestamp);
+            out.endRecord();
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -492,33 +998,50 @@ public class SysData {
     // REPLACE QUESTION
     // ============================================================
 
-    public synchronized void replaceQuestion(String oldId, Question updated) {
-        for (int i = 0; i < questions.size(); i++) {
-            if (questions.get(i).id().equals(oldId)) {
-                questions.set(i, updated);
-                saveAllQuestions();
-                invalidateDecks();
-                return;
+    public void replaceQuestion(String oldId, Question updated) {
+        awaitQuestions();
+        synchronized (this) {
+            for (int i = 0; i < questions.size(); i++) {
+                if (questions.get(i).id().equals(oldId)) {
+                    questions.set(i, updated);
+                    saveAllQuestions();
+                    invalidateDecks();
+                    selector.remove(oldId);
+                    if (!oldId.equals(updated.id())) {
+                        // same question under a new id: statistics and weights follow it
+                        Map<String, String> idMap = new HashMap<>(questions.size() * 2);
+                        for (Question q : questions) idMap.put(q.id(), q.id());
+                        idMap.put(oldId, updated.id());
+                        stats.remap(idMap);
+                        selector.remap(idMap);
+                    }
+                    selector.add(updated);
+                    return;
+                }
             }
-        }
 
-        questions.add(updated);
-        saveAllQuestions();
-        invalidateDecks();
+            questions.add(updated);
+            saveAllQuestions();
+            invalidateDecks();
+            selector.add(updated);
+        }
     }
     
     
-//Color for the system
-    private int accentRGB = new Color(255, 204, 0).getRGB(); // default gold
+    // ============================================================
+    // Accent color (stored by AppSettings)
+    // ============================================================
 
     public Color getAccentColor() {
-        return new Color(accentRGB, true);
+        awaitTheme();
+        return new Color(AppSettings.getInstance().get(AppSettings.ACCENT_RGB), true);
     }
 
+    /** Updates the setting in memory; the file is written in the background */
     public void setAccentColor(Color c) {
+        awaitTheme();
         if (c == null) return;
-        accentRGB = c.getRGB();
-        saveTheme(); 
+        AppSettings.getInstance().set(AppSettings.ACCENT_RGB, c.getRGB());
     }
 
 }
@@ -0,0 +1,338 @@
+package model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Adaptive question picker used by SysData
+ * Every question gets a weight from its history:
+ * - questions that were answered wrong more often are drawn more often
+ * - questions shown in the last few draws are pushed back (cool-down window)
+ * - the question level is weighed against the match DifficultyLevel
+ *
+ * Weights live in one FenwickTree per QuestionLevel, so a weighted draw and a
+ * weight update each cost O(log n) and nothing is rebuilt per draw
+ * The match difficulty is applied on the 4 level totals only
+ */
+public class WeightedQuestionSelector {
+
+    /** Fixed-point base weight of a question with no history */
+    private static final long BASE_WEIGHT = 1_000;
+
+    /** A question inside the cool-down window keeps only this share of its weight */
+    private static final double COOLDOWN_FACTOR = 0.05;
+
+    /** Upper bound for the cool-down window (in draws) */
+    private static final int MAX_COOLDOWN = 32;
+
+    /**
+     * Level multipliers by match difficulty
+     * rows: DifficultyLevel (EASY, MEDIUM, HARD), columns: QuestionLevel (EASY..MASTER)
+     */
+    private static final double[][] LEVEL_FACTOR = {
+            {4.0, 3.0, 1.5, 1.0},
+            {2.0, 4.0, 3.0, 1.5},
+            {1.0, 2.0, 4.0, 3.0}
+    };
+
+    /** Answer tally kept by question id so it survives rebuilds */
+    private static final class Tally {
+        int attempts;
+        int wrong;
+    }
+
+    /** Removed slots (zero weight) tolerated per bucket before it is compacted */
+    private static final int MIN_DEAD_TO_COMPACT = 16;
+
+    /** All questions of one QuestionLevel with their weights */
+    private static final class Bucket {
+        final FenwickTree tree;
+        Question[] items;
+        boolean[] cooling;
+        int dead;
+
+        Bucket(FenwickTree tree, Question[] items) {
+            this.tree = tree;
+            this.items = items;
+            this.cooling = new boolean[Math.max(16, items.length)];
+        }
+
+        int append(Question q, long w) {
+            int slot = tree.append(w);
+            if (slot >= items.length) {
+                items = Arrays.copyOf(items, Math.max(16, items.length * 2));
+            }
+            if (slot >= cooling.length) {
+                cooling = Arrays.copyOf(cooling, Math.max(16, cooling.length * 2));
+            }
+            items[slot] = q;
+            return slot;
+        }
+    }
+
+    /** Location of a question inside the buckets */
+    private record Slot(QuestionLevel level, int index) {}
+
+    private final EnumMap<QuestionLevel, Bucket> buckets = new EnumMap<>(QuestionLevel.class);
+    private final Map<String, Slot> slots = new HashMap<>();
+    private final Map<String, Tally> tallies = new HashMap<>();
+
+    /** Recently drawn questions, oldest first */
+    private final ArrayDeque<Slot> recent = new ArrayDeque<>();
+
+    private int live = 0;
+
+    public WeightedQuestionSelector() {
+        rebuild(List.of());
+    }
+
+    // ============================================================
+    // Bank changes
+    // ============================================================
+
+    /**
+     * Rebuilds all trees from the given bank in O(n), without removed slots
+     * Answer tallies of questions in the bank are kept (keyed by question id),
+     * the others are dropped
+     */
+    public synchronized void rebuild(List<Question> questions) {
+        Set<String> bank = new HashSet<>(questions.size() * 2);
+        for (Question q : questions) bank.add(q.id());
+        tallies.keySet().retainAll(bank);
+
+        buckets.clear();
+        slots.clear();
+        recent.clear();
+        live = 0;
+
+        EnumMap<QuestionLevel, Integer> counts = new EnumMap<>(QuestionLevel.class);
+        for (Question q : questions) counts.merge(q.level(), 1, Integer::sum);
+
+        for (QuestionLevel lvl : QuestionLevel.values()) {
+            int n = counts.getOrDefault(lvl, 0);
+            Question[] items = new Question[Math.max(16, n)];
+            long[] w = new long[Math.max(16, n)];
+            int i = 0;
+            for (Question q : questions) {
+                if (q.level() != lvl) continue;
+                items[i] = q;
+                w[i] = baseWeight(q.id());
+                slots.put(q.id(), new Slot(lvl, i));
+                i++;
+            }
+            buckets.put(lvl, new Bucket(FenwickTree.of(w, n), items));
+            live += n;
+        }
+    }
+
+    /** Adds one question in O(log n) */
+    public synchronized void add(Question q) {
+        if (q == null) return;
+        remove(q.id());
+
+        Bucket b = buckets.get(q.level());
+        int idx = b.append(q, baseWeight(q.id()));
+        slots.put(q.id(), new Slot(q.level(), idx));
+        live++;
+    }
+
+    /**
+     * Removes one question in O(log n) (its slot keeps a zero weight)
+     * A bucket with more removed slots than questions is compacted
+     */
+    public synchronized void remove(String id) {
+        Slot s = slots.remove(id);
+        if (s == null) return;
+
+        Bucket b = buckets.get(s.level());
+        b.tree.set(s.index(), 0);
+        b.items[s.index()] = null;
+        b.cooling[s.index()] = false;
+        b.dead++;
+        live--;
+
+        if (b.dead >= MIN_DEAD_TO_COMPACT && b.dead > b.tree.size() - b.dead) compact(s.level());
+    }
+
+    /**
+     * Re-keys the answer tallies after question ids changed (SysData renumbers on
+     * delete, an edit may change an id); tallies whose id is not a key are dropped
+     * Call rebuild(...) or add(...) afterwards so weights use the new keys
+     */
+    public synchronized void remap(Map<String, String> oldToNew) {
+        Map<String, Tally> old = new HashMap<>(tallies);
+        tallies.clear();
+        for (Map.Entry<String, Tally> e : old.entrySet()) {
+            String nid = oldToNew.get(e.getKey());
+            if (nid != null) tallies.put(nid, e.getValue());
+        }
+    }
+
+    /** return number of slots in the trees, removed ones included */
+    public synchronized int slotCount() {
+        int n = 0;
+        for (Bucket b : buckets.values()) n += b.tree.size();
+        return n;
+    }
+
+    public synchronized int size() {
+        return live;
+    }
+
+    // ============================================================
+    // Draw / feedback
+    // ============================================================
+
+    /**
+     * Draws one question, weighted by history and by how well its level
+     * fits the match difficulty
+     * return the question, or null if the bank is empty
+     */
+    public synchronized Question draw(DifficultyLevel matchLevel, Random rnd) {
+        if (live == 0) return null;
+
+        double[] factor = LEVEL_FACTOR[matchLevel.ordinal()];
+        QuestionLevel[] levels = QuestionLevel.values();
+        double[] mass = new double[levels.length];
+        double sum = 0;
+
+        for (int i = 0; i < levels.length; i++) {
+            mass[i] = buckets.get(levels[i]).tree.total() * factor[i];
+            sum += mass[i];
+        }
+        if (sum <= 0) return null;
+
+        // pick a level by its weighted total (ends on the last non-empty level on rounding)
+        double pick = rnd.nextDouble() * sum;
+        int li = -1;
+        for (int i = 0; i < levels.length; i++) {
+            if (mass[i] == 0) continue;
+            li = i;
+            if (pick < mass[i]) break;
+            pick -= mass[i];
+        }
+
+        Bucket b = buckets.get(levels[li]);
+        long total = b.tree.total();
+        int idx = b.tree.find((long) (rnd.nextDouble() * total));
+        if (idx < 0 || b.items[idx] == null) return null;
+
+        Question q = b.items[idx];
+        coolDown(new Slot(levels[li], idx));
+        return q;
+    }
+
+    /**
+     * Records the outcome of an answered question and updates its weight
+     */
+    public synchronized void recordAnswer(String id, boolean right) {
+        Tally t = tallies.computeIfAbsent(id, k -> new Tally());
+        t.attempts++;
+        if (!right) t.wrong++;
+        refresh(id);
+    }
+
+    /**
+     * Replaces the tally of a question (used when seeding from stored statistics)
+     */
+    public synchronized void seed(String id, int attempts, int wrong) {
+        Tally t = tallies.computeIfAbsent(id, k -> new Tally());
+        t.attempts = attempts;
+        t.wrong = wrong;
+        refresh(id);
+    }
+
+    /**
+     * Drops the removed slots of one bucket in O(n); questions keep their order,
+     * weights and cool-down state
+     */
+    private void compact(QuestionLevel lvl) {
+        Bucket b = buckets.get(lvl);
+        int n = b.tree.size();
+        int[] moved = new int[n];
+        int alive = n - b.dead;
+
+        Question[] items = new Question[Math.max(16, alive)];
+        boolean[] cooling = new boolean[Math.max(16, alive)];
+        long[] w = new long[Math.max(16, alive)];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (b.items[i] == null) {
+                moved[i] = -1;
+                continue;
+            }
+            moved[i] = k;
+            items[k] = b.items[i];
+            cooling[k] = b.cooling[i];
+            w[k] = b.tree.weight(i);
+            slots.put(items[k].id(), new Slot(lvl, k));
+            k++;
+        }
+
+        Bucket nb = new Bucket(FenwickTree.of(w, k), items);
+        nb.cooling = cooling;
+        buckets.put(lvl, nb);
+
+        // the cool-down window refers to slots: move or drop this level's entries
+        int size = recent.size();
+        for (int i = 0; i < size; i++) {
+            Slot r = recent.pollFirst();
+            if (r.level() != lvl) recent.addLast(r);
+            else if (moved[r.index()] >= 0) recent.addLast(new Slot(lvl, moved[r.index()]));
+        }
+    }
+
+    // ============================================================
+    // Weights
+    // ============================================================
+
+    private void coolDown(Slot s) {
+        Bucket b = buckets.get(s.level());
+        if (!b.cooling[s.index()]) {
+            b.cooling[s.index()] = true;
+            refreshSlot(s);
+        }
+        recent.addLast(s);
+
+        int window = Math.min(MAX_COOLDOWN, live / 2);
+        while (recent.size() > window) {
+            Slot old = recent.pollFirst();
+            if (recent.contains(old)) continue; // drawn again since, still cooling
+            Bucket ob = buckets.get(old.level());
+            ob.cooling[old.index()] = false;
+            refreshSlot(old);
+        }
+    }
+
+    private void refresh(String id) {
+        Slot s = slots.get(id);
+        if (s != null) refreshSlot(s);
+    }
+
+    private void refreshSlot(Slot s) {
+        Bucket b = buckets.get(s.level());
+        Question q = b.items[s.index()];
+        if (q == null) return;
+
+        long w = baseWeight(q.id());
+        if (b.cooling[s.index()]) w = Math.max(1, (long) (w * COOLDOWN_FACTOR));
+        b.tree.set(s.index(), w);
+    }
+
+    /**
+     * Weight from the answer history: a smoothed wrong-rate boost in [1, 4]
+     */
+    private long baseWeight(String id) {
+        Tally t = tallies.get(id);
+        if (t == null) return BASE_WEIGHT;
+        double wrongRate = (t.wrong + 1.0) / (t.attempts + 2.0);
+        return (long) (BASE_WEIGHT * (1.0 + 3.0 * wrongRate));
+    }
+}
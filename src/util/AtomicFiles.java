@@ -0,0 +1,34 @@
+package util;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Replacing a data file in one step
+ * Writers fill a temp file next to the target (closed before the move), then
+ * moveIntoPlace swaps it in, so readers and file watchers never see a half-written file
+ */
+public final class AtomicFiles {
+
+    private AtomicFiles() { }
+
+    /** return the temp file used for target ("name.tmp" in the same directory) */
+    public static Path tempFor(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /**
+     * Moves tmp over target, atomically where the file system supports it
+     * (otherwise a plain replace, which may briefly leave no target on some systems)
+     */
+    public static void moveIntoPlace(Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
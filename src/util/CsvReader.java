@@ -0,0 +1,249 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming CSV reader with a configurable delimiter
+ * - reads the input in large chunks (no readLine), so quoted fields may span lines
+ * - "" inside a quoted field is an escaped quote
+ * - LF, CR and CRLF all end a record
+ * - blank lines are skipped
+ *
+ * The characters of the current record live in one reusable buffer; a field only
+ * becomes a String when get(i) is called, and getInt/getLong parse in place
+ */
+public class CsvReader implements Closeable {
+
+    private static final int CHUNK = 1 << 16;
+
+    private final Reader in;
+    private final char delimiter;
+
+    // ---------- Input buffer ----------
+    private final char[] buf = new char[CHUNK];
+    private int pos = 0;
+    private int len = 0;
+    private boolean eof = false;
+    private boolean started = false;
+
+    // ---------- Current record ----------
+    private char[] chars = new char[256];
+    private int charLen = 0;
+    private int[] bounds = new int[32];   // start0, end0, start1, end1, ...
+    private int fieldCount = 0;
+
+    private long line = 1;
+    private long recordLine = 0;
+
+    public CsvReader(Reader in, char delimiter) {
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Advances to the next non-blank record
+     * return false at end of input
+     */
+    public boolean next() throws IOException {
+        while (readRecord()) {
+            if (fieldCount == 1 && isBlank(bounds[0], bounds[1])) continue;
+            return true;
+        }
+        return false;
+    }
+
+    /** return number of fields in the current record */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** return 1-based line number where the current record starts */
+    public long lineNumber() {
+        return recordLine;
+    }
+
+    /** return field i of the current record as a new String */
+    public String get(int i) {
+        check(i);
+        int s = bounds[2 * i];
+        return new String(chars, s, bounds[2 * i + 1] - s);
+    }
+
+    /** Parses field i as an int without creating a String (surrounding spaces allowed) */
+    public int getInt(int i) {
+        long v = getLong(i);
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Out of int range: " + get(i));
+        }
+        return (int) v;
+    }
+
+    /** Parses field i as a long without creating a String (surrounding spaces allowed) */
+    public long getLong(int i) {
+        check(i);
+        int p = bounds[2 * i];
+        int end = bounds[2 * i + 1];
+        while (p < end && chars[p] == ' ') p++;
+        while (end > p && chars[end - 1] == ' ') end--;
+
+        boolean neg = false;
+        if (p < end && (chars[p] == '-' || chars[p] == '+')) {
+            neg = chars[p] == '-';
+            p++;
+        }
+        if (p == end || end - p > 18) return Long.parseLong(get(i).trim()); // empty or possibly too long: slow path
+
+        long v = 0;
+        for (; p < end; p++) {
+            char c = chars[p];
+            if (c < '0' || c > '9') throw new NumberFormatException("Not a number: " + get(i));
+            v = v * 10 + (c - '0');
+        }
+        return neg ? -v : v;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ============================================================
+    // Parsing
+    // ============================================================
+
+    private boolean readRecord() throws IOException {
+        charLen = 0;
+        fieldCount = 0;
+
+        int c = read();
+        if (c < 0) return false;
+        recordLine = line;
+
+        int start = 0;
+        boolean inQ = false;
+
+        while (true) {
+            if (c < 0) {
+                endField(start);
+                return true;
+            }
+            char ch = (char) c;
+
+            if (inQ) {
+                if (ch == '"') {
+                    if (peek() == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQ = false;
+                    }
+                } else {
+                    if (ch == '\n') line++;
+                    append(ch);
+                }
+            } else if (ch == delimiter) {
+                endField(start);
+                start = charLen;
+            } else if (ch == '"') {
+                inQ = true;
+            } else if (ch == '\n') {
+                line++;
+                endField(start);
+                return true;
+            } else if (ch == '\r') {
+                if (peek() == '\n') read();
+                line++;
+                endField(start);
+                return true;
+            } else {
+                append(ch);
+                copyPlainRun();
+            }
+
+            c = read();
+        }
+    }
+
+    /** Bulk-copies the unquoted run that follows in the input buffer */
+    private void copyPlainRun() {
+        int p = pos;
+        while (p < len) {
+            char ch = buf[p];
+            if (ch == delimiter || ch == '"' || ch == '\n' || ch == '\r') break;
+            p++;
+        }
+        int n = p - pos;
+        if (n == 0) return;
+        ensure(n);
+        System.arraycopy(buf, pos, chars, charLen, n);
+        charLen += n;
+        pos = p;
+    }
+
+    private int read() throws IOException {
+        if (pos == len && !fill()) return -1;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == len && !fill()) return -1;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        int n = in.read(buf, 0, CHUNK);
+        if (n <= 0) {
+            eof = true;
+            return false;
+        }
+        pos = 0;
+        len = n;
+
+        // skip a UTF-8 byte order mark at the very start
+        if (!started) {
+            started = true;
+            if (buf[0] == '\uFEFF') pos = 1;
+            if (pos == len) return fill();
+        }
+        return true;
+    }
+
+    private void append(char ch) {
+        ensure(1);
+        chars[charLen++] = ch;
+    }
+
+    private void ensure(int extra) {
+        if (charLen + extra <= chars.length) return;
+        char[] grown = new char[Math.max(chars.length * 2, charLen + extra)];
+        System.arraycopy(chars, 0, grown, 0, charLen);
+        chars = grown;
+    }
+
+    private void endField(int start) {
+        if (2 * fieldCount + 2 > bounds.length) {
+            int[] grown = new int[bounds.length * 2];
+            System.arraycopy(bounds, 0, grown, 0, bounds.length);
+            bounds = grown;
+        }
+        bounds[2 * fieldCount] = start;
+        bounds[2 * fieldCount + 1] = charLen;
+        fieldCount++;
+    }
+
+    private boolean isBlank(int s, int e) {
+        for (int i = s; i < e; i++) {
+            if (!Character.isWhitespace(chars[i])) return false;
+        }
+        return true;
+    }
+
+    private void check(int i) {
+        if (i < 0 || i >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + i + " of " + fieldCount);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV writer matching CsvReader
+ * A field is quoted only when it contains the delimiter, a quote or a line break;
+ * quotes inside are doubled. Multi-line fields are written as-is inside quotes
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    private final char delimiter;
+    private final String lineEnd;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer out, char delimiter) {
+        this.out = out;
+        this.delimiter = delimiter;
+        this.lineEnd = System.lineSeparator();
+    }
+
+    /** Appends one field to the current record */
+    public CsvWriter field(String s) throws IOException {
+        if (!firstField) out.write(delimiter);
+        firstField = false;
+
+        if (s == null || s.isEmpty()) return this;
+
+        if (!needsQuotes(s)) {
+            out.write(s);
+            return this;
+        }
+
+        out.write('"');
+        int from = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '"') {
+                out.write(s, from, i - from + 1);
+                out.write('"');
+                from = i + 1;
+            }
+        }
+        out.write(s, from, s.length() - from);
+        out.write('"');
+        return this;
+    }
+
+    /** Appends one numeric field to the current record */
+    public CsvWriter field(long v) throws IOException {
+        return field(Long.toString(v));
+    }
+
+    /** Ends the current record */
+    public void endRecord() throws IOException {
+        out.write(lineEnd);
+        firstField = true;
+    }
+
+    /** Writes a whole record */
+    public void writeRecord(String... fields) throws IOException {
+        for (String f : fields) field(f);
+        endRecord();
+    }
+
+    private boolean needsQuotes(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,99 @@
+package util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Debounced background save of an in-memory state to one file
+ * - changed() marks the state dirty and schedules a write delayMs later; changes
+ *   made within the delay ride along with it
+ * - flushNow() writes pending changes right away; a shutdown hook calls it on exit
+ * - a failed write leaves the state dirty, so the next change or the exit flush retries
+ *
+ * The owner's state is guarded by the owner's monitor. A write holds writeLock for the
+ * whole check / copy / write and takes the owner's monitor inside it only for the copy,
+ * so writes reach the disk in copy order and the shutdown hook waits for a write in progress
+ * (never call flushNow while holding the owner's monitor)
+ */
+public final class DebouncedSave {
+
+    /** Copy of the owner's state, written outside the owner's monitor */
+    public interface Snapshot {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private final Path file;
+    private final Object owner;
+    private final long delayMs;
+    private final ScheduledExecutorService executor;
+    private final Supplier<Snapshot> snapshot;
+
+    /** Guarded by owner */
+    private boolean dirty = false;
+    private boolean scheduled = false;
+
+    private final Object writeLock = new Object();
+
+    /**
+     * @param owner    object whose monitor guards the state
+     * @param executor runs the delayed writes
+     * @param hookName name of the shutdown-hook thread that flushes on exit
+     * @param snapshot called with the owner's monitor held; copies the state to write
+     */
+    public DebouncedSave(Path file, Object owner, long delayMs, ScheduledExecutorService executor,
+                         String hookName, Supplier<Snapshot> snapshot) {
+        this.file = file;
+        this.owner = owner;
+        this.delayMs = delayMs;
+        this.executor = executor;
+        this.snapshot = snapshot;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushNow, hookName));
+    }
+
+    /** Marks the state changed without scheduling a write (picked up by the next save) */
+    public void markDirty() {
+        synchronized (owner) {
+            dirty = true;
+        }
+    }
+
+    /** Marks the state changed and schedules a write, unless one is pending already */
+    public void changed() {
+        synchronized (owner) {
+            dirty = true;
+            if (scheduled) return;
+            scheduled = true;
+        }
+        executor.schedule(this::flushNow, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Writes pending changes now (temp file + atomic move); waits for a write in progress */
+    public void flushNow() {
+        synchronized (writeLock) {
+            Snapshot s;
+            synchronized (owner) {
+                scheduled = false;
+                if (!dirty) return;
+                s = snapshot.get();
+                dirty = false;
+            }
+
+            Path tmp = AtomicFiles.tempFor(file);
+            try {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                    s.writeTo(out);
+                }
+                AtomicFiles.moveIntoPlace(tmp, file);
+            } catch (IOException e) {
+                System.err.println("[SAVE] Could not write " + file + ": " + e.getMessage());
+                markDirty();
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package util;
+
+import javax.swing.*;
+import java.awt.Window;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * EdtWatchdog (background thread)
+ * Detects Event Dispatch Thread stalls: a heartbeat event is posted every
+ * HEARTBEAT_MS, and if one waits longer than the threshold the EDT's stack is
+ * sampled every SAMPLE_MS until it is processed. The report (duration, grouped
+ * stacks, tagged tasks) is appended to edt-stalls.log, which is rolled at
+ * MAX_LOG_BYTES
+ *
+ * Long EDT work can be tagged so reports name the subsystem:
+ *   EdtWatchdog.Task t = EdtWatchdog.task("SysData.addRecord");
+ *   try { ... } finally { t.close(); }
+ * Tags only cost anything on the EDT; elsewhere task() returns a no-op
+ *
+ * Modal dialogs keep processing events, so an open dialog is not a stall
+ * Heartbeats are only posted while a window is displayable, so the watchdog
+ * never keeps AWT (and the JVM) alive on its own
+ *
+ * System properties: edt.watchdog=false disables it, edt.stall.ms sets the
+ * threshold (default STALL_MS)
+ */
+public final class EdtWatchdog {
+
+    private static final int HEARTBEAT_MS = 100;
+    private static final int STALL_MS = 400;
+    private static final int SAMPLE_MS = 50;
+    private static final int MAX_SAMPLES = 40;
+
+    /** A stall still going on after this is reported right away (deadlock?) */
+    private static final int REPORT_AFTER_MS = 10_000;
+
+    private static final int MAX_FRAMES = 30;
+    private static final String LOG_FILE = "edt-stalls.log";
+    private static final long MAX_LOG_BYTES = 512 * 1024;
+    private static final int LOG_BACKUPS = 2;
+
+    /** A tagged piece of EDT work; close() ends it */
+    public interface Task extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Task NO_TASK = () -> { };
+
+    private record Tag(String source, long startNs) {}
+
+    /** @param atMs time since the heartbeat was posted, atNs the sample's nanoTime */
+    private record Sample(long atMs, long atNs, StackTraceElement[] stack, List<Tag> tags) {}
+
+    private static final Deque<Tag> TAGS = new ArrayDeque<>();
+
+    private static volatile Thread edt;
+    private static volatile boolean beatPending = false;
+    private static volatile long beatDoneNs = 0;
+
+    private static volatile int stalls = 0;
+    private static volatile long lastStallMs = 0;
+
+    private static Thread watchdog;
+
+    private EdtWatchdog() { }
+
+    /** Starts the watchdog thread (once; honours edt.watchdog / edt.stall.ms) */
+    public static synchronized void start() {
+        if (watchdog != null || "false".equals(System.getProperty("edt.watchdog"))) return;
+        long thresholdMs = Long.getLong("edt.stall.ms", STALL_MS);
+
+        watchdog = new Thread(() -> run(thresholdMs), "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    /**
+     * Tags EDT work until the returned task is closed
+     * @param source subsystem / method, e.g. "SysData.addRecord"
+     */
+    public static Task task(String source) {
+        if (!SwingUtilities.isEventDispatchThread()) return NO_TASK;
+        Tag tag = new Tag(source, System.nanoTime());
+        synchronized (TAGS) {
+            TAGS.push(tag);
+        }
+        return () -> {
+            synchronized (TAGS) {
+                TAGS.remove(tag);
+            }
+        };
+    }
+
+    /** return number of stalls since start */
+    public static int stallCount() {
+        return stalls;
+    }
+
+    /** return duration of the last stall in ms (0 if none) */
+    public static long lastStallMs() {
+        return lastStallMs;
+    }
+
+    // ============================================================
+    // Watchdog loop
+    // ============================================================
+
+    private static void run(long thresholdMs) {
+        long thresholdNs = thresholdMs * 1_000_000L;
+        long sentNs = 0;
+        while (true) {
+            try {
+                Thread.sleep(HEARTBEAT_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (!beatPending) {
+                if (!anyWindowShown()) continue;
+                beatPending = true;
+                sentNs = System.nanoTime();
+                SwingUtilities.invokeLater(() -> {
+                    edt = Thread.currentThread();
+                    beatDoneNs = System.nanoTime();
+                    beatPending = false;
+                });
+            } else if (System.nanoTime() - sentNs >= thresholdNs && edt != null) {
+                try {
+                    onStall(sentNs, thresholdMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Samples the EDT until the pending heartbeat runs, then writes the report */
+    private static void onStall(long sentNs, long thresholdMs) throws InterruptedException {
+        Thread target = edt;
+        LocalDateTime started = LocalDateTime.now();
+        List<Sample> samples = new ArrayList<>();
+        boolean reportedEarly = false;
+
+        while (beatPending) {
+            long now = System.nanoTime();
+            long atMs = (now - sentNs) / 1_000_000L;
+            if (samples.size() < MAX_SAMPLES) {
+                samples.add(new Sample(atMs, now, target.getStackTrace(), tags()));
+            }
+            if (!reportedEarly && atMs >= REPORT_AFTER_MS) {
+                write(report(started, atMs, thresholdMs, samples, true));
+                reportedEarly = true;
+            }
+            Thread.sleep(SAMPLE_MS);
+        }
+
+        long ms = (beatDoneNs - sentNs) / 1_000_000L;
+        stalls++;
+        lastStallMs = ms;
+
+        if (reportedEarly) {
+            write("=== EDT stall from " + started + " ended after " + ms + " ms\n\n");
+        } else {
+            write(report(started, ms, thresholdMs, samples, false));
+        }
+        System.err.println("[EDT] stall " + ms + " ms" + sourcesOf(samples) + " -> " + LOG_FILE);
+    }
+
+    private static boolean anyWindowShown() {
+        for (Window w : Window.getWindows()) {
+            if (w.isDisplayable()) return true;
+        }
+        return false;
+    }
+
+    private static List<Tag> tags() {
+        synchronized (TAGS) {
+            return new ArrayList<>(TAGS);
+        }
+    }
+
+    // ============================================================
+    // Report
+    // ============================================================
+
+    private static String report(LocalDateTime started, long ms, long thresholdMs,
+                                 List<Sample> samples, boolean ongoing) {
+        StringWriter sw = new StringWriter();
+        PrintWriter out = new PrintWriter(sw);
+
+        out.printf("=== EDT stall at %s: %s%d ms (threshold %d ms, heartbeat %d ms)%n",
+                started, ongoing ? "still blocked after " : "", ms, thresholdMs, HEARTBEAT_MS);
+
+        // tags seen in the samples, with how long each had been running at its last sample
+        Map<String, Long> tagMs = new LinkedHashMap<>();
+        for (Sample s : samples) {
+            for (Tag t : s.tags) tagMs.merge(t.source, (s.atNs - t.startNs) / 1_000_000L, Math::max);
+        }
+        if (tagMs.isEmpty()) {
+            out.println("tags: none");
+        } else {
+            out.print("tags:");
+            tagMs.forEach((src, running) -> out.printf(" %s (running %d ms)", src, running));
+            out.println();
+        }
+
+        // identical stacks grouped, most frequent first
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, Sample> firstOf = new HashMap<>();
+        for (Sample s : samples) {
+            String key = stackText(s.stack);
+            counts.merge(key, 1, Integer::sum);
+            firstOf.putIfAbsent(key, s);
+        }
+        out.printf("samples: %d, every %d ms%n", samples.size(), SAMPLE_MS);
+
+        List<Map.Entry<String, Integer>> groups = new ArrayList<>(counts.entrySet());
+        groups.sort((a, b) -> b.getValue() - a.getValue());
+        for (Map.Entry<String, Integer> g : groups) {
+            Sample first = firstOf.get(g.getKey());
+            out.printf("-- %dx, first at +%d ms%s%n", g.getValue(), first.atMs, tagList(first.tags));
+            out.print(g.getKey());
+        }
+        out.println();
+        out.flush();
+        return sw.toString();
+    }
+
+    private static String stackText(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        int n = Math.min(stack.length, MAX_FRAMES);
+        for (int i = 0; i < n; i++) sb.append("     at ").append(stack[i]).append('\n');
+        if (stack.length > n) sb.append("     ... ").append(stack.length - n).append(" more\n");
+        return sb.toString();
+    }
+
+    private static String tagList(List<Tag> tags) {
+        if (tags.isEmpty()) return "";
+        StringJoiner j = new StringJoiner(", ", " [", "]");
+        for (Tag t : tags) j.add(t.source);
+        return j.toString();
+    }
+
+    /** Tags of the samples for the console line, e.g. " (SysData.addRecord)" */
+    private static String sourcesOf(List<Sample> samples) {
+        Set<String> src = new LinkedHashSet<>();
+        for (Sample s : samples) {
+            for (Tag t : s.tags) src.add(t.source);
+        }
+        return src.isEmpty() ? "" : " (" + String.join(", ", src) + ")";
+    }
+
+    // ============================================================
+    // Rolling log
+    // ============================================================
+
+    private static void write(String text) {
+        Path log = Paths.get(LOG_FILE);
+        try {
+            if (Files.exists(log) && Files.size(log) > MAX_LOG_BYTES) roll(log);
+            Files.writeString(log, text, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("[EDT] Could not write " + LOG_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /** edt-stalls.log -> .1 -> .2 ... (the oldest is dropped) */
+    private static void roll(Path log) throws IOException {
+        for (int i = LOG_BACKUPS; i >= 1; i--) {
+            Path from = i == 1 ? log : log.resolveSibling(LOG_FILE + "." + (i - 1));
+            Path to = log.resolveSibling(LOG_FILE + "." + i);
+            if (Files.exists(from)) Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
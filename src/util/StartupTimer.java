@@ -0,0 +1,29 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures time-to-first-frame
+ * The reference point is the JVM start time, so class loading and static
+ * initializers before main() are included in the number
+ */
+public final class StartupTimer {
+
+    private static volatile boolean reported = false;
+
+    private StartupTimer() { }
+
+    /** return milliseconds since the JVM started */
+    public static long sinceJvmStartMillis() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    /**
+     * Logs the time to the first painted frame (only the first call counts)
+     */
+    public static void firstFrameShown() {
+        if (reported) return;
+        reported = true;
+        System.out.println("[STARTUP] First frame after " + sinceJvmStartMillis() + " ms");
+    }
+}
@@ -0,0 +1,223 @@
+package util;
+
+import javax.swing.*;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * UI performance counters for the diagnostics overlay (F12)
+ * - frame time: duration of each Swing paint pass (fed by the overlay's RepaintManager)
+ * - EDT latency: delay of probe events posted every PROBE_MS from a background thread
+ * - action time: MatchController actions, per action name
+ *
+ * Nothing is measured while disabled (start() returns 0 and the probe thread is stopped);
+ * enabling resets all histograms
+ */
+public final class UiMetrics {
+
+    private static final int PROBE_MS = 100;
+
+    /**
+     * Latency histogram with exponential buckets (each 25% wider than the previous,
+     * from 50us up to about 10s); percentiles are reported as the bucket's upper bound
+     */
+    public static final class Histogram {
+        private static final long FIRST_BOUND_NS = 50_000;
+        private static final double GROWTH = 1.25;
+        private static final long[] BOUNDS;
+
+        static {
+            List<Long> b = new ArrayList<>();
+            for (double v = FIRST_BOUND_NS; v < 10_000_000_000L; v *= GROWTH) b.add((long) v);
+            BOUNDS = b.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        private final String name;
+        private final long[] counts = new long[BOUNDS.length + 1];
+        private long count, sumNs, maxNs;
+
+        public Histogram(String name) {
+            this.name = name;
+        }
+
+        public String name() { return name; }
+
+        public synchronized void record(long nanos) {
+            int i = 0;
+            while (i < BOUNDS.length && nanos > BOUNDS[i]) i++;
+            counts[i]++;
+            count++;
+            sumNs += nanos;
+            maxNs = Math.max(maxNs, nanos);
+        }
+
+        public synchronized long count() { return count; }
+
+        public synchronized double meanMs() {
+            return count == 0 ? 0 : sumNs / 1e6 / count;
+        }
+
+        public synchronized double maxMs() { return maxNs / 1e6; }
+
+        /** return the q-th quantile (0..1) in ms, as the upper bound of its bucket */
+        public synchronized double percentileMs(double q) {
+            if (count == 0) return 0;
+            long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return i < BOUNDS.length ? Math.min(BOUNDS[i], maxNs) / 1e6 : maxMs();
+            }
+            return maxMs();
+        }
+
+        public synchronized void reset() {
+            Arrays.fill(counts, 0);
+            count = sumNs = maxNs = 0;
+        }
+
+        /** One line: count, p50 / p95 / p99 / max in ms */
+        public synchronized String summary() {
+            return String.format("n %d  p50 %.1f  p95 %.1f  p99 %.1f  max %.1f ms",
+                    count, percentileMs(0.50), percentileMs(0.95), percentileMs(0.99), maxMs());
+        }
+
+        synchronized void dump(PrintWriter out) {
+            out.printf("== %s: n %d, mean %.2f ms%n", name, count, meanMs());
+            out.printf("   p50 %.2f  p90 %.2f  p95 %.2f  p99 %.2f  max %.2f ms%n",
+                    percentileMs(0.50), percentileMs(0.90), percentileMs(0.95), percentileMs(0.99), maxMs());
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                String bound = i < BOUNDS.length ? String.format("<= %9.2f ms", BOUNDS[i] / 1e6) : "    larger   ";
+                out.printf("   %s  %d%n", bound, counts[i]);
+            }
+        }
+    }
+
+    // ============================================================
+    // State
+    // ============================================================
+
+    public static final Histogram FRAME = new Histogram("frame (paint pass)");
+    public static final Histogram EDT_LATENCY = new Histogram("EDT latency (probe)");
+
+    /** action name -> histogram, in first-seen order */
+    private static final Map<String, Histogram> ACTIONS = new LinkedHashMap<>();
+
+    private static volatile boolean enabled = false;
+    private static volatile long frames = 0;
+    private static Thread probe;
+
+    private UiMetrics() { }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Turns measuring on / off; turning it on resets all histograms */
+    public static synchronized void setEnabled(boolean on) {
+        if (on == enabled) return;
+        if (on) {
+            FRAME.reset();
+            EDT_LATENCY.reset();
+            synchronized (ACTIONS) {
+                ACTIONS.values().forEach(Histogram::reset);
+            }
+            frames = 0;
+            enabled = true;
+            probe = new Thread(UiMetrics::probeLoop, "edt-probe");
+            probe.setDaemon(true);
+            probe.start();
+        } else {
+            enabled = false;
+            probe.interrupt();
+            probe = null;
+        }
+    }
+
+    // ============================================================
+    // Recording
+    // ============================================================
+
+    /** One paint pass of the given duration (EDT only) */
+    public static void frame(long nanos) {
+        if (!enabled) return;
+        frames++;
+        FRAME.record(nanos);
+    }
+
+    /** return paint passes since measuring was enabled */
+    public static long frameCount() {
+        return frames;
+    }
+
+    /** return a start time for action(...), or 0 if disabled */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /** Records an action that began at start (no-op if start is 0) */
+    public static void action(String name, long start) {
+        if (start == 0L || !enabled) return;
+        long ns = System.nanoTime() - start;
+        Histogram h;
+        synchronized (ACTIONS) {
+            h = ACTIONS.computeIfAbsent(name, Histogram::new);
+        }
+        h.record(ns);
+    }
+
+    /** return the action histograms (snapshot of the list) */
+    public static List<Histogram> actions() {
+        synchronized (ACTIONS) {
+            return new ArrayList<>(ACTIONS.values());
+        }
+    }
+
+    private static void probeLoop() {
+        AtomicBoolean pending = new AtomicBoolean(false);
+        while (enabled) {
+            try {
+                Thread.sleep(PROBE_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            // one probe in flight at a time: a stalled EDT is measured when it recovers
+            if (!pending.compareAndSet(false, true)) continue;
+            long sent = System.nanoTime();
+            SwingUtilities.invokeLater(() -> {
+                if (enabled) EDT_LATENCY.record(System.nanoTime() - sent);
+                pending.set(false);
+            });
+        }
+    }
+
+    // ============================================================
+    // Dump
+    // ============================================================
+
+    /** Writes all histograms as text */
+    public static void dump(Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("UI diagnostics " + LocalDateTime.now());
+            out.println();
+            FRAME.dump(out);
+            out.println();
+            EDT_LATENCY.dump(out);
+            for (Histogram h : actions()) {
+                out.println();
+                h.dump(out);
+            }
+        }
+    }
+}
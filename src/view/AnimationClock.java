@@ -0,0 +1,104 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AnimationClock (Singleton, EDT only)
+ * One frame timer for every running view effect (explosions, sparkles, hearts,
+ * cascades, replay playback)
+ *
+ * Each frame ticks all active animations with the same timestamp, then repaints
+ * the dirty area collected per component once. The timer runs only while at least
+ * one animation is active
+ *
+ * Animations are time based (progress = elapsed / duration), so a late frame
+ * skips ahead instead of slowing the effect down
+ */
+public final class AnimationClock {
+
+    /** Frame period (about 60 fps) */
+    public static final int FRAME_MS = 16;
+
+    /** One running effect */
+    public interface Animation {
+        /**
+         * Advances to the given time and marks what must be repainted (markDirty)
+         * return false when the animation is over (it is then removed)
+         */
+        boolean tick(long nowMs);
+    }
+
+    private static AnimationClock INSTANCE;
+
+    public static AnimationClock getInstance() {
+        if (INSTANCE == null) INSTANCE = new AnimationClock();
+        return INSTANCE;
+    }
+
+    private final List<Animation> active = new ArrayList<>();
+    private final Map<Component, Rectangle> dirty = new IdentityHashMap<>();
+    private final Timer timer = new Timer(FRAME_MS, e -> frame());
+
+    private AnimationClock() {
+        timer.setCoalesce(true);
+    }
+
+    /** return the clock time animations are ticked with */
+    public static long now() {
+        return System.currentTimeMillis();
+    }
+
+    /** Adds an animation (no-op if it is already running); it is ticked from the next frame */
+    public void start(Animation a) {
+        if (!active.contains(a)) active.add(a);
+        if (!timer.isRunning()) timer.start();
+    }
+
+    /** Removes an animation; the timer stops with the last one */
+    public void stop(Animation a) {
+        active.remove(a);
+        if (active.isEmpty()) timer.stop();
+    }
+
+    public boolean isRunning(Animation a) {
+        return active.contains(a);
+    }
+
+    /** return number of running animations */
+    public int activeCount() {
+        return active.size();
+    }
+
+    /** Requests a repaint of part of a component at the end of the current frame */
+    public void markDirty(Component c, int x, int y, int w, int h) {
+        Rectangle r = dirty.get(c);
+        if (r == null) dirty.put(c, new Rectangle(x, y, w, h));
+        else r.add(new Rectangle(x, y, w, h));
+    }
+
+    /** Requests a repaint of a whole component at the end of the current frame */
+    public void markDirty(Component c) {
+        markDirty(c, 0, 0, c.getWidth(), c.getHeight());
+    }
+
+    private void frame() {
+        long now = now();
+        for (Animation a : active.toArray(new Animation[0])) {
+            if (!a.tick(now)) active.remove(a);
+        }
+
+        // one repaint per component and frame
+        for (Map.Entry<Component, Rectangle> e : dirty.entrySet()) {
+            Rectangle r = e.getValue();
+            e.getKey().repaint(r.x, r.y, r.width, r.height);
+        }
+        dirty.clear();
+
+        if (active.isEmpty()) timer.stop();
+    }
+}
@@ -2,36 +2,42 @@ package view;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Panel that draws a background image scaled to cover it (see BackgroundRenderer)
+ * If the image is missing, a gradient fallback is displayed
+ */
 public class BackgroundPanel extends JPanel {
-    private final Image bg;
+    private Image bg;
 
     public BackgroundPanel(Image bg) {
         this.bg = bg;
         setOpaque(true);
     }
 
+    /**
+     * Panel for an image that is still loading (see GameAssets): shows the gradient
+     * fallback as a placeholder and repaints once the image is there
+     */
+    public BackgroundPanel(CompletableFuture<Image> bg) {
+        this(bg.getNow(null));
+        if (!bg.isDone()) {
+            bg.thenAccept(img -> SwingUtilities.invokeLater(() -> {
+                this.bg = img;
+                repaint();
+            }));
+        }
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (bg == null) return;
-
-        int imgW = bg.getWidth(null);
-        int imgH = bg.getHeight(null);
-        if (imgW <= 0 || imgH <= 0) return;
-
-        int panelW = getWidth();
-        int panelH = getHeight();
-
-        // scale to cover the whole panel (like “cover” in CSS)
-        double scale = Math.max((double) panelW / imgW, (double) panelH / imgH);
-
-        int drawW = (int) (imgW * scale);
-        int drawH = (int) (imgH * scale);
-
-        int x = (panelW - drawW) / 2;
-        int y = (panelH - drawH) / 2;
-
-        g.drawImage(bg, x, y, drawW, drawH, this);
+        BackgroundRenderer renderer = BackgroundRenderer.getInstance();
+        if (bg == null) {
+            renderer.paintFallback(g, this);
+        } else {
+            renderer.paint(g, this, bg);
+        }
     }
 }
@@ -0,0 +1,140 @@
+package view;
+
+import util.EdtWatchdog;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BackgroundRenderer (Singleton)
+ * Draws a background image scaled to cover a component (like "cover" in CSS)
+ *
+ * The scaled and cropped result is rendered once per (image, component size, scale
+ * factor) into a compatible image and then only copied, so repainting a small child
+ * no longer rescales the full-resolution picture. Scaling is done once with bilinear
+ * interpolation, which also looks smoother than the old per-paint scaling
+ *
+ * A new size simply makes a new entry; only the MAX_ENTRIES most recently used
+ * are kept (they are screen-sized, so the limit is small)
+ */
+public final class BackgroundRenderer {
+
+    /** Current screen, previous screen and the personalization preview */
+    private static final int MAX_ENTRIES = 3;
+
+    private static final Color FALLBACK_TOP = new Color(12, 12, 20);
+    private static final Color FALLBACK_BOTTOM = new Color(40, 40, 70);
+
+    /** Image does not override equals, so entries are per Image object */
+    private record Key(Image image, int w, int h, int scalePct) {}
+
+    private static BackgroundRenderer INSTANCE;
+
+    public static synchronized BackgroundRenderer getInstance() {
+        if (INSTANCE == null) INSTANCE = new BackgroundRenderer();
+        return INSTANCE;
+    }
+
+    private final Map<Key, Image> scaled = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Image> e) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private BackgroundRenderer() {}
+
+    /**
+     * Draws bg over the whole component
+     * return false if nothing was drawn (no image, not loaded yet or empty component)
+     */
+    public boolean paint(Graphics g, Component c, Image bg) {
+        int w = c.getWidth(), h = c.getHeight();
+        if (bg == null || w <= 0 || h <= 0) return false;
+        if (bg.getWidth(null) <= 0 || bg.getHeight(null) <= 0) return false;
+
+        Graphics2D g2 = (Graphics2D) g;
+        double scale = g2.getTransform().getScaleX();
+        Image img = scaled(g2.getDeviceConfiguration(), bg, w, h, scale);
+        g2.drawImage(img, 0, 0, w, h, null);
+        return true;
+    }
+
+    /** Dark vertical gradient used when a screen has no background image */
+    public void paintFallback(Graphics g, Component c) {
+        Graphics2D g2 = (Graphics2D) g;
+        Paint old = g2.getPaint();
+        g2.setPaint(new GradientPaint(0, 0, FALLBACK_TOP, 0, c.getHeight(), FALLBACK_BOTTOM));
+        g2.fillRect(0, 0, c.getWidth(), c.getHeight());
+        g2.setPaint(old);
+    }
+
+    /** Drops every scaled image (e.g. after a theme change) */
+    public synchronized void invalidate() {
+        scaled.clear();
+    }
+
+    private synchronized Image scaled(GraphicsConfiguration gc, Image bg, int w, int h, double scale) {
+        Key key = new Key(bg, w, h, (int) Math.round(scale * 100));
+        Image img = scaled.get(key);
+        if (img == null) {
+            EdtWatchdog.Task t = EdtWatchdog.task("BackgroundRenderer.render");
+            try {
+                img = render(gc, bg, w, h, scale);
+            } finally {
+                t.close();
+            }
+            scaled.put(key, img);
+        }
+        return img;
+    }
+
+    private static Image render(GraphicsConfiguration gc, Image bg, int w, int h, double scale) {
+        int pw = Math.max(1, (int) Math.ceil(w * scale));
+        int ph = Math.max(1, (int) Math.ceil(h * scale));
+
+        int imgW = bg.getWidth(null);
+        int imgH = bg.getHeight(null);
+
+        // cover: scale so the image fills the target, centered and cropped
+        double cover = Math.max((double) pw / imgW, (double) ph / imgH);
+        int drawW = (int) Math.ceil(imgW * cover);
+        int drawH = (int) Math.ceil(imgH * cover);
+
+        BufferedImage img = new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2.drawImage(bg, (pw - drawW) / 2, (ph - drawH) / 2, drawW, drawH, null);
+        } finally {
+            g2.dispose();
+        }
+
+        // most backgrounds have no transparent pixels: an opaque copy blits without blending
+        int transparency = isOpaque(img) ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+        if (gc == null || gc.getDevice().getType() == GraphicsDevice.TYPE_PRINTER) {
+            return img;
+        }
+        BufferedImage compatible = gc.createCompatibleImage(pw, ph, transparency);
+        Graphics2D cg = compatible.createGraphics();
+        try {
+            cg.setComposite(AlphaComposite.Src);
+            cg.drawImage(img, 0, 0, null);
+        } finally {
+            cg.dispose();
+        }
+        return compatible;
+    }
+
+    private static boolean isOpaque(BufferedImage img) {
+        int[] px = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        for (int p : px) {
+            if ((p >>> 24) != 0xFF) return false;
+        }
+        return true;
+    }
+}
@@ -53,6 +53,9 @@ public abstract class BaseGameFrame extends JFrame {
 
         // prepare reusable toast UI
         initToastUI();
+
+        // F12 diagnostics overlay
+        DiagnosticsOverlay.install(this);
     }
 
     /** Show the window */
@@ -0,0 +1,395 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.geom.Ellipse2D;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * One player's board, painted by a single component
+ *
+ * Cells are plain data (text, base color, text color) instead of one button each:
+ * mouse coordinates are hit-tested to a cell, and a change repaints only the
+ * rectangle of that cell. Layout follows the old GridLayout of buttons (equal
+ * tiles, GAP pixels apart, leftover space split around the grid)
+ *
+ * The look is that of the former CellButton: rounded tiles with a glow, hover and
+ * pressed shades (blitted from TileSpriteCache), grey tiles while the board is
+ * disabled, mine explosions and surprise sparkles (ticked by the shared AnimationClock)
+ */
+public class BoardCanvas extends JComponent {
+
+    /** Receives mouse presses on cells (only while the board is enabled) */
+    public interface CellListener {
+        void cellPressed(int row, int col, MouseEvent e);
+    }
+
+    private static final int GAP = 6;
+    private static final int PREF_CELL = 44;
+
+    private static final Font CELL_FONT = new Font("SansSerif", Font.BOLD, 16);
+    private static final Color DISABLED_TEXT = new Color(150, 150, 150);
+
+    private final int rows;
+    private final int cols;
+
+    // ---------- Cell data (index = r * cols + c) ----------
+    private final String[] text;
+    private final Color[] base;
+    private final Color[] fg;
+
+    private int hover = -1;
+    private int pressed = -1;
+
+    private CellListener listener;
+
+    // ---------- Effects (one clock animation for the whole board) ----------
+    private static final int PCOUNT = 12;
+    private static final int SCOUNT = 9;
+
+    private static final int EXPLOSION_MS = 230;
+    private static final int SPARKLE_MS = 270;
+
+    private final long[] explosionStart;
+    private final long[] sparkleStart;
+    private final float[] explosionT;   // 0..1, 1 = not exploding
+    private final float[] sparkleT;     // 0..1, 1 = not sparkling
+    private final float[] pvx, pvy;     // PCOUNT particle directions per cell
+    private final float[] sx, sy, ss;   // SCOUNT sparkle positions / sizes per cell
+    private final BitSet animating = new BitSet();
+    private final Random rnd = new Random();
+    private final AnimationClock.Animation effects = this::tickEffects;
+
+    public BoardCanvas(int rows, int cols, Color initialBase) {
+        this.rows = rows;
+        this.cols = cols;
+
+        int n = rows * cols;
+        text = new String[n];
+        base = new Color[n];
+        fg = new Color[n];
+        for (int i = 0; i < n; i++) {
+            text[i] = "·";
+            base[i] = initialBase;
+            fg[i] = Color.BLACK;
+        }
+
+        explosionStart = new long[n];
+        sparkleStart = new long[n];
+        explosionT = new float[n];
+        sparkleT = new float[n];
+        Arrays.fill(explosionT, 1f);
+        Arrays.fill(sparkleT, 1f);
+        pvx = new float[n * PCOUNT];
+        pvy = new float[n * PCOUNT];
+        sx = new float[n * SCOUNT];
+        sy = new float[n * SCOUNT];
+        ss = new float[n * SCOUNT];
+
+        setOpaque(false);
+        setFont(CELL_FONT);
+        setPreferredSize(new Dimension(cols * PREF_CELL + (cols - 1) * GAP,
+                                       rows * PREF_CELL + (rows - 1) * GAP));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override public void mouseMoved(MouseEvent e)   { setHover(cellAt(e.getX(), e.getY())); }
+            @Override public void mouseDragged(MouseEvent e) { setHover(cellAt(e.getX(), e.getY())); }
+            @Override public void mouseExited(MouseEvent e)  { setHover(-1); }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (!isEnabled()) return;
+                int i = cellAt(e.getX(), e.getY());
+                if (i < 0) return;
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    pressed = i;
+                    repaintCell(i);
+                }
+                if (listener != null) listener.cellPressed(i / cols, i % cols, e);
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (pressed < 0) return;
+                int was = pressed;
+                pressed = -1;
+                repaintCell(was);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+
+        // tile sprites are rendered for one size
+        addComponentListener(new ComponentAdapter() {
+            @Override public void componentResized(ComponentEvent e) { TileSpriteCache.getInstance().invalidate(); }
+        });
+    }
+
+    public int rows() { return rows; }
+    public int cols() { return cols; }
+
+    public void setCellListener(CellListener l) {
+        this.listener = l;
+    }
+
+    /**
+     * Updates one cell; repaints its rectangle only if something changed
+     */
+    public void setCell(int r, int c, String s, Color baseColor, Color textColor) {
+        int i = r * cols + c;
+        if (Objects.equals(text[i], s) && Objects.equals(base[i], baseColor) && Objects.equals(fg[i], textColor)) {
+            return;
+        }
+        text[i] = s;
+        base[i] = baseColor;
+        fg[i] = textColor;
+        repaintCell(i);
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        if (enabled == isEnabled()) return;
+        super.setEnabled(enabled);
+        if (!enabled) {
+            hover = -1;
+            pressed = -1;
+        }
+        repaint();
+    }
+
+    // ============================================================
+    // Geometry
+    // ============================================================
+
+    private int tileW() { return Math.max(1, (getWidth() - (cols - 1) * GAP) / cols); }
+    private int tileH() { return Math.max(1, (getHeight() - (rows - 1) * GAP) / rows); }
+
+    /** Leftover pixels are split around the grid, as GridLayout does */
+    private int originX() { return (getWidth() - (tileW() * cols + (cols - 1) * GAP)) / 2; }
+    private int originY() { return (getHeight() - (tileH() * rows + (rows - 1) * GAP)) / 2; }
+
+    /** return the rectangle of a cell in component coordinates */
+    public Rectangle cellBounds(int r, int c) {
+        int w = tileW(), h = tileH();
+        return new Rectangle(originX() + c * (w + GAP), originY() + r * (h + GAP), w, h);
+    }
+
+    /** return cell index under the point, or -1 (outside the grid or in a gap) */
+    private int cellAt(int x, int y) {
+        int w = tileW(), h = tileH();
+        int dx = x - originX(), dy = y - originY();
+        if (dx < 0 || dy < 0) return -1;
+        int c = dx / (w + GAP), r = dy / (h + GAP);
+        if (c >= cols || r >= rows) return -1;
+        if (dx % (w + GAP) >= w || dy % (h + GAP) >= h) return -1;
+        return r * cols + c;
+    }
+
+    private void repaintCell(int i) {
+        if (i < 0) return;
+        Rectangle b = cellBounds(i / cols, i % cols);
+        repaint(b.x, b.y, b.width, b.height);
+    }
+
+    private void setHover(int i) {
+        if (!isEnabled()) i = -1;
+        if (i == hover) return;
+        int was = hover;
+        hover = i;
+        repaintCell(was);
+        repaintCell(i);
+    }
+
+    // ============================================================
+    // Effects
+    // ============================================================
+
+    /** Mine explosion: ring, flash and particles over the cell */
+    public void startExplosion(int r, int c) {
+        int i = r * cols + c;
+        explosionT[i] = 0f;
+        explosionStart[i] = AnimationClock.now();
+        for (int k = 0; k < PCOUNT; k++) {
+            float ang = (float) (rnd.nextFloat() * Math.PI * 2);
+            float sp = 0.9f + rnd.nextFloat() * 2.0f;
+            pvx[i * PCOUNT + k] = (float) Math.cos(ang) * sp;
+            pvy[i * PCOUNT + k] = (float) Math.sin(ang) * sp;
+        }
+        animate(i);
+    }
+
+    /** Surprise sparkle: fading aura and small stars over the cell */
+    public void startSparkle(int r, int c) {
+        int i = r * cols + c;
+        sparkleT[i] = 0f;
+        sparkleStart[i] = AnimationClock.now();
+        // keep away from edges so it looks nicer
+        for (int k = 0; k < SCOUNT; k++) {
+            sx[i * SCOUNT + k] = 0.18f + rnd.nextFloat() * 0.64f;
+            sy[i * SCOUNT + k] = 0.18f + rnd.nextFloat() * 0.64f;
+            ss[i * SCOUNT + k] = 0.10f + rnd.nextFloat() * 0.18f;
+        }
+        animate(i);
+    }
+
+    private void animate(int i) {
+        animating.set(i);
+        repaintCell(i);
+        AnimationClock.getInstance().start(effects);
+    }
+
+    private boolean tickEffects(long now) {
+        AnimationClock clock = AnimationClock.getInstance();
+        for (int i = animating.nextSetBit(0); i >= 0; i = animating.nextSetBit(i + 1)) {
+            if (explosionT[i] < 1f) explosionT[i] = Math.min(1f, (now - explosionStart[i]) / (float) EXPLOSION_MS);
+            if (sparkleT[i] < 1f) sparkleT[i] = Math.min(1f, (now - sparkleStart[i]) / (float) SPARKLE_MS);
+            if (explosionT[i] >= 1f && sparkleT[i] >= 1f) animating.clear(i);
+
+            Rectangle b = cellBounds(i / cols, i % cols);
+            clock.markDirty(this, b.x, b.y, b.width, b.height);
+        }
+        return !animating.isEmpty();
+    }
+
+    /** Stops all running effects (window closing) */
+    public void stopEffects() {
+        AnimationClock.getInstance().stop(effects);
+        animating.clear();
+        Arrays.fill(explosionT, 1f);
+        Arrays.fill(sparkleT, 1f);
+    }
+
+    // ============================================================
+    // Painting
+    // ============================================================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        int w = tileW(), h = tileH();
+        int ox = originX(), oy = originY();
+
+        // only cells that intersect the dirty area
+        int c0 = Math.max(0, (clip.x - ox) / (w + GAP));
+        int r0 = Math.max(0, (clip.y - oy) / (h + GAP));
+        int c1 = Math.min(cols - 1, (clip.x + clip.width - ox) / (w + GAP));
+        int r1 = Math.min(rows - 1, (clip.y + clip.height - oy) / (h + GAP));
+
+        boolean enabled = isEnabled();
+        Graphics2D g2 = (Graphics2D) g;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int i = r * cols + c;
+                int x = ox + c * (w + GAP), y = oy + r * (h + GAP);
+                paintTile(g2, i, x, y, w, h, enabled);
+                paintText(g2, i, x, y, w, h, enabled);
+
+                if (sparkleT[i] >= 1f && explosionT[i] >= 1f) continue;
+
+                Graphics2D t = (Graphics2D) g.create(x, y, w, h);
+                try {
+                    if (sparkleT[i] < 1f) paintSparkles(t, i, w, h);
+                    if (explosionT[i] < 1f) paintExplosion(t, i, w, h);
+                } finally {
+                    t.dispose();
+                }
+            }
+        }
+    }
+
+    private void paintTile(Graphics2D g2, int i, int x, int y, int w, int h, boolean enabled) {
+        int state = !enabled ? TileSpriteCache.DISABLED
+                : i == pressed ? TileSpriteCache.PRESSED
+                : i == hover ? TileSpriteCache.HOVER
+                : TileSpriteCache.NORMAL;
+        TileSpriteCache.getInstance().draw(g2, base[i], state, x, y, w, h);
+    }
+
+    private void paintText(Graphics2D g2, int i, int x, int y, int w, int h, boolean enabled) {
+        GlyphAtlas.getInstance().draw(g2, text[i], getFont(), enabled ? fg[i] : DISABLED_TEXT, x, y, w, h);
+    }
+
+    private void paintSparkles(Graphics2D fx, int i, int w, int h) {
+        fx = (Graphics2D) fx.create();
+        fx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        float t = sparkleT[i];     // 0..1
+        float inv = 1f - t;
+
+        // Glow aura that fades out
+        float aura = (Math.min(w, h) * 0.12f) + (Math.min(w, h) * 0.25f) * (float) Math.sin(Math.PI * t);
+        fx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.55f * inv));
+        fx.setColor(new Color(255, 245, 190)); // warm sparkle
+        fx.fill(new Ellipse2D.Float(w / 2f - aura, h / 2f - aura, aura * 2, aura * 2));
+
+        // Sparkles (small stars)
+        fx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.min(1f, 0.90f * inv)));
+        fx.setStroke(new BasicStroke(Math.max(1.5f, Math.min(w, h) / 22f), BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        fx.setColor(new Color(255, 255, 230, (int) (230 * inv)));
+
+        for (int k = 0; k < SCOUNT; k++) {
+            float cx = sx[i * SCOUNT + k] * w;
+            float cy = sy[i * SCOUNT + k] * h;
+
+            float size = ss[i * SCOUNT + k] * Math.min(w, h);
+            float pulse = 0.55f + 0.45f * (float) Math.sin((t * 6f + k) * 1.1f);
+            float s = size * pulse;
+
+            // draw a 4-point sparkle (plus + x)
+            fx.drawLine((int) (cx - s), (int) cy, (int) (cx + s), (int) cy);
+            fx.drawLine((int) cx, (int) (cy - s), (int) cx, (int) (cy + s));
+            fx.drawLine((int) (cx - s * 0.75f), (int) (cy - s * 0.75f), (int) (cx + s * 0.75f), (int) (cy + s * 0.75f));
+            fx.drawLine((int) (cx - s * 0.75f), (int) (cy + s * 0.75f), (int) (cx + s * 0.75f), (int) (cy - s * 0.75f));
+        }
+        fx.dispose();
+    }
+
+    private void paintExplosion(Graphics2D fx, int i, int w, int h) {
+        fx = (Graphics2D) fx.create();
+        fx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        float t = explosionT[i];        // 0..1
+        float inv = 1f - t;
+
+        float cx = w / 2f;
+        float cy = h / 2f;
+
+        float min = Math.min(w, h);
+        float radius = (min * 0.10f) + (min * 0.70f) * t;
+
+        fx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.min(1f, 0.95f * inv)));
+
+        // outer ring
+        fx.setStroke(new BasicStroke(Math.max(2f, min / 16f)));
+        fx.setColor(new Color(255, 170, 60, (int) (220 * inv)));
+        fx.draw(new Ellipse2D.Float(cx - radius, cy - radius, radius * 2, radius * 2));
+
+        // inner flash
+        fx.setColor(new Color(255, 240, 200, (int) (180 * inv)));
+        fx.fill(new Ellipse2D.Float(cx - radius * 0.55f, cy - radius * 0.55f, radius * 1.1f, radius * 1.1f));
+
+        // particles
+        for (int k = 0; k < PCOUNT; k++) {
+            float sxp = cx + pvx[i * PCOUNT + k] * (t * (min * 0.75f));
+            float syp = cy + pvy[i * PCOUNT + k] * (t * (min * 0.75f));
+            float pr = 2.5f + (1f - t) * 3.0f;
+
+            Color pc = (k % 2 == 0)
+                    ? new Color(255, 210, 90, (int) (200 * inv))
+                    : new Color(255, 90, 60, (int) (200 * inv));
+
+            fx.setColor(pc);
+            fx.fill(new Ellipse2D.Float(sxp - pr, syp - pr, pr * 2, pr * 2));
+        }
+        fx.dispose();
+    }
+}
@@ -0,0 +1,209 @@
+package view;
+
+import util.EdtWatchdog;
+import util.UiMetrics;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diagnostics overlay for BaseGameFrame windows (EDT only)
+ * F12 toggles it in every open window, Ctrl+F12 dumps the histograms to
+ * diagnostics-yyyyMMdd-HHmmss.txt in the working directory
+ *
+ * While it is on, a RepaintManager that times each paint pass is installed and
+ * UiMetrics measures EDT latency and MatchController actions. The overlay
+ * refreshes every REFRESH_MS; its own repaint counts as a paint pass too
+ */
+public final class DiagnosticsOverlay extends JComponent {
+
+    private static final int REFRESH_MS = 500;
+    private static final String KEY = DiagnosticsOverlay.class.getName();
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 13);
+    private static final Color BG = new Color(0, 0, 0, 190);
+    private static final Color FG = new Color(140, 255, 170);
+
+    /** RepaintManager that was current before the timing one */
+    private static RepaintManager previousManager;
+
+    private final Timer refresh = new Timer(REFRESH_MS, e -> update());
+    private String[] lines = new String[0];
+    private long lastFrames;
+    private long lastSampleNs;
+    private double repaintsPerSec;
+
+    private DiagnosticsOverlay() {
+        setOpaque(false);
+        setFont(FONT);
+    }
+
+    /**
+     * Registers F12 / Ctrl+F12 on the frame and shows the overlay if
+     * diagnostics are already on
+     */
+    static void install(JFrame frame) {
+        JRootPane root = frame.getRootPane();
+        InputMap im = root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        ActionMap am = root.getActionMap();
+
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F12, 0), "diagnostics.toggle");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_F12, InputEvent.CTRL_DOWN_MASK), "diagnostics.dump");
+        am.put("diagnostics.toggle", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggle();
+            }
+        });
+        am.put("diagnostics.dump", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                dump(frame);
+            }
+        });
+
+        if (UiMetrics.isEnabled()) attach(frame);
+    }
+
+    private static void toggle() {
+        boolean on = !UiMetrics.isEnabled();
+        UiMetrics.setEnabled(on);
+
+        if (on) {
+            previousManager = RepaintManager.currentManager((Component) null);
+            RepaintManager.setCurrentManager(new TimingRepaintManager());
+        } else if (previousManager != null) {
+            RepaintManager.setCurrentManager(previousManager);
+            previousManager = null;
+        }
+
+        for (Frame f : Frame.getFrames()) {
+            if (!(f instanceof BaseGameFrame frame) || !f.isDisplayable()) continue;
+            if (on) attach(frame);
+            else detach(frame);
+        }
+    }
+
+    private static void attach(JFrame frame) {
+        JRootPane root = frame.getRootPane();
+        if (root.getClientProperty(KEY) != null) return;
+
+        DiagnosticsOverlay o = new DiagnosticsOverlay();
+        root.putClientProperty(KEY, o);
+        frame.getLayeredPane().add(o, JLayeredPane.DRAG_LAYER);
+        o.update();
+    }
+
+    private static void detach(JFrame frame) {
+        JRootPane root = frame.getRootPane();
+        if (!(root.getClientProperty(KEY) instanceof DiagnosticsOverlay o)) return;
+        root.putClientProperty(KEY, null);
+        JLayeredPane pane = frame.getLayeredPane();
+        Rectangle r = o.getBounds();
+        pane.remove(o);
+        pane.repaint(r);
+    }
+
+    private static void dump(JFrame frame) {
+        if (!UiMetrics.isEnabled()) {
+            Toast.show(frame, "Diagnostics are off (F12)");
+            return;
+        }
+        String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = Paths.get("diagnostics-" + time + ".txt");
+        try {
+            UiMetrics.dump(file);
+            Toast.show(frame, "Diagnostics written to " + file.toAbsolutePath());
+        } catch (IOException ex) {
+            Toast.show(frame, "Could not write diagnostics: " + ex.getMessage());
+        }
+    }
+
+    // ============================================================
+    // Display
+    // ============================================================
+
+    /** Refreshes only while the window exists (a disposed frame stops it) */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        lastSampleNs = System.nanoTime();
+        lastFrames = UiMetrics.frameCount();
+        refresh.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refresh.stop();
+        super.removeNotify();
+    }
+
+    private void update() {
+        long now = System.nanoTime();
+        long frames = UiMetrics.frameCount();
+        double secs = (now - lastSampleNs) / 1e9;
+        if (secs > 0) repaintsPerSec = (frames - lastFrames) / secs;
+        lastFrames = frames;
+        lastSampleNs = now;
+
+        List<String> l = new ArrayList<>();
+        l.add("DIAGNOSTICS  (F12 hide, Ctrl+F12 dump)");
+        l.add(String.format("frame     %s", UiMetrics.FRAME.summary()));
+        l.add(String.format("repaints  %.1f /s", repaintsPerSec));
+        l.add(String.format("anims     %d active", AnimationClock.getInstance().activeCount()));
+        l.add(String.format("EDT lag   %s", UiMetrics.EDT_LATENCY.summary()));
+        l.add(String.format("stalls    %d  (last %d ms, see edt-stalls.log)",
+                EdtWatchdog.stallCount(), EdtWatchdog.lastStallMs()));
+        for (UiMetrics.Histogram h : UiMetrics.actions()) {
+            l.add(String.format("%-9s %s", h.name(), h.summary()));
+        }
+        lines = l.toArray(new String[0]);
+
+        FontMetrics fm = getFontMetrics(getFont());
+        int w = 0;
+        for (String s : lines) w = Math.max(w, fm.stringWidth(s));
+        setBounds(10, 10, w + 20, lines.length * fm.getHeight() + 16);
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(BG);
+            g2.fillRoundRect(0, 0, getWidth(), getHeight(), 12, 12);
+
+            g2.setColor(FG);
+            g2.setFont(getFont());
+            FontMetrics fm = g2.getFontMetrics();
+            int y = 8 + fm.getAscent();
+            for (String s : lines) {
+                g2.drawString(s, 10, y);
+                y += fm.getHeight();
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    /** Times every paint pass (one pass paints all dirty regions of all windows) */
+    private static final class TimingRepaintManager extends RepaintManager {
+        @Override
+        public void paintDirtyRegions() {
+            long t0 = System.nanoTime();
+            super.paintDirtyRegions();
+            UiMetrics.frame(System.nanoTime() - t0);
+        }
+    }
+}
@@ -17,11 +17,7 @@ public class EndView extends BaseGameFrame {
             throw new IllegalArgumentException("AppController must not be null");
         }
 
-        Image bgImage = GameAssets.END_BACKGROUND != null
-                ? GameAssets.END_BACKGROUND
-                : GameAssets.MAIN_BACKGROUND;
-
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.END));
         bgPanel.setLayout(new BorderLayout());
         setContentPane(bgPanel);
 
@@ -112,11 +108,13 @@ public class EndView extends BaseGameFrame {
         centerPanel.add(createDarkPillValue(score), gc);
 
         // GIF SECTION
+        // only the one shown GIF is loaded; the label stays empty until it is decoded
         JLabel gifLabel = new JLabel();
-        ImageIcon gifIcon = pickRandomGif(won ? GameAssets.WIN_GIFS : GameAssets.LOSE_GIFS);
-        if (gifIcon != null) {
-            gifLabel.setIcon(gifIcon);
-        }
+        GameAssets.endGif(won).thenAccept(img -> SwingUtilities.invokeLater(() -> {
+            if (img == null) return;
+            gifLabel.setIcon(new ImageIcon(img));
+            centerPanel.revalidate();
+        }));
 
         GridBagConstraints gcGif = new GridBagConstraints();
         gcGif.gridx = 2; gcGif.gridy = 0; gcGif.gridheight = 5;
@@ -173,27 +171,6 @@ public class EndView extends BaseGameFrame {
 
     private String safe(Object o) { return (o == null) ? "-" : o.toString(); }
 
-    private ImageIcon pickRandomGif(ImageIcon[] gifs) {
-        if (gifs == null || gifs.length == 0) return null;
-        int idx = (int) (Math.random() * gifs.length);
-        return gifs[idx];
-    }
-
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
-        BackgroundPanel(Image bg) { this.bg = bg; }
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (bg != null) {
-                double scale = Math.max((double) getWidth() / bg.getWidth(null), (double) getHeight() / bg.getHeight(null));
-                int dW = (int) (bg.getWidth(null) * scale);
-                int dH = (int) (bg.getHeight(null) * scale);
-                g.drawImage(bg, (getWidth() - dW) / 2, (getHeight() - dH) / 2, dW, dH, this);
-            }
-        }
-    }
-
     private static class ButtonStyled extends JButton {
         private final Color baseFill  = new Color(20, 24, 32, 235);
         private final Color borderClr = UIStyles.ACCENT;
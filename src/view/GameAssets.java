@@ -1,34 +1,54 @@
 package view;
 
+import model.AppSettings;
+import util.EdtWatchdog;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.io.*;
 import java.net.URL;
-import java.util.Properties;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * GameAssets
  * - Loads assets from classpath (JAR) or filesystem (IDE).
- * - Loads animated GIFs as ImageIcon ONLY (no scaling) so they stay animated.
+ * - Loads animated GIFs as toolkit images ONLY (no scaling) so they stay animated.
+ *
+ * Images are decoded lazily on background threads: callers get a future and show
+ * a placeholder until it completes. Backgrounds are subsampled on decode to the
+ * largest screen (they are only ever drawn screen-sized), and decoded images are
+ * kept in a cache bounded by CACHE_BYTES. Screens call preload(...) for what the
+ * next screen shows, so it is usually ready when that screen opens
  */
 public final class GameAssets {
 
     // =====================================================================
     // ICON
     // =====================================================================
-    public static final Image GAME_ICON = loadImageAny("assets/Icon/bomb2.png");
+    public static final Image GAME_ICON = loadIcon("assets/Icon/bomb2.png");
 
     // =====================================================================
     // THEME
     // =====================================================================
-    private static final String THEME_FILE = "theme.properties";
-    private static final String KEY_BG = "backgroundKey"; // BG1/BG2/BG3
     private static final String BASIC_FILE = "BasicBack.png";
     private static final String MATCH_FILE = "MatchBack.png";
     private static final String RECT_FILE  = "RectangleBack.png";
 
+    /** Screens with a themed background */
+    public enum Screen { MAIN, HISTORY, GAME, MATCH, END, PERSON }
+
     // =====================================================================
-    // GIFS 
+    // GIFS
     // =====================================================================
     public static final String[] WIN_GIF_PATHS = {
             "assets/EndGameGifs/win1.gif",
@@ -44,98 +64,112 @@ public final class GameAssets {
             "assets/EndGameGifs/lose4.gif"
     };
 
-    public static final ImageIcon[] WIN_GIFS;
-    public static final ImageIcon[] LOSE_GIFS;
+    /** GIF picked by preloadEndScreen for the next EndView, index 0 = lose, 1 = win */
+    private static final String[] nextEndGif = new String[2];
 
     // =====================================================================
-    // BACKGROUNDS 
+    // CACHE
     // =====================================================================
-    public static Image MAIN_BACKGROUND;
-    public static Image HISTORY_BACKGROUND;
-    public static Image GAME_BACKGROUND;
-    public static Image MATCH_BACKGROUND;
-    public static Image END_BACKGROUND;
 
-    public static Image PERSON_BACKGROUND;
+    /** Decoded images kept around (a subsampled background is about 8-10 MB) */
+    private static final long CACHE_BYTES = 48L << 20;
+
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "asset-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Entry {
+        final CompletableFuture<Image> image;
+        long bytes; // 0 until decoded
+
+        Entry(CompletableFuture<Image> image) { this.image = image; }
+    }
+
+    /** path -> image, least recently used first */
+    private static final Map<String, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes = 0;
+
+    private GameAssets() { }
 
     // =====================================================================
-    // STATIC INIT
+    // PUBLIC ASSET API
     // =====================================================================
-    static {
-        // Load GIFs 
-        WIN_GIFS  = loadGifArray(WIN_GIF_PATHS);
-        LOSE_GIFS = loadGifArray(LOSE_GIF_PATHS);
 
-        // Load theme backgrounds 
-        reloadThemeBackgrounds();
+    /** Background of a screen in the current theme (null result if no file exists) */
+    public static CompletableFuture<Image> background(Screen screen) {
+        return themeBackground(loadBackgroundKey(), screen);
     }
 
-    private GameAssets() { }
+    /** Background of a screen in the given theme (BG1/BG2/BG3) */
+    public static CompletableFuture<Image> themeBackground(String key, Screen screen) {
+        String baseFolder = "assets/Background" + parseThemeNumber(key) + "/";
+        String basic = baseFolder + BASIC_FILE;
+        String match = baseFolder + MATCH_FILE;
+        String rect  = baseFolder + RECT_FILE;
+
+        // screen -> file, then the fallbacks if that file is missing
+        return switch (screen) {
+            case GAME  -> firstOf(rect, basic);
+            case MATCH -> firstOf(match, basic, rect);
+            default    -> firstOf(basic, rect);
+        };
+    }
+
+    /** Starts loading the backgrounds of the given screens */
+    public static void preload(Screen... screens) {
+        for (Screen s : screens) background(s);
+    }
+
+    /**
+     * Starts loading what EndView shows for this result: its background and the
+     * one GIF it will pick
+     */
+    public static synchronized void preloadEndScreen(boolean won) {
+        preload(Screen.END);
+        image(pickEndGif(won));
+    }
+
+    /** One random win / lose GIF (the preloaded one, if any) */
+    public static synchronized CompletableFuture<Image> endGif(boolean won) {
+        String path = pickEndGif(won);
+        nextEndGif[won ? 1 : 0] = null;
+        return image(path);
+    }
+
+    private static String pickEndGif(boolean won) {
+        int i = won ? 1 : 0;
+        if (nextEndGif[i] == null) {
+            String[] paths = won ? WIN_GIF_PATHS : LOSE_GIF_PATHS;
+            nextEndGif[i] = paths[(int) (Math.random() * paths.length)];
+        }
+        return nextEndGif[i];
+    }
 
     // =====================================================================
     // PUBLIC THEME API
     // =====================================================================
 
-    /** Read backgroundKey from theme.properties (BG1/BG2/BG3). */
+    /** Current background theme key (BG1/BG2/BG3), see AppSettings.BACKGROUND */
     public static String loadBackgroundKey() {
-        Properties p = new Properties();
-        try (FileInputStream fis = new FileInputStream(THEME_FILE)) {
-            p.load(fis);
-            String v = p.getProperty(KEY_BG, "BG1");
-            return (v == null || v.trim().isEmpty()) ? "BG1" : v.trim();
-        } catch (Exception ignore) {
-            return "BG1";
-        }
+        return AppSettings.getInstance().get(AppSettings.BACKGROUND);
     }
 
-    /** Save backgroundKey to theme.properties. */
+    /** Stores the background theme key (written to theme.properties in the background) */
     public static void saveBackgroundKey(String key) {
         if (key == null || key.trim().isEmpty()) return;
-
-        Properties p = new Properties();
-        try (FileInputStream fis = new FileInputStream(THEME_FILE)) {
-            p.load(fis);
-        } catch (Exception ignore) { }
-
-        p.setProperty(KEY_BG, key.trim());
-
-        try (FileOutputStream fos = new FileOutputStream(THEME_FILE)) {
-            p.store(fos, "Theme settings");
-        } catch (Exception ex) {
-            System.err.println("[ASSETS] Failed saving theme: " + ex.getMessage());
-        }
+        AppSettings.getInstance().set(AppSettings.BACKGROUND, key.trim());
     }
 
     /**
-     * Reload themed backgrounds according to theme.properties.
-     * Call this after saveBackgroundKey(...) to apply immediately.
+     * Applies a theme change: backgrounds are looked up per call with the current
+     * key, so this only drops scaled copies of the old theme and preloads the main
+     * menu background of the new one
      */
-    public static synchronized void reloadThemeBackgrounds() {
-        String key = loadBackgroundKey();       // BG1/BG2/BG3
-        String n = parseThemeNumber(key);       // "1"/"2"/"3"
-        String baseFolder = "assets/Background" + n + "/";
-
-        System.out.println("[ASSETS] Background theme: " + key + " -> " + baseFolder);
-
-        Image basic = loadImageOnce(baseFolder + BASIC_FILE);
-        Image match = loadImageOnce(baseFolder + MATCH_FILE);
-        Image rect  = loadImageOnce(baseFolder + RECT_FILE);
-
-        // Mapping you requested:
-        MAIN_BACKGROUND    = basic;
-        HISTORY_BACKGROUND = basic;
-        GAME_BACKGROUND    = rect;  
-        PERSON_BACKGROUND  = basic;
-        MATCH_BACKGROUND   = match;
-        END_BACKGROUND     = basic;
-
-        // Fallbacks if something missing
-        if (MAIN_BACKGROUND == null) MAIN_BACKGROUND = rect;
-        if (HISTORY_BACKGROUND == null) HISTORY_BACKGROUND = MAIN_BACKGROUND;
-        if (GAME_BACKGROUND == null) GAME_BACKGROUND = MAIN_BACKGROUND;
-        if (PERSON_BACKGROUND == null) PERSON_BACKGROUND = MAIN_BACKGROUND;
-        if (MATCH_BACKGROUND == null) MATCH_BACKGROUND = MAIN_BACKGROUND;
-        if (END_BACKGROUND == null) END_BACKGROUND = MAIN_BACKGROUND;
+    public static void reloadThemeBackgrounds() {
+        BackgroundRenderer.getInstance().invalidate();
+        preload(Screen.MAIN);
     }
 
     private static String parseThemeNumber(String key) {
@@ -148,95 +182,127 @@ public final class GameAssets {
         return "1";
     }
 
+    // =====================================================================
+    // CACHE
+    // =====================================================================
+
+    /** The image at path, decoded once on a loader thread (null result if missing) */
+    private static synchronized CompletableFuture<Image> image(String path) {
+        Entry e = cache.get(path);
+        if (e == null) {
+            Entry entry = new Entry(CompletableFuture.supplyAsync(() -> decode(path), LOADER));
+            cache.put(path, entry);
+            entry.image.thenAccept(img -> loaded(entry, img));
+            e = entry;
+        }
+        return e.image;
+    }
+
+    /** The first of the paths that exists */
+    private static CompletableFuture<Image> firstOf(String... paths) {
+        CompletableFuture<Image> f = image(paths[0]);
+        for (int i = 1; i < paths.length; i++) {
+            String next = paths[i];
+            f = f.thenCompose(img -> img != null ? CompletableFuture.completedFuture(img) : image(next));
+        }
+        return f;
+    }
+
+    private static synchronized void loaded(Entry entry, Image img) {
+        if (img == null || !cache.containsValue(entry)) return;
+        entry.bytes = 4L * Math.max(0, img.getWidth(null)) * Math.max(0, img.getHeight(null));
+        cachedBytes += entry.bytes;
+
+        // drop least recently used decoded images (views that still show them keep them)
+        Iterator<Entry> it = cache.values().iterator();
+        while (cachedBytes > CACHE_BYTES && it.hasNext()) {
+            Entry old = it.next();
+            if (old == entry || !old.image.isDone()) continue;
+            cachedBytes -= old.bytes;
+            it.remove();
+        }
+    }
+
     // =====================================================================
     // IMAGE LOADING
     // =====================================================================
 
-    /** Quick icon-like loader (classpath first then filesystem). */
-    private static Image loadImageAny(String path) {
+    /** Classpath first, then filesystem; null if the asset does not exist */
+    private static URL locate(String path) {
         try {
             URL cp = GameAssets.class.getClassLoader().getResource(path);
             if (cp == null) cp = GameAssets.class.getResource("/" + path);
-            if (cp != null) {
-                System.out.println("[ASSETS] Loaded IMG from CLASSPATH: " + path);
-                return new ImageIcon(cp).getImage();
-            }
+            if (cp != null) return cp;
 
             File f = new File(path.startsWith("/") ? path.substring(1) : path);
-            System.out.println("[ASSETS] Trying IMG FS: " + f.getAbsolutePath());
-            if (f.exists()) {
-                System.out.println("[ASSETS] Loaded IMG from FILESYSTEM: " + f.getAbsolutePath());
-                return new ImageIcon(f.getAbsolutePath()).getImage();
-            }
+            if (f.exists()) return f.toURI().toURL();
         } catch (Exception e) {
             System.err.println("[ASSETS] IMG load error: " + path + " -> " + e.getMessage());
         }
-        System.err.println("[ASSETS] IMG NOT FOUND: " + path);
         return null;
     }
 
-    /** Background loader (classpath first then filesystem). */
-    private static Image loadImageOnce(String path) {
+    /** Small images needed right away (window icon) */
+    private static Image loadIcon(String path) {
+        EdtWatchdog.Task t = EdtWatchdog.task("GameAssets.loadIcon");
         try {
-            URL cp = GameAssets.class.getClassLoader().getResource(path);
-            if (cp == null) cp = GameAssets.class.getResource("/" + path);
-
-            if (cp != null) {
-                System.out.println("[ASSETS] Loaded IMG from CLASSPATH: " + path);
-                return new ImageIcon(cp).getImage();
-            }
-
-            File file = new File(path.startsWith("/") ? path.substring(1) : path);
-            System.out.println("[ASSETS] Trying IMG FS: " + file.getAbsolutePath());
-            if (file.exists()) {
-                System.out.println("[ASSETS] Loaded IMG from FILESYSTEM: " + file.getAbsolutePath());
-                return new ImageIcon(file.getAbsolutePath()).getImage();
+            URL url = locate(path);
+            if (url == null) {
+                System.err.println("[ASSETS] IMG NOT FOUND: " + path);
+                return null;
             }
+            return new ImageIcon(url).getImage();
+        } finally {
+            t.close();
+        }
+    }
 
+    /**
+     * Decodes on a loader thread: GIFs through the toolkit (keeps the animation),
+     * everything else with ImageIO, subsampled to no less than the screen size
+     */
+    private static Image decode(String path) {
+        URL url = locate(path);
+        if (url == null) {
             System.err.println("[ASSETS] IMG NOT FOUND: " + path);
-        } catch (Exception e) {
-            System.err.println("[ASSETS] IMG load error: " + path);
-            e.printStackTrace();
+            return null;
+        }
+        if (path.endsWith(".gif")) {
+            return new ImageIcon(url).getImage();
         }
-        return null;
-    }
 
-    // =====================================================================
-    // GIF LOADING 
-    // =====================================================================
-    private static ImageIcon[] loadGifArray(String[] paths) {
-        ImageIcon[] icons = new ImageIcon[paths.length];
+        try (InputStream raw = url.openStream();
+             ImageInputStream in = ImageIO.createImageInputStream(raw)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return new ImageIcon(url).getImage();
 
-        for (int i = 0; i < paths.length; i++) {
-            String path = paths[i];
+            ImageReader reader = readers.next();
             try {
-                ImageIcon icon = null;
-
-                URL cp = GameAssets.class.getClassLoader().getResource(path);
-                if (cp == null) cp = GameAssets.class.getResource("/" + path);
-
-                if (cp != null) {
-                    System.out.println("[ASSETS] GIF from CLASSPATH: " + path);
-                    icon = new ImageIcon(cp);
-                } else {
-                    File file = new File(path.startsWith("/") ? path.substring(1) : path);
-                    System.out.println("[ASSETS] GIF trying FS: " + file.getAbsolutePath());
-                    if (file.exists()) {
-                        System.out.println("[ASSETS] GIF from FILESYSTEM: " + file.getAbsolutePath());
-                        icon = new ImageIcon(file.getAbsolutePath());
-                    } else {
-                        System.err.println("[ASSETS] GIF NOT FOUND: " + path);
-                    }
-                }
-
-                icons[i] = icon;
-
-            } catch (Exception e) {
-                System.err.println("[ASSETS] Error loading GIF: " + path);
-                e.printStackTrace();
-                icons[i] = null;
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = subsampling(reader.getWidth(0), reader.getHeight(0));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
             }
+        } catch (Exception e) {
+            System.err.println("[ASSETS] IMG load error: " + path + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Largest step that still leaves the image at least as big as every screen */
+    private static int subsampling(int w, int h) {
+        if (GraphicsEnvironment.isHeadless()) return 1;
+        int screenW = 1, screenH = 1;
+        for (GraphicsDevice d : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+            GraphicsConfiguration gc = d.getDefaultConfiguration();
+            Rectangle b = gc.getBounds();
+            AffineTransform tx = gc.getDefaultTransform();
+            screenW = Math.max(screenW, (int) Math.ceil(b.width * tx.getScaleX()));
+            screenH = Math.max(screenH, (int) Math.ceil(b.height * tx.getScaleY()));
         }
-        return icons;
+        return Math.max(1, Math.min(w / screenW, h / screenH));
     }
 }
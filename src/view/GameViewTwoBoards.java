@@ -3,12 +3,13 @@ package view;
 import controller.AppController;
 import controller.MatchController;
 import model.MatchListener;
+import model.MatchReplay;
 import model.MatchSnapshot;
 import model.SysData;
+import util.EdtWatchdog;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.List;
  * - Show HUD information (names, lives, points, timer, active player, difficulty)
  * - Forward user actions (left/right click) to MatchController
  * - React to model updates using the Observer pattern (MatchListener -> MatchSnapshot)
+ * - Play back a recorded match at 1x-64x when given a replay controller
  */
 public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, MatchListener {
 
@@ -42,7 +44,11 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
     private final JPanel board1 = new JPanel();
     private final JPanel board2 = new JPanel();
 
-    private CellButton[][] btn1, btn2;
+    private BoardCanvas canvas1, canvas2;
+
+    // Tile colors of revealed plain cells
+    private static final Color REVEALED_P1 = new Color(50, 65, 120);
+    private static final Color REVEALED_P2 = new Color(60, 110, 80);
 
     private Timer timer;
     private boolean endSequenceStarted = false;
@@ -60,19 +66,32 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
     // -------------------------
     private String[][] prevG1 = null;
     private String[][] prevG2 = null;
+    private boolean[] usedP1;
+    private boolean[] usedP2;
 
     private boolean lossBombCascadeStarted = false;
-    private Timer bombCascadeTimer = null;
+    private static final int CASCADE_STEP_MS = 120;
+    private AnimationClock.Animation bombCascade = null;
+
+    // -------------------------
+    // Replay playback (ctrl.isReplay())
+    // -------------------------
+    private static final int[] SPEEDS = {1, 2, 4, 8, 16, 32, 64};
+    private final AnimationClock.Animation playback = this::tickPlayback;
+    private long playbackClockMs = 0;
+    private long playbackLastTick = 0;
+    private int playbackSpeed = 1;
+    private boolean playbackPaused = false;
 
     public GameViewTwoBoards(MatchController ctrl, AppController app) {
-        super(app, "Minesweeper - Match");
+        super(app, ctrl.isReplay() ? "Minesweeper - Replay" : "Minesweeper - Match");
         this.ctrl = ctrl;
         this.app  = app;
 
         ctrl.setQuestionUI(this);
         ctrl.addMatchListener(this);
 
-        BackgroundPanel bg = new BackgroundPanel(GameAssets.MATCH_BACKGROUND);
+        BackgroundPanel bg = new BackgroundPanel(GameAssets.background(GameAssets.Screen.MATCH));
         bg.setLayout(new BorderLayout(8, 8));
         setContentPane(bg);
 
@@ -88,6 +107,7 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         JPanel row1 = new JPanel(new BorderLayout());
         row1.setOpaque(false);
         row1.add(lblDifficulty, BorderLayout.WEST);
+        if (ctrl.isReplay()) row1.add(buildPlaybackBar(), BorderLayout.EAST);
 
         UIStyles.styleHudLabel(lblLives);
         UIStyles.styleHudLabel(lblPoints);
@@ -108,10 +128,14 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
 
         back.addActionListener(e -> {
             if (timer != null) timer.stop();
+            AnimationClock.getInstance().stop(playback);
+            ctrl.saveNow(); // resumable from the main menu
             ctrl.removeMatchListener(this);
 
             // stop cascade timer if running
-            if (bombCascadeTimer != null) bombCascadeTimer.stop();
+            if (bombCascade != null) AnimationClock.getInstance().stop(bombCascade);
+            canvas1.stopEffects();
+            canvas2.stopEffects();
 
             dispose();
             if (app != null) app.showMainMenu();
@@ -214,11 +238,15 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
 
         buildBoards();
 
-        timer = new Timer(1000, e -> {
-            lblTimer.setText("Time: " + UIStyles.formatTimeMMSS(ctrl.getElapsedSeconds()));
-            lblDifficulty.setText("Difficulty: " + ctrl.getDiff());
-        });
-        timer.start();
+        if (ctrl.isReplay()) {
+            startPlayback();
+        } else {
+            timer = new Timer(1000, e -> {
+                lblTimer.setText("Time: " + UIStyles.formatTimeMMSS(ctrl.getElapsedSeconds()));
+                lblDifficulty.setText("Difficulty: " + ctrl.getDiff());
+            });
+            timer.start();
+        }
 
         Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
         setSize(screen.width, screen.height);
@@ -237,58 +265,37 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
 
     private void buildBoards() {
         int R = ctrl.rows(), C = ctrl.cols();
-        btn1 = new CellButton[R][C];
-        btn2 = new CellButton[R][C];
 
-        board1.setLayout(new GridLayout(R, C, 6, 6));
-        board2.setLayout(new GridLayout(R, C, 6, 6));
+        canvas1 = new BoardCanvas(R, C, CellStyle.P1_BASE);
+        canvas2 = new BoardCanvas(R, C, CellStyle.P2_BASE);
+        usedP1 = new boolean[R * C];
+        usedP2 = new boolean[R * C];
+
+        canvas1.setCellListener((r, c, e) -> {
+            if (!ctrl.isPlayer1Active()) return;
+            handleClick(0, r, c, e);
+        });
+        canvas2.setCellListener((r, c, e) -> {
+            if (ctrl.isPlayer1Active()) return;
+            handleClick(1, r, c, e);
+        });
+
+        board1.setLayout(new BorderLayout());
+        board2.setLayout(new BorderLayout());
         board1.removeAll();
         board2.removeAll();
-
-        Dimension cellSize = new Dimension(44, 44);
-
-        for (int r = 0; r < R; r++) {
-            for (int c = 0; c < C; c++) {
-                CellButton a = new CellButton("·", CellStyle.P1_BASE);
-                CellButton b = new CellButton("·", CellStyle.P2_BASE);
-                a.setPreferredSize(cellSize);
-                b.setPreferredSize(cellSize);
-
-                final int rr = r, cc = c;
-
-                a.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mousePressed(MouseEvent e) {
-                        if (!ctrl.isPlayer1Active()) return;
-                        handleClick(0, rr, cc, e);
-                    }
-                });
-
-                b.addMouseListener(new MouseAdapter() {
-                    @Override
-                    public void mousePressed(MouseEvent e) {
-                        if (ctrl.isPlayer1Active()) return;
-                        handleClick(1, rr, cc, e);
-                    }
-                });
-
-                btn1[r][c] = a;
-                btn2[r][c] = b;
-
-                board1.add(a);
-                board2.add(b);
-            }
-        }
+        board1.add(canvas1, BorderLayout.CENTER);
+        board2.add(canvas2, BorderLayout.CENTER);
 
         board1.revalidate();
         board2.revalidate();
-        board1.repaint();
-        board2.repaint();
     }
 
     private void handleClick(int playerIdx, int r, int c, MouseEvent e) {
+        if (ctrl.isReplay()) return;
+
         if (ctrl.isQuestionUsed(playerIdx, r, c) || ctrl.isSurpriseUsed(playerIdx, r, c)) {
-            Toast.show(this, "Cell Already Chosen!");
+            Toast.show(this, "Cell Already Chosen!", Toast.HINT);
             return;
         }
 
@@ -298,7 +305,7 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         }
 
         if (ctrl.isFlagged(playerIdx, r, c)) {
-            Toast.show(this, "Remove flag first (Right-click) to reveal.");
+            Toast.show(this, "Remove flag first (Right-click) to reveal.", Toast.HINT);
             return;
         }
 
@@ -361,122 +368,103 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         String[][] g1 = s.boardP1();
         String[][] g2 = s.boardP2();
 
-        // ---- Player 1 board refresh + mine explosions ----
-        for (int r = 0; r < g1.length; r++) {
-            for (int c = 0; c < g1[0].length; c++) {
-                CellButton btn = btn1[r][c];
-                String sym = g1[r][c];
-                btn.setText(sym);
-                
+        // ---- Board refresh + mine explosions (changed cells only) ----
+        refreshBoard(canvas1, 0, g1, prevG1, usedP1, REVEALED_P1);
+        refreshBoard(canvas2, 1, g2, prevG2, usedP2, REVEALED_P2);
 
-                // Trigger explosion if mine becomes visible now (transition)
-                String old = (prevG1 == null) ? null : prevG1[r][c];
-                if (isMineSymbol(sym) && !isMineSymbol(old)) {
-                    btn.startExplosion();
-                }
-                if (isSurpriseSymbol(sym) && !isSurpriseSymbol(old)) {
-                    btn.startSparkle();
-                }
+        // Snapshot grids are built fresh per publish and never modified,
+        // so keeping the references is enough for transition detection
+        prevG1 = g1;
+        prevG2 = g2;
 
-                boolean isUsed = ctrl.isQuestionUsed(0, r, c) || ctrl.isSurpriseUsed(0, r, c);
+        canvas1.setEnabled(finished || p1Active);
+        canvas2.setEnabled(finished || !p1Active);
+
+        // If loss: explode all bombs one after another
+        if (finished && s.lives() == 0 && !lossBombCascadeStarted) {
+            lossBombCascadeStarted = true;
+            startLossBombCascade(g1, g2);
+        }
+
+    }
+
+    /**
+     * Updates the cells of one board that differ from the previous snapshot
+     * Only question / surprise cells can become "used" without a symbol change,
+     * so they are the only unchanged cells that are looked at again
+     */
+    private void refreshBoard(BoardCanvas canvas, int playerIdx, String[][] g, String[][] prev,
+                              boolean[] used, Color revealedColor) {
+        int cols = g[0].length;
+        for (int r = 0; r < g.length; r++) {
+            for (int c = 0; c < cols; c++) {
+                String sym = g[r][c];
+                String old = (prev == null) ? null : prev[r][c];
 
                 boolean isQuestion = sym.equals("❓") || sym.equals("?");
                 boolean isSurprise = sym.equals("🎁");
-                boolean isSpecialPending = (isQuestion || isSurprise) && !isUsed;
+                boolean changed = !sym.equals(old);
+                if (!changed && !isQuestion && !isSurprise) continue;
 
-                if (isUsed) {
-                    btn.setBaseColor(CellStyle.USED);
-                    btn.setForeground(Color.WHITE);
-                } else if (!sym.equals("·") && !isSpecialPending) {
-                    btn.setBaseColor(new Color(50, 65, 120));
-                    btn.setForeground(CellStyle.textColorForSymbol(sym));
-                } else {
-                    btn.setBaseColor(CellStyle.colorForSymbol(sym, 0));
-                    btn.setForeground(CellStyle.textColorForSymbol(sym));
-                }
-            }
-        }
+                boolean isUsed = (isQuestion && ctrl.isQuestionUsed(playerIdx, r, c))
+                        || (isSurprise && ctrl.isSurpriseUsed(playerIdx, r, c));
+                int i = r * cols + c;
+                if (!changed && isUsed == used[i]) continue;
+                used[i] = isUsed;
 
-        // ---- Player 2 board refresh + mine explosions ----
-        for (int r = 0; r < g2.length; r++) {
-            for (int c = 0; c < g2[0].length; c++) {
-                CellButton btn = btn2[r][c];
-                String sym = g2[r][c];
-                btn.setText(sym);
-
-                String old = (prevG2 == null) ? null : prevG2[r][c];
+                // Trigger explosion if mine becomes visible now (transition)
                 if (isMineSymbol(sym) && !isMineSymbol(old)) {
-                    btn.startExplosion();
+                    canvas.startExplosion(r, c);
                 }
                 if (isSurpriseSymbol(sym) && !isSurpriseSymbol(old)) {
-                    btn.startSparkle();
+                    canvas.startSparkle(r, c);
                 }
 
-                boolean isUsed = ctrl.isQuestionUsed(1, r, c) || ctrl.isSurpriseUsed(1, r, c);
-
-                boolean isQuestion = sym.equals("❓") || sym.equals("?");
-                boolean isSurprise = sym.equals("🎁");
                 boolean isSpecialPending = (isQuestion || isSurprise) && !isUsed;
 
                 if (isUsed) {
-                    btn.setBaseColor(CellStyle.USED);
-                    btn.setForeground(Color.WHITE);
+                    canvas.setCell(r, c, sym, CellStyle.USED, Color.WHITE);
                 } else if (!sym.equals("·") && !isSpecialPending) {
-                    btn.setBaseColor(new Color(60, 110, 80));
-                    btn.setForeground(CellStyle.textColorForSymbol(sym));
+                    canvas.setCell(r, c, sym, revealedColor, CellStyle.textColorForSymbol(sym));
                 } else {
-                    btn.setBaseColor(CellStyle.colorForSymbol(sym, 1));
-                    btn.setForeground(CellStyle.textColorForSymbol(sym));
+                    canvas.setCell(r, c, sym, CellStyle.colorForSymbol(sym, playerIdx), CellStyle.textColorForSymbol(sym));
                 }
             }
         }
-
-        // Save current snapshot grids for transition detection next time
-        prevG1 = copyGrid(g1);
-        prevG2 = copyGrid(g2);
-
-        setPanelEnabled(board1, finished || p1Active);
-        setPanelEnabled(board2, finished || !p1Active);
-
-        // If loss: explode all bombs one after another
-        if (finished && s.lives() == 0 && !lossBombCascadeStarted) {
-            lossBombCascadeStarted = true;
-            startLossBombCascade(g1, g2);
-        }
-
-        repaint();
     }
 
     private void startLossBombCascade(String[][] g1, String[][] g2) {
-        List<CellButton> bombs = new ArrayList<>();
+        // {board, row, col}
+        List<int[]> bombs = new ArrayList<>();
 
         for (int r = 0; r < g1.length; r++) {
             for (int c = 0; c < g1[0].length; c++) {
-                if (isMineSymbol(g1[r][c])) bombs.add(btn1[r][c]);
+                if (isMineSymbol(g1[r][c])) bombs.add(new int[]{0, r, c});
             }
         }
         for (int r = 0; r < g2.length; r++) {
             for (int c = 0; c < g2[0].length; c++) {
-                if (isMineSymbol(g2[r][c])) bombs.add(btn2[r][c]);
+                if (isMineSymbol(g2[r][c])) bombs.add(new int[]{1, r, c});
             }
         }
 
         if (bombs.isEmpty()) return;
 
-        final int[] idx = {0};
+        AnimationClock clock = AnimationClock.getInstance();
+        if (bombCascade != null) clock.stop(bombCascade);
 
-        if (bombCascadeTimer != null) bombCascadeTimer.stop();
+        // one bomb every CASCADE_STEP_MS, starting one step from now
+        long start = AnimationClock.now();
+        final int[] idx = {0};
 
-        bombCascadeTimer = new Timer(120, e -> {
-            if (idx[0] >= bombs.size()) {
-                bombCascadeTimer.stop();
-                return;
+        bombCascade = now -> {
+            while (idx[0] < bombs.size() && now - start >= (idx[0] + 1L) * CASCADE_STEP_MS) {
+                int[] b = bombs.get(idx[0]++);
+                (b[0] == 0 ? canvas1 : canvas2).startExplosion(b[1], b[2]);
             }
-            bombs.get(idx[0]).startExplosion();
-            idx[0]++;
-        });
-        bombCascadeTimer.setRepeats(true);
-        bombCascadeTimer.start();
+            return idx[0] < bombs.size();
+        };
+        clock.start(bombCascade);
     }
 
     private static boolean isMineSymbol(String sym) {
@@ -492,23 +480,6 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         return sym.trim().equals("🎁");
     }
 
-    private static String[][] copyGrid(String[][] g) {
-        if (g == null) return null;
-        String[][] out = new String[g.length][];
-        for (int i = 0; i < g.length; i++) {
-            out[i] = new String[g[i].length];
-            System.arraycopy(g[i], 0, out[i], 0, g[i].length);
-        }
-        return out;
-    }
-
-    private static void setPanelEnabled(Container p, boolean enabled) {
-        for (Component c : p.getComponents()) {
-            c.setEnabled(enabled);
-            if (c instanceof Container cc) setPanelEnabled(cc, enabled);
-        }
-    }
-
     private void endCheck(MatchSnapshot s) {
         if (!s.finished()) return;
         if (endSequenceStarted) return;
@@ -516,11 +487,24 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
 
         if (timer != null) timer.stop();
 
+        if (ctrl.isReplay()) {
+            // keep the final boards on screen; "Back to Main" leaves
+            AnimationClock.getInstance().stop(playback);
+            Toast.show(this, "Replay finished");
+            return;
+        }
+
+        // decode the end screen's background and GIF during the delay
+        SysData.GameRecord result = ctrl.getLastRecord();
+        if (result != null) GameAssets.preloadEndScreen(result.won);
+
         Timer delay = new Timer(2_000, e -> {
             ctrl.removeMatchListener(this);
 
             // stop cascade timer if running
-            if (bombCascadeTimer != null) bombCascadeTimer.stop();
+            if (bombCascade != null) AnimationClock.getInstance().stop(bombCascade);
+            canvas1.stopEffects();
+            canvas2.stopEffects();
 
             dispose();
 
@@ -533,12 +517,69 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         delay.start();
     }
 
+    // -------------------------
+    // Replay playback
+    // -------------------------
+
+    private JPanel buildPlaybackBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        bar.setOpaque(false);
+
+        JLabel lbl = new JLabel("Replay speed:");
+        UIStyles.styleHudLabel(lbl);
+
+        String[] labels = new String[SPEEDS.length];
+        for (int i = 0; i < SPEEDS.length; i++) labels[i] = SPEEDS[i] + "x";
+        JComboBox<String> speedBox = new JComboBox<>(labels);
+        speedBox.setFont(UIStyles.HUD_FONT_SMALL);
+        speedBox.setFocusable(false);
+        speedBox.addActionListener(e -> playbackSpeed = SPEEDS[speedBox.getSelectedIndex()]);
+
+        BaseGameFrame.RoundedButton pause = new BaseGameFrame.RoundedButton("Pause", 140, 44, 18);
+        pause.addActionListener(e -> {
+            playbackPaused = !playbackPaused;
+            pause.setText(playbackPaused ? "Play" : "Pause");
+            if (playbackPaused) AnimationClock.getInstance().stop(playback);
+            else if (ctrl.hasNextAction()) startPlayback();
+        });
+
+        bar.add(lbl);
+        bar.add(speedBox);
+        bar.add(pause);
+        return bar;
+    }
+
+    /** Applies recorded actions as the playback clock (real time * speed) passes them */
+    private void startPlayback() {
+        playbackLastTick = AnimationClock.now();
+        AnimationClock.getInstance().start(playback);
+    }
+
+    private boolean tickPlayback(long now) {
+        playbackClockMs += (now - playbackLastTick) * playbackSpeed;
+        playbackLastTick = now;
+
+        while (ctrl.hasNextAction() && ctrl.nextActionAtMs() <= playbackClockMs) {
+            int kind = ctrl.stepReplay();
+            if (kind == MatchReplay.QUESTION || kind == MatchReplay.SURPRISE) showLastInteractionToast();
+        }
+        lblTimer.setText("Time: " + UIStyles.formatTimeMMSS(playbackClockMs / 1000));
+
+        return ctrl.hasNextAction();
+    }
+
     @Override
     public int ask(QuestionDTO q) {
         JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(this);
         int correct = ctrl.getLastQuestionCorrectIndex();
-        QuestionDialog dialog = new QuestionDialog(owner, q, correct);
-        return dialog.showDialog();
+        // modal: nested events keep running, so a stall while it is open is tagged with it
+        EdtWatchdog.Task t = EdtWatchdog.task("QuestionDialog");
+        try {
+            QuestionDialog dialog = new QuestionDialog(owner, q, correct);
+            return dialog.showDialog();
+        } finally {
+            t.close();
+        }
     }
 
     @Override
@@ -552,6 +593,13 @@ public class GameViewTwoBoards extends BaseGameFrame implements QuestionUI, Matc
         return res == JOptionPane.OK_OPTION;
     }
 
+    /** Closing the window keeps the match resumable */
+    @Override
+    protected void confirmExit() {
+        ctrl.saveNow();
+        super.confirmExit();
+    }
+
     @Override
     public void showSelf() {
         setLocationRelativeTo(null);
@@ -0,0 +1,235 @@
+package view;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * GlyphAtlas (Singleton, EDT only)
+ * Cell symbols (digits, 💣, 🚩, 🎁, ?, ·) rasterized once per font, color and scale
+ * factor into one shared image; BoardCanvas copies them from there instead of
+ * running font fallback and text layout on every paint
+ *
+ * Emoji the cell font cannot display are taken from an installed emoji font; if
+ * there is none, the known board symbols are drawn as simple vector icons, and any
+ * other text is rasterized with the cell font as before
+ *
+ * Glyphs are packed in shelves; when the atlas is full it is cleared and refilled
+ * on demand (only happens after many font / color / scale combinations)
+ */
+public final class GlyphAtlas {
+
+    private static final int ATLAS_SIZE = 512;
+    private static final int PAD = 1;
+
+    /** Tried in order for symbols the cell font cannot display */
+    private static final String[] EMOJI_FAMILIES = {
+            "Segoe UI Emoji", "Apple Color Emoji", "Noto Color Emoji", "Noto Emoji", "Symbola"
+    };
+
+    private record Key(String text, Font font, int argb, int scalePct) {}
+
+    /** Slot in the atlas, in device pixels, plus the logical box it stands for */
+    private record Glyph(int sx, int sy, int sw, int sh, float width, float height) {}
+
+    private static GlyphAtlas INSTANCE;
+
+    public static GlyphAtlas getInstance() {
+        if (INSTANCE == null) INSTANCE = new GlyphAtlas();
+        return INSTANCE;
+    }
+
+    private final BufferedImage atlas = new BufferedImage(ATLAS_SIZE, ATLAS_SIZE, BufferedImage.TYPE_INT_ARGB);
+    private final Map<Key, Glyph> glyphs = new HashMap<>();
+
+    // shelf packing
+    private int shelfX = 0, shelfY = 0, shelfH = 0;
+
+    /** Installed font families (read on first use) */
+    private Set<String> installed;
+
+    private GlyphAtlas() {}
+
+    /**
+     * Draws the text centered in the box (same placement as centered button text)
+     */
+    public void draw(Graphics2D g, String text, Font font, Color color, int x, int y, int w, int h) {
+        if (text == null || text.isEmpty()) return;
+        double scale = g.getTransform().getScaleX();
+        Glyph gl = glyph(text, font, color, scale);
+
+        float dx = x + (w - gl.width) / 2f;
+        float dy = y + (h - gl.height) / 2f;
+        int x0 = Math.round(dx), y0 = Math.round(dy);
+        g.drawImage(atlas,
+                x0, y0, x0 + Math.round(gl.width), y0 + Math.round(gl.height),
+                gl.sx, gl.sy, gl.sx + gl.sw, gl.sy + gl.sh, null);
+    }
+
+    /** Drops all glyphs (e.g. after a font change) */
+    public void clear() {
+        glyphs.clear();
+        Graphics2D g = atlas.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, ATLAS_SIZE, ATLAS_SIZE);
+        g.dispose();
+        shelfX = shelfY = shelfH = 0;
+    }
+
+    private Glyph glyph(String text, Font font, Color color, double scale) {
+        Key key = new Key(text, font, color.getRGB(), (int) Math.round(scale * 100));
+        Glyph gl = glyphs.get(key);
+        if (gl == null) {
+            gl = rasterize(text, font, color, scale);
+            glyphs.put(key, gl);
+        }
+        return gl;
+    }
+
+    // ============================================================
+    // Rasterizing
+    // ============================================================
+
+    private Glyph rasterize(String text, Font font, Color color, double scale) {
+        Font use = fontFor(text, font);
+        Graphics2D probe = atlas.createGraphics();
+        FontMetrics fm = probe.getFontMetrics(use != null ? use : font);
+        probe.dispose();
+
+        // logical box = advance x line height, baseline at the ascent (like button text);
+        // vector icons are square
+        float height = fm.getHeight();
+        float width = use == null ? height : Math.max(1, fm.stringWidth(text));
+        int sw = (int) Math.ceil(width * scale);
+        int sh = (int) Math.ceil(height * scale);
+
+        int[] slot = allocate(sw, sh);
+        if (slot == null) {
+            clear();
+            slot = allocate(sw, sh);
+            if (slot == null) throw new IllegalStateException("glyph larger than the atlas: " + text);
+        }
+
+        Graphics2D g = atlas.createGraphics();
+        try {
+            g.translate(slot[0], slot[1]);
+            g.clipRect(0, 0, sw, sh);
+            g.scale(scale, scale);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(color);
+
+            if (use == null) {
+                paintVector(g, text, color, width, height);
+            } else {
+                g.setFont(use);
+                g.drawString(text, 0, fm.getAscent());
+            }
+        } finally {
+            g.dispose();
+        }
+        return new Glyph(slot[0], slot[1], sw, sh, width, height);
+    }
+
+    /** return {x, y} of a free slot, or null if the atlas is full */
+    private int[] allocate(int w, int h) {
+        if (w + PAD > ATLAS_SIZE || h + PAD > ATLAS_SIZE) return null;
+        if (shelfX + w + PAD > ATLAS_SIZE) {
+            shelfY += shelfH;
+            shelfX = 0;
+            shelfH = 0;
+        }
+        if (shelfY + h + PAD > ATLAS_SIZE) return null;
+
+        int[] slot = {shelfX, shelfY};
+        shelfX += w + PAD;
+        shelfH = Math.max(shelfH, h + PAD);
+        return slot;
+    }
+
+    /**
+     * return the font to draw the text with: the cell font, else an installed emoji
+     * font, else null for a vector icon (known symbols only; others keep the cell font)
+     */
+    private Font fontFor(String text, Font font) {
+        if (font.canDisplayUpTo(text) == -1) return font;
+
+        for (String family : EMOJI_FAMILIES) {
+            if (!isInstalled(family)) continue;
+            Font f = new Font(family, Font.PLAIN, font.getSize());
+            if (f.canDisplayUpTo(text) == -1) return f;
+        }
+        return hasVector(text) ? null : font;
+    }
+
+    private boolean isInstalled(String family) {
+        if (installed == null) {
+            installed = new HashSet<>(Set.of(
+                    GraphicsEnvironment.getLocalGraphicsEnvironment().getAvailableFontFamilyNames()));
+        }
+        return installed.contains(family);
+    }
+
+    // ============================================================
+    // Vector fallback (no emoji font installed)
+    // ============================================================
+
+    private static boolean hasVector(String text) {
+        return switch (text) {
+            case "💣", "🚩", "🎁", "❓" -> true;
+            default -> false;
+        };
+    }
+
+    /** Simple icons in the box (w x h), sized like a glyph of the cell font */
+    private static void paintVector(Graphics2D g, String text, Color color, float w, float h) {
+        float s = Math.min(w, h) * 0.8f;
+        float cx = w / 2f, cy = h / 2f;
+
+        switch (text) {
+            case "💣" -> {
+                float r = s * 0.36f;
+                g.setColor(new Color(30, 30, 30));
+                g.fill(new Ellipse2D.Float(cx - r, cy - r + s * 0.06f, r * 2, r * 2));
+                g.setStroke(new BasicStroke(Math.max(1f, s / 12f)));
+                g.draw(new Line2D.Float(cx + r * 0.5f, cy - r * 0.6f, cx + r, cy - r * 1.2f));
+                g.setColor(new Color(255, 170, 40));
+                g.fill(new Ellipse2D.Float(cx + r * 0.85f, cy - r * 1.45f, s * 0.16f, s * 0.16f));
+            }
+            case "🚩" -> {
+                g.setStroke(new BasicStroke(Math.max(1f, s / 12f)));
+                g.setColor(new Color(60, 60, 60));
+                g.draw(new Line2D.Float(cx - s * 0.25f, cy - s * 0.45f, cx - s * 0.25f, cy + s * 0.45f));
+                Path2D flag = new Path2D.Float();
+                flag.moveTo(cx - s * 0.22f, cy - s * 0.45f);
+                flag.lineTo(cx + s * 0.35f, cy - s * 0.25f);
+                flag.lineTo(cx - s * 0.22f, cy - s * 0.02f);
+                flag.closePath();
+                g.setColor(new Color(220, 40, 50));
+                g.fill(flag);
+            }
+            case "🎁" -> {
+                float bw = s * 0.8f, bh = s * 0.6f;
+                g.setColor(new Color(200, 60, 160));
+                g.fill(new RoundRectangle2D.Float(cx - bw / 2, cy - bh / 2 + s * 0.1f, bw, bh, s * 0.1f, s * 0.1f));
+                g.setColor(new Color(255, 215, 80));
+                g.fill(new Rectangle2D.Float(cx - s * 0.06f, cy - bh / 2 - s * 0.05f, s * 0.12f, bh + s * 0.15f));
+                g.fill(new Rectangle2D.Float(cx - bw / 2, cy + s * 0.05f, bw, s * 0.1f));
+            }
+            default -> { // "❓"
+                g.setColor(color);
+                g.setFont(new Font("SansSerif", Font.BOLD, Math.round(h * 0.8f)));
+                FontMetrics fm = g.getFontMetrics();
+                g.drawString("?", cx - fm.stringWidth("?") / 2f, cy + fm.getAscent() / 2f - fm.getDescent() / 2f);
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.awt.geom.RoundRectangle2D;
  * - maxLives hearts are displayed (usually 10 in your model)
  * - setLives(newLives) updates the UI
  * - if lives decrease, the heart(s) animate breaking and then become empty
+ *   (driven by the shared AnimationClock)
  */
 public class HeartsPanel extends JPanel {
 
@@ -21,7 +22,9 @@ public class HeartsPanel extends JPanel {
     private final int maxLives;
 
     // if multiple lives are lost at once, animate them sequentially
-    private Timer multiLoseTimer;
+    private static final int MULTI_LOSE_STEP_MS = 60;
+    private final AnimationClock.Animation multiLose = this::tickMultiLose;
+    private long multiLoseNextAt;  // when the next heart breaks
     private int multiLoseIndex;   // which heart index we are animating now
     private int targetLivesAfter; // final lives after all animations
 
@@ -81,26 +84,23 @@ public class HeartsPanel extends JPanel {
     }
 
     private void startMultiLoseAnimation(int newLives) {
-        // stop any previous sequence
-        if (multiLoseTimer != null) {
-            multiLoseTimer.stop();
-            multiLoseTimer = null;
-        }
-
+        // a running sequence simply continues towards the new target
         targetLivesAfter = newLives;
 
         // first heart to break is the "last filled" one: lives-1
         multiLoseIndex = this.lives - 1;
 
-        multiLoseTimer = new Timer(60, e -> {
+        multiLoseNextAt = AnimationClock.now() + MULTI_LOSE_STEP_MS;
+        AnimationClock.getInstance().start(multiLose);
+    }
+
+    private boolean tickMultiLose(long now) {
+        while (now >= multiLoseNextAt) {
             if (multiLoseIndex < targetLivesAfter) {
                 // done animating all lost hearts
-                multiLoseTimer.stop();
-                multiLoseTimer = null;
-
                 this.lives = targetLivesAfter;
                 applyFillState();
-                return;
+                return false;
             }
 
             HeartComponent h = hearts[multiLoseIndex];
@@ -111,10 +111,9 @@ public class HeartsPanel extends JPanel {
             }
 
             multiLoseIndex--;
-        });
-
-        multiLoseTimer.setRepeats(true);
-        multiLoseTimer.start();
+            multiLoseNextAt += MULTI_LOSE_STEP_MS;
+        }
+        return true;
     }
 
     // ------------------------------------------------------------
@@ -133,9 +132,11 @@ public class HeartsPanel extends JPanel {
         private boolean filled = true;
 
         // animation state
+        private static final int BREAK_MS = 375;
         private boolean animating = false;
         private float t = 0f; // 0..1
-        private Timer animTimer;
+        private long breakStart;
+        private final AnimationClock.Animation breakAnim = this::tickBreak;
 
         HeartComponent() {
             setOpaque(false);
@@ -162,27 +163,19 @@ public class HeartsPanel extends JPanel {
 
             animating = true;
             t = 0f;
+            breakStart = AnimationClock.now();
+            AnimationClock.getInstance().start(breakAnim);
+        }
 
-            if (animTimer != null) animTimer.stop();
-
-            animTimer = new Timer(30, e -> {
-                t += 0.08f;
-                if (t >= 1f) {
-                    t = 1f;
-                    animTimer.stop();
-                    animTimer = null;
-
-                    // after break animation ends -> become empty
-                    filled = false;
-                    animating = false;
-                    repaint();
-                    return;
-                }
-                repaint();
-            });
+        private boolean tickBreak(long now) {
+            t = Math.min(1f, (now - breakStart) / (float) BREAK_MS);
+            AnimationClock.getInstance().markDirty(this);
+            if (t < 1f) return true;
 
-            animTimer.setRepeats(true);
-            animTimer.start();
+            // after break animation ends -> become empty
+            filled = false;
+            animating = false;
+            return false;
         }
 
         @Override
@@ -1,15 +1,26 @@
 package view;
 
 import controller.AppController;
+import model.DifficultyLevel;
+import model.HistoryArchive;
+import model.HistoryIndex;
+import model.HistorySource;
 import model.SysData;
-import model.SysData.GameRecord;
 
 import javax.swing.*;
-import javax.swing.table.AbstractTableModel;
-import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.JTableHeader;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * HistoryView
@@ -19,9 +30,12 @@ import java.util.List;
 public class HistoryView extends BaseGameFrame {
 
     private final JTable table;
-    private final HistoryTableModel model;
+    private final PagedHistoryModel model;
     private final SysData sys;
 
+    private static final Color WON_COLOR = new Color(0x00FF00);
+    private static final Color LOST_COLOR = new Color(0xFF4444);
+
     /**
      * Creates the Game History screen.
      */
@@ -30,8 +44,7 @@ public class HistoryView extends BaseGameFrame {
         this.sys = sys;
 
         // ===== Background =====
-        Image bgImage = GameAssets.HISTORY_BACKGROUND;
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.HISTORY));
         bgPanel.setLayout(new GridBagLayout());
         setContentPane(bgPanel);
 
@@ -51,34 +64,19 @@ public class HistoryView extends BaseGameFrame {
         bgPanel.add(title, gbc);
 
         // ===== Card panel  =====
-        JPanel card = new JPanel(new BorderLayout(10, 10)) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                        RenderingHints.VALUE_ANTIALIAS_ON);
-                g2.setColor(new Color(0, 0, 0, 180)); 
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 30, 30);
-                g2.dispose();
-            }
-        };
-        card.setOpaque(false);
-        card.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-        card.setPreferredSize(new Dimension(1150, 650));
+        JPanel card = UIStyles.dataCard(1150, 650);
 
         // ===== Table =====
-        model = new HistoryTableModel(sys.history());
+        model = new PagedHistoryModel(sys.liveHistory(), sys.ratings());
         table = new JTable(model);
         styleTable(table);
+        installHeaderSort();
 
-        JScrollPane scroll = new JScrollPane(table);
-        scroll.setBorder(BorderFactory.createEmptyBorder());
-        scroll.getViewport().setOpaque(true);
-        scroll.getViewport().setBackground(new Color(15, 18, 40));
+        JScrollPane scroll = UIStyles.dataScrollPane(table);
         scroll.setPreferredSize(new Dimension(1100, 520));
 
         card.add(scroll, BorderLayout.CENTER);
+        card.add(buildFilterBar(), BorderLayout.NORTH);
 
         // ===== Bottom bar =====
         JPanel bottomBar = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -90,6 +88,10 @@ public class HistoryView extends BaseGameFrame {
             app.showMainMenu();
         });
 
+        RoundedButton replayBtn = new RoundedButton("Watch Replay", 350, 75, 32);
+        replayBtn.addActionListener(e -> openReplay());
+
+        bottomBar.add(replayBtn);
         bottomBar.add(backBtn);
         card.add(bottomBar, BorderLayout.SOUTH);
 
@@ -99,146 +101,261 @@ public class HistoryView extends BaseGameFrame {
         gbc.fill = GridBagConstraints.BOTH;
         gbc.weighty = 1.0;
         bgPanel.add(card, gbc);
+
+        sys.addHistoryListener(historyListener);
     }
 
-    /**
-     * Applies visual styling to the history JTable (fonts, colors, header, row striping).
-     */
-    private void styleTable(JTable table) {
-        table.setFillsViewportHeight(true);
-        table.setRowHeight(34);
-        table.setFont(new Font("Segoe UI", Font.PLAIN, 16));
-
-        table.setForeground(Color.WHITE);
-        table.setBackground(new Color(15, 18, 40));
-        table.setGridColor(new Color(255, 255, 255, 40));
-        table.setShowHorizontalLines(true);
-        table.setShowVerticalLines(false);
-        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+    @Override
+    public void dispose() {
+        sys.removeHistoryListener(historyListener);
+        super.dispose();
+    }
 
-        JTableHeader header = table.getTableHeader();
-        header.setReorderingAllowed(false);
-        header.setPreferredSize(new Dimension(header.getPreferredSize().width, 44));
-        header.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        header.setForeground(Color.WHITE);
-        header.setBackground(new Color(30, 32, 70));
-        ((JComponent) header).setOpaque(true);
+    /** Plays back the selected match, if it was recorded */
+    private void openReplay() {
+        int row = table.getSelectedRow();
+        if (row < 0) {
+            StyledAlertDialog.show(this, "Replay", "Select a match in the table first.", false);
+            return;
+        }
+        SysData.GameRecord rec = model.recordAt(table.convertRowIndexToModel(row));
+        if (rec == null) {
+            StyledAlertDialog.show(this, "Replay", "This match was not recorded.", false);
+            return;
+        }
+        // replays.bin is read on a worker; the window only reacts if it is still open
+        CompletableFuture.supplyAsync(() -> sys.replayOf(rec)).thenAccept(replay -> SwingUtilities.invokeLater(() -> {
+            if (!isDisplayable()) return;
+            if (replay == null) {
+                StyledAlertDialog.show(this, "Replay", "This match was not recorded.", false);
+                return;
+            }
+            dispose();
+            app.openReplay(rec, replay);
+        }));
+    }
 
-        DefaultTableCellRenderer cellRenderer = new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(
-                    JTable tbl, Object value, boolean isSelected,
-                    boolean hasFocus, int row, int column) {
+    // ============================================================
+    // Filter bar
+    // ============================================================
 
-                Component c = super.getTableCellRendererComponent(
-                        tbl, value, isSelected, hasFocus, row, column);
+    private static final DateTimeFormatter DAY_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final Color FIELD_ERROR = new Color(255, 80, 80);
 
-                setHorizontalAlignment(CENTER);
-                setOpaque(true);
+    private JTextField nameField;
+    private JComboBox<String> levelBox;
+    private JComboBox<String> resultBox;
+    private JTextField fromField;
+    private JTextField toField;
+    private JLabel countLabel;
+    private JComboBox<String> sourceBox;
+    private List<Path> archives = List.of();
 
-                if (isSelected) {
-                    c.setBackground(new Color(80, 120, 255, 200));
-                } else {
-                    c.setBackground(row % 2 == 0
-                            ? new Color(25, 28, 60)
-                            : new Color(20, 22, 50));
-                }
-                c.setForeground(Color.WHITE);
+    /** Re-queries shortly after the last keystroke */
+    private final Timer filterDebounce = new Timer(150, e -> applyFilter());
 
-                return c;
-            }
-        };
+    private final Runnable historyListener = this::onHistoryChanged;
+
+    /** Live history changed (match finished, compaction): re-query if it is shown */
+    private void onHistoryChanged() {
+        SwingUtilities.invokeLater(() -> {
+            if (isDisplayable() && model.source() == sys.liveHistory()) applyFilter();
+        });
+    }
 
-        table.setDefaultRenderer(Object.class, cellRenderer);
+    private JPanel buildFilterBar() {
+        filterDebounce.setRepeats(false);
+
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        bar.setOpaque(false);
+
+        nameField = styledField(12);
+        String[] levels = new String[DifficultyLevel.values().length + 1];
+        levels[0] = "All levels";
+        for (DifficultyLevel d : DifficultyLevel.values()) levels[d.ordinal() + 1] = d.name();
+        levelBox = UIStyles.dataComboBox(levels, 15);
+        resultBox = UIStyles.dataComboBox(new String[]{"Won & lost", "Won", "Lost"}, 15);
+        fromField = styledField(8);
+        toField = styledField(8);
+        fromField.setToolTipText("yyyy-MM-dd");
+        toField.setToolTipText("yyyy-MM-dd");
+
+        archives = HistoryArchive.segments();
+        String[] sources = new String[archives.size() + 1];
+        sources[0] = "Recent games";
+        for (int i = 0; i < archives.size(); i++) {
+            String n = archives.get(i).getFileName().toString();
+            sources[i + 1] = "Archive " + n.replace("history-", "").replace(".csv.gz", "").replace('_', ' ');
+        }
+        sourceBox = UIStyles.dataComboBox(sources, 15);
+        sourceBox.setVisible(!archives.isEmpty());
+        sourceBox.addActionListener(e -> switchSource(sourceBox.getSelectedIndex()));
+
+        countLabel = new JLabel();
+        countLabel.setForeground(Color.WHITE);
+        countLabel.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+
+        bar.add(sourceBox);
+        bar.add(filterLabel("Player"));
+        bar.add(nameField);
+        bar.add(levelBox);
+        bar.add(resultBox);
+        bar.add(filterLabel("From"));
+        bar.add(fromField);
+        bar.add(filterLabel("To"));
+        bar.add(toField);
+        bar.add(countLabel);
+
+        DocumentListener onType = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e)  { filterDebounce.restart(); }
+            @Override public void removeUpdate(DocumentEvent e)  { filterDebounce.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { filterDebounce.restart(); }
+        };
+        nameField.getDocument().addDocumentListener(onType);
+        fromField.getDocument().addDocumentListener(onType);
+        toField.getDocument().addDocumentListener(onType);
+        levelBox.addActionListener(e -> applyFilter());
+        resultBox.addActionListener(e -> applyFilter());
+
+        updateCount();
+        return bar;
     }
 
     /**
-     * Table model that adapts GameRecord objects into rows and columns.
+     * Shows the live history (index 0) or an archive segment
+     * Segments are read on a worker thread the first time they are chosen
      */
-    private static class HistoryTableModel extends AbstractTableModel {
-        private final String[] cols = {
-                "Player 1", "Player 2", "Difficulty",
-                "Hearts", "Points", "Won?",
-                "Time (sec)", "Date Saved"
-        };
+    private void switchSource(int index) {
+        if (index <= 0) {
+            model.setSource(sys.liveHistory(), table);
+            applyFilter();
+            return;
+        }
 
-        private final List<GameRecord> data;
+        Path segment = archives.get(index - 1);
+        sourceBox.setEnabled(false);
+        countLabel.setText("Loading archive...");
 
-        HistoryTableModel(List<GameRecord> d) {
-            this.data = d;
-        }
+        SwingWorker<HistorySource, Void> worker = new SwingWorker<>() {
+            @Override
+            protected HistorySource doInBackground() throws Exception {
+                return HistoryArchive.open(segment);
+            }
 
-        @Override
-        public int getRowCount() { return data.size(); }
-
-        @Override
-        public int getColumnCount() { return cols.length; }
-
-        @Override
-        public String getColumnName(int c) { return cols[c]; }
-
-        @Override
-        public Object getValueAt(int row, int col) {
-            GameRecord r = data.get(row);
-            return switch (col) {
-                case 0 -> r.p1;
-                case 1 -> r.p2;
-                case 2 -> r.level.name();
-                case 3 -> r.hearts;
-                case 4 -> r.points;
-                // Keep the Win/Loss text colored (green/red) 
-                case 5 -> r.won
-                        ? "<html><div style='white-space:nowrap;'><b style='color:#00FF00;'>Won</b></div></html>"
-                        : "<html><span style='color:#FF4444;'>Lost</span></html>";
-                case 6 -> r.timeSec;
-                case 7 -> new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm")
-                        .format(new java.util.Date(r.timestamp));
-                default -> "";
-            };
-        }
+            @Override
+            protected void done() {
+                sourceBox.setEnabled(true);
+                try {
+                    model.setSource(get(), table);
+                    applyFilter();
+                } catch (Exception ex) {
+                    sourceBox.setSelectedIndex(0);
+                    StyledAlertDialog.show(HistoryView.this, "Archive",
+                            "Could not open " + segment.getFileName(), String.valueOf(ex.getCause()), true);
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /** Builds the filter from the bar and asks SysData's history index for the matching rows */
+    private void applyFilter() {
+        int lvl = levelBox.getSelectedIndex();
+        int res = resultBox.getSelectedIndex();
+        Long from = parseDay(fromField, false);
+        Long to = parseDay(toField, true);
+
+        HistoryIndex.Filter f = new HistoryIndex.Filter(
+                nameField.getText().trim(),
+                lvl <= 0 ? null : DifficultyLevel.values()[lvl - 1],
+                res <= 0 ? null : res == 1,
+                from,
+                to);
+
+        model.setFilter(model.source().find(f), table);
+        updateCount();
+    }
 
-        @Override
-        public boolean isCellEditable(int r, int c) { return false; }
+    private void updateCount() {
+        int total = model.source().size();
+        int shown = model.matchCount();
+        countLabel.setText(shown == total ? total + " games" : shown + " of " + total + " games");
     }
 
     /**
-     * Background panel that draws the configured background image scaled to cover the full window.
-     * If the image is missing, a gradient fallback is displayed.
+     * Reads a yyyy-MM-dd field as epoch millis (start of day, or end of day for the upper bound)
+     * return null when blank or invalid (invalid input is marked red)
      */
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
-
-        public BackgroundPanel(Image bg) {
-            this.bg = bg;
+    private static Long parseDay(JTextField field, boolean endOfDay) {
+        String text = field.getText().trim();
+        field.setForeground(Color.WHITE);
+        if (text.isEmpty()) return null;
+        try {
+            LocalDate day = LocalDate.parse(text, DAY_FMT);
+            ZonedDateTime t = endOfDay
+                    ? day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).minusNanos(1_000_000)
+                    : day.atStartOfDay(ZoneId.systemDefault());
+            return t.toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            field.setForeground(FIELD_ERROR);
+            return null;
         }
+    }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-
-            if (bg == null) {
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setPaint(new GradientPaint(
-                        0, 0, new Color(12, 12, 20),
-                        0, getHeight(), new Color(40, 40, 70)
-                ));
-                g2.fillRect(0, 0, getWidth(), getHeight());
-                return;
-            }
+    private static JLabel filterLabel(String text) {
+        JLabel l = new JLabel(text);
+        l.setForeground(Color.WHITE);
+        l.setFont(new Font("Segoe UI", Font.BOLD, 15));
+        return l;
+    }
 
-            int imgW = bg.getWidth(null);
-            int imgH = bg.getHeight(null);
-            int panelW = getWidth();
-            int panelH = getHeight();
-            if (imgW <= 0 || imgH <= 0) return;
+    private static JTextField styledField(int columns) {
+        JTextField f = new JTextField(columns);
+        f.setFont(new Font("Segoe UI", Font.PLAIN, 15));
+        f.setForeground(Color.WHITE);
+        f.setBackground(UIStyles.FIELD_BG);
+        f.setCaretColor(Color.WHITE);
+        f.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(255, 255, 255, 80)),
+                BorderFactory.createEmptyBorder(4, 6, 4, 6)));
+        return f;
+    }
+
+    /** Header click sorts by that column (see PagedHistoryModel.toggleSort) */
+    private void installHeaderSort() {
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewCol = table.columnAtPoint(e.getPoint());
+                if (viewCol < 0) return;
+                model.toggleSort(table.convertColumnIndexToModel(viewCol), table);
+            }
+        });
+    }
 
-            double scale = Math.max((double) panelW / imgW, (double) panelH / imgH);
-            int drawW = (int) (imgW * scale);
-            int drawH = (int) (imgH * scale);
-            int x = (panelW - drawW) / 2;
-            int y = (panelH - drawH) / 2;
+    /**
+     * Applies the shared data-table styling, with the Won column colored (green/red)
+     */
+    private void styleTable(JTable table) {
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        UIStyles.styleDataTable(table, new UIStyles.DataCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(
+                    JTable tbl, Object value, boolean isSelected,
+                    boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(
+                        tbl, value, isSelected, hasFocus, row, column);
+                if (column == PagedHistoryModel.COL_WON && PagedHistoryModel.WON.equals(value)) {
+                    c.setFont(tbl.getFont().deriveFont(Font.BOLD));
+                }
+                return c;
+            }
 
-            g.drawImage(bg, x, y, drawW, drawH, this);
-        }
+            @Override
+            protected Color foreground(Object value, int row, int column) {
+                if (column != PagedHistoryModel.COL_WON) return Color.WHITE;
+                return PagedHistoryModel.WON.equals(value) ? WON_COLOR : LOST_COLOR;
+            }
+        });
     }
 }
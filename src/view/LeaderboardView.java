@@ -0,0 +1,166 @@
+package view;
+
+import controller.AppController;
+import model.DifficultyLevel;
+import model.HistoryAggregates;
+import model.HistoryAggregates.Board;
+import model.HistoryAggregates.Ranked;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * LeaderboardView
+ * ===============
+ * Top players / pairs per difficulty, read from SysData's running aggregates
+ * (no history scan when the screen opens or a filter changes)
+ */
+public class LeaderboardView extends BaseGameFrame {
+
+    private static final String[] BOARD_NAMES = {"Best Score", "Most Wins", "Fastest Win"};
+
+    private final HistoryAggregates aggregates;
+    private final LeaderboardModel model = new LeaderboardModel();
+    private final JTable table = new JTable(model);
+
+    private final JComboBox<String> levelBox;
+    private final JComboBox<String> boardBox;
+    private final JComboBox<String> kindBox;
+
+    public LeaderboardView(AppController app, HistoryAggregates aggregates) {
+        super(app, "Leaderboard");
+        this.aggregates = aggregates;
+
+        // ===== Background =====
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.HISTORY));
+        bgPanel.setLayout(new GridBagLayout());
+        setContentPane(bgPanel);
+
+        // ===== Title =====
+        JLabel title = new JLabel("Leaderboard", SwingConstants.CENTER);
+        title.setFont(new Font("Segoe UI", Font.BOLD, 60));
+        title.setForeground(UIStyles.ACCENT);
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = 0;
+        gbc.weightx = 1.0;
+        gbc.anchor = GridBagConstraints.CENTER;
+        gbc.gridy = 0;
+        gbc.insets = new Insets(40, 0, 20, 0);
+        gbc.fill = GridBagConstraints.NONE;
+        bgPanel.add(title, gbc);
+
+        // ===== Card panel =====
+        JPanel card = UIStyles.dataCard(1000, 650);
+
+        // ===== Selectors =====
+        String[] levels = new String[DifficultyLevel.values().length];
+        for (DifficultyLevel d : DifficultyLevel.values()) levels[d.ordinal()] = d.name();
+        levelBox = UIStyles.dataComboBox(levels, 18);
+        boardBox = UIStyles.dataComboBox(BOARD_NAMES, 18);
+        kindBox = UIStyles.dataComboBox(new String[]{"Players", "Pairs"}, 18);
+
+        JPanel selectors = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 0));
+        selectors.setOpaque(false);
+        selectors.add(levelBox);
+        selectors.add(boardBox);
+        selectors.add(kindBox);
+        card.add(selectors, BorderLayout.NORTH);
+
+        levelBox.addActionListener(e -> refresh());
+        boardBox.addActionListener(e -> refresh());
+        kindBox.addActionListener(e -> refresh());
+
+        // ===== Table =====
+        // top three in the accent color
+        UIStyles.styleDataTable(table, new UIStyles.DataCellRenderer() {
+            @Override
+            protected Color foreground(Object value, int row, int column) {
+                return row < 3 ? UIStyles.ACCENT : Color.WHITE;
+            }
+        });
+        table.getColumnModel().getColumn(0).setPreferredWidth(60);
+        table.getColumnModel().getColumn(1).setPreferredWidth(320);
+
+        card.add(UIStyles.dataScrollPane(table), BorderLayout.CENTER);
+
+        // ===== Bottom bar =====
+        JPanel bottomBar = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        bottomBar.setOpaque(false);
+
+        RoundedButton backBtn = new RoundedButton("Back to Main", 350, 75, 32);
+        backBtn.addActionListener(e -> {
+            dispose();
+            app.showMainMenu();
+        });
+        bottomBar.add(backBtn);
+        card.add(bottomBar, BorderLayout.SOUTH);
+
+        gbc.gridy = 1;
+        gbc.insets = new Insets(0, 40, 50, 40);
+        gbc.fill = GridBagConstraints.BOTH;
+        gbc.weighty = 1.0;
+        bgPanel.add(card, gbc);
+
+        refresh();
+    }
+
+    private void refresh() {
+        DifficultyLevel level = DifficultyLevel.values()[levelBox.getSelectedIndex()];
+        Board board = Board.values()[boardBox.getSelectedIndex()];
+        boolean pairs = kindBox.getSelectedIndex() == 1;
+        model.show(aggregates.top(board, level, pairs), board);
+        table.getColumnModel().getColumn(2).setHeaderValue(model.getColumnName(2));
+        table.getTableHeader().repaint();
+    }
+
+    /**
+     * Rows of one leaderboard (at most HistoryAggregates.TOP_K)
+     */
+    private static class LeaderboardModel extends AbstractTableModel {
+        private final String[] cols = {"#", "Name", "Best Score", "Games", "Wins", "Win %"};
+        private List<Ranked> rows = List.of();
+        private Board board = Board.BEST_SCORE;
+
+        void show(List<Ranked> rows, Board board) {
+            this.rows = rows;
+            this.board = board;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() { return rows.size(); }
+
+        @Override
+        public int getColumnCount() { return cols.length; }
+
+        @Override
+        public String getColumnName(int c) {
+            if (c != 2) return cols[c];
+            return switch (board) {
+                case BEST_SCORE -> "Best Score";
+                case MOST_WINS -> "Wins";
+                case FASTEST_WIN -> "Fastest Win (sec)";
+            };
+        }
+
+        @Override
+        public Object getValueAt(int row, int col) {
+            Ranked r = rows.get(row);
+            return switch (col) {
+                case 0 -> row + 1;
+                case 1 -> r.name();
+                case 2 -> r.value();
+                case 3 -> r.games();
+                case 4 -> r.wins();
+                case 5 -> r.games() == 0 ? "-" : Math.round(100.0 * r.wins() / r.games()) + "%";
+                default -> "";
+            };
+        }
+
+        @Override
+        public boolean isCellEditable(int r, int c) { return false; }
+    }
+}
@@ -1,6 +1,7 @@
 package view;
 
 import controller.AppController;
+import model.MatchSave;
 import view.GameAssets;
 
 import javax.swing.*;
@@ -18,8 +19,7 @@ public class MainMenuView extends BaseGameFrame {
         super(app, "Minesweeper");
 
         // ---- background -----
-        Image bgImage = GameAssets.MAIN_BACKGROUND;
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.MAIN));
         bgPanel.setLayout(new GridBagLayout()); 
         setContentPane(bgPanel);
 
@@ -47,24 +47,35 @@ public class MainMenuView extends BaseGameFrame {
         buttonsPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         buttonsPanel.setMaximumSize(new Dimension(900, Integer.MAX_VALUE));
 
-        int gap = 30;
+        int gap = 22;
 
+        RoundedButton resumeBtn  = new RoundedButton("Resume Game", 700, 90, 50);
         RoundedButton newGameBtn = new RoundedButton("New Game", 700, 90, 50);
         RoundedButton historyBtn = new RoundedButton("Games History", 700, 90, 50);
+        RoundedButton leaderBtn  = new RoundedButton("Leaderboard", 700, 90, 50);
         RoundedButton qmanBtn    = new RoundedButton("Questions Management", 700, 90, 50);
         RoundedButton personalizationBtn = new RoundedButton("Personalization", 700, 90, 50);
         RoundedButton exitBtn    = new RoundedButton("Exit", 700, 90, 50);
 
+        resumeBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         newGameBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         historyBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
+        leaderBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         qmanBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         personalizationBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
         exitBtn.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        // only offered when a match was left unfinished
+        if (MatchSave.exists()) {
+            buttonsPanel.add(resumeBtn);
+            buttonsPanel.add(Box.createVerticalStrut(gap));
+        }
         buttonsPanel.add(newGameBtn);
         buttonsPanel.add(Box.createVerticalStrut(gap));
         buttonsPanel.add(historyBtn);
         buttonsPanel.add(Box.createVerticalStrut(gap));
+        buttonsPanel.add(leaderBtn);
+        buttonsPanel.add(Box.createVerticalStrut(gap));
         buttonsPanel.add(qmanBtn);
         buttonsPanel.add(Box.createVerticalStrut(gap));
         buttonsPanel.add(personalizationBtn);
@@ -106,6 +117,14 @@ public class MainMenuView extends BaseGameFrame {
         bgPanel.add(mainPanel, gbc);
 
         // ---- actions ----
+        resumeBtn.addActionListener(e -> {
+            if (app.resumeMatch()) {
+                dispose();
+            } else {
+                resumeBtn.setVisible(false);
+            }
+        });
+
         newGameBtn.addActionListener(e -> {
             app.openNewMatch();
             dispose();
@@ -116,6 +135,11 @@ public class MainMenuView extends BaseGameFrame {
             dispose();
         });
 
+        leaderBtn.addActionListener(e -> {
+            app.openLeaderboard();
+            dispose();
+        });
+
         qmanBtn.addActionListener(e -> {
             app.openQuestionManager();
             dispose();
@@ -127,43 +151,16 @@ public class MainMenuView extends BaseGameFrame {
         });
 
         exitBtn.addActionListener(e -> confirmExit());
-    }
-
-    // ---- background panel for this view ----
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
 
-        public BackgroundPanel(Image bg) {
-            this.bg = bg;
-        }
+        // most menu choices lead to the New Match screen; its background is the only other file
+        GameAssets.preload(GameAssets.Screen.GAME);
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-
-            if (bg == null) {
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setPaint(new GradientPaint(
-                        0, 0, new Color(12, 12, 20),
-                        0, getHeight(), new Color(40, 40, 70)
-                ));
-                g2.fillRect(0, 0, getWidth(), getHeight());
-                return;
+        // time-to-first-frame: logged once, after the opened window had its first paint pass
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowOpened(java.awt.event.WindowEvent e) {
+                SwingUtilities.invokeLater(util.StartupTimer::firstFrameShown);
             }
-
-            int imgW = bg.getWidth(null);
-            int imgH = bg.getHeight(null);
-            int panelW = getWidth();
-            int panelH = getHeight();
-            if (imgW <= 0 || imgH <= 0) return;
-
-            double scale = Math.max((double) panelW / imgW, (double) panelH / imgH);
-            int drawW = (int) (imgW * scale);
-            int drawH = (int) (imgH * scale);
-            int x = (panelW - drawW) / 2;
-            int y = (panelH - drawH) / 2;
-
-            g.drawImage(bg, x, y, drawW, drawH, this);
-        }
+        });
     }
 }
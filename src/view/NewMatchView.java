@@ -1,7 +1,11 @@
 package view;
 
 import controller.AppController;
+import model.RatingEngine;
+import model.SysData;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
@@ -12,6 +16,7 @@ import java.awt.event.MouseEvent;
  * - Lets the user enter Player 1 / Player 2 names
  * - Lets the user choose difficulty (Easy / Medium / Hard)
  * - Shows info about each difficulty (lives, mines, surprises, questions)
+ * - Shows the current rating of each player and of the pair while names are typed
  *
  * Validations on Start:
  * 1) Names cannot be empty
@@ -26,6 +31,12 @@ public class NewMatchView extends BaseGameFrame {
     private final JTextField p1 = new JTextField("Player A", 15);
     private final JTextField p2 = new JTextField("Player B", 15);
 
+    // ----- ratings (see RatingEngine) -----
+    private final JLabel p1RatingLabel   = new JLabel(" ");
+    private final JLabel p2RatingLabel   = new JLabel(" ");
+    private final JLabel pairRatingLabel = new JLabel(" ");
+    private RatingEngine ratings;
+
     // ----- difficulty buttons -----
     private final JButton easyBtn  = new JButton("Easy");
     private final JButton medBtn   = new JButton("Medium");
@@ -58,8 +69,7 @@ public class NewMatchView extends BaseGameFrame {
         }
 
         // ---- background ----
-        Image bgImage = GameAssets.GAME_BACKGROUND;
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.GAME));
         bgPanel.setLayout(new BorderLayout());
         setContentPane(bgPanel);
 
@@ -112,6 +122,9 @@ public class NewMatchView extends BaseGameFrame {
         styleTextField(p1);
         p1.setMaximumSize(new Dimension(500, 55));
         p1Col.add(p1);
+        p1Col.add(Box.createVerticalStrut(6));
+        styleRatingLabel(p1RatingLabel, 18);
+        p1Col.add(p1RatingLabel);
 
         JPanel p2Col = new JPanel();
         p2Col.setOpaque(false);
@@ -125,12 +138,18 @@ public class NewMatchView extends BaseGameFrame {
         styleTextField(p2);
         p2.setMaximumSize(new Dimension(500, 55));
         p2Col.add(p2);
+        p2Col.add(Box.createVerticalStrut(6));
+        styleRatingLabel(p2RatingLabel, 18);
+        p2Col.add(p2RatingLabel);
 
         playersRow.add(p1Col);
         playersRow.add(p2Col);
 
         center.add(playersRow);
-        center.add(Box.createVerticalStrut(40));
+        center.add(Box.createVerticalStrut(10));
+        styleRatingLabel(pairRatingLabel, 20);
+        center.add(pairRatingLabel);
+        center.add(Box.createVerticalStrut(30));
 
         // ----- Difficulty title -----
         JLabel diffTitle = new JLabel("Difficulty Level", SwingConstants.CENTER);
@@ -242,6 +261,53 @@ public class NewMatchView extends BaseGameFrame {
 
         // actions
         wireActions(startBtn, backBtn);
+
+        // ratings
+        initRatings();
+
+        // next screen is the match
+        GameAssets.preload(GameAssets.Screen.MATCH);
+    }
+
+    // ===================== ratings =====================
+
+    /** Ratings become available once history is loaded; labels follow the name fields */
+    private void initRatings() {
+        DocumentListener onChange = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e)  { refreshRatings(); }
+            @Override public void removeUpdate(DocumentEvent e)  { refreshRatings(); }
+            @Override public void changedUpdate(DocumentEvent e) { refreshRatings(); }
+        };
+        p1.getDocument().addDocumentListener(onChange);
+        p2.getDocument().addDocumentListener(onChange);
+
+        SysData sys = SysData.getInstance();
+        sys.historyLoaded().thenRun(() -> SwingUtilities.invokeLater(() -> {
+            ratings = sys.ratings();
+            refreshRatings();
+        }));
+    }
+
+    private void refreshRatings() {
+        if (ratings == null) return;
+        String n1 = p1.getText().trim();
+        String n2 = p2.getText().trim();
+
+        p1RatingLabel.setText(n1.isEmpty() ? " " : describe(ratings.player(n1)));
+        p2RatingLabel.setText(n2.isEmpty() ? " " : describe(ratings.player(n2)));
+        pairRatingLabel.setText(n1.isEmpty() || n2.isEmpty() || n1.equalsIgnoreCase(n2)
+                ? " " : "Pair " + describe(ratings.pair(n1, n2)));
+    }
+
+    private static String describe(RatingEngine.Rating r) {
+        if (r.games() == 0) return "Rating: unrated";
+        return "Rating: " + r + " (" + r.games() + (r.games() == 1 ? " game)" : " games)");
+    }
+
+    private void styleRatingLabel(JLabel lbl, int size) {
+        lbl.setFont(new Font("Segoe UI", Font.PLAIN, size));
+        lbl.setForeground(UIStyles.ACCENT);
+        lbl.setAlignmentX(Component.CENTER_ALIGNMENT);
     }
 
     // ===================== difficulty logic =====================
@@ -509,40 +575,6 @@ public class NewMatchView extends BaseGameFrame {
         lbl.setMaximumSize(infoSize);
     }
 
-    // ===================== background panel =====================
-
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
-        public BackgroundPanel(Image bg) { this.bg = bg; }
-
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (bg == null) {
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setPaint(new GradientPaint(
-                        0, 0, new Color(12, 12, 20),
-                        0, getHeight(), new Color(40, 40, 70)
-                ));
-                g2.fillRect(0, 0, getWidth(), getHeight());
-                return;
-            }
-            int imgW = bg.getWidth(null);
-            int imgH = bg.getHeight(null);
-            int panelW = getWidth();
-            int panelH = getHeight();
-            if (imgW <= 0 || imgH <= 0) return;
-
-            double scale = Math.max((double) panelW / imgW, (double) panelH / imgH);
-            int drawW = (int) (imgW * scale);
-            int drawH = (int) (imgH * scale);
-            int x = (panelW - drawW) / 2;
-            int y = (panelH - drawH) / 2;
-
-            g.drawImage(bg, x, y, drawW, drawH, this);
-        }
-    }
-
     // ===================== big button (Back / Start) =====================
 
     private static class ButtonStyled extends JButton {
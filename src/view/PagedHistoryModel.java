@@ -0,0 +1,256 @@
+package view;
+
+import model.HistoryColumns;
+import model.HistorySource;
+import model.RatingEngine;
+import model.SysData.GameRecord;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * History table model backed by a HistorySource (the live history or an archive segment)
+ * - rows are fetched on demand in pages of PAGE_SIZE records
+ * - each page is formatted once (Strings only) and kept in a bounded LRU
+ * - sorting asks the source for a view-to-store permutation on a background
+ *   thread (sorted over its columns); the table never touches rows it does not display
+ *
+ * Sorting is driven by header clicks (see HistoryView), not by a TableRowSorter,
+ * because a RowSorter reads every cell of every row
+ *
+ * The "Pair Rating" column shows the pair's current rating (not the one at match
+ * time) and is not sortable
+ */
+class PagedHistoryModel extends AbstractTableModel {
+
+    static final int COL_WON = 5;
+    static final int COL_RATING = 8;
+
+    private static final int PAGE_SIZE = 256;
+
+    /** Formatted pages kept in memory (64 * 256 = 16k rows) */
+    private static final int MAX_PAGES = 64;
+
+    private static final DateTimeFormatter DATE_FMT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+
+    static final String WON = "Won";
+    static final String LOST = "Lost";
+
+    private final String[] cols = {
+            "Player 1", "Player 2", "Difficulty",
+            "Hearts", "Points", "Won?",
+            "Time (sec)", "Date Saved", "Pair Rating"
+    };
+
+    /** Current ratings, or null to leave the rating column empty */
+    private final RatingEngine ratings;
+
+    private HistorySource source;
+    private int rowCount;   // refreshed by setFilter / setSource (HistoryView calls it when rows are added)
+
+    /** Store positions passing the current filter (ascending); null = all records */
+    private int[] base;
+
+    /** view row -> store index; null while the natural (file) order is shown */
+    private int[] order;
+    private int sortCol = -1;
+    private boolean ascending = true;
+    private boolean sorting = false;
+
+    /** Bumped by every source / filter change; a sort that started before it is redone */
+    private int generation = 0;
+
+    private final Map<Integer, String[][]> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String[][]> e) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    PagedHistoryModel(HistorySource source, RatingEngine ratings) {
+        this.source = source;
+        this.ratings = ratings;
+        this.rowCount = source.size();
+    }
+
+    /** Switches to another source; filter and sort are reset */
+    void setSource(HistorySource src, JTable table) {
+        generation++;
+        source = src;
+        base = null;
+        order = null;
+        sortCol = -1;
+        rowCount = src.size();
+        pages.clear();
+        fireTableDataChanged();
+        fireHeaderChanged(table);
+    }
+
+    HistorySource source() {
+        return source;
+    }
+
+    @Override
+    public int getRowCount() { return rowCount; }
+
+    @Override
+    public int getColumnCount() { return cols.length; }
+
+    @Override
+    public String getColumnName(int c) {
+        if (c != sortCol) return cols[c];
+        if (sorting) return cols[c] + " ...";
+        return cols[c] + (ascending ? " ▲" : " ▼");
+    }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        String[][] page = page(row / PAGE_SIZE);
+        String[] r = page[row % PAGE_SIZE];
+        return r == null ? "" : r[col];
+    }
+
+    @Override
+    public boolean isCellEditable(int r, int c) { return false; }
+
+    /** return the record shown in the given row (null while it is not available) */
+    GameRecord recordAt(int row) {
+        if (row < 0 || row >= rowCount) return null;
+        GameRecord[] recs = order == null
+                ? source.window(row, row + 1)
+                : source.rows(order, row, row + 1);
+        return recs.length == 0 ? null : recs[0];
+    }
+
+    // ============================================================
+    // Paging
+    // ============================================================
+
+    private String[][] page(int p) {
+        String[][] cached = pages.get(p);
+        if (cached != null) return cached;
+
+        int from = p * PAGE_SIZE;
+        int to = Math.min(rowCount, from + PAGE_SIZE);
+        GameRecord[] recs = order == null
+                ? source.window(from, to)
+                : source.rows(order, from, to);
+
+        String[][] rows = new String[PAGE_SIZE][];
+        for (int i = 0; i < recs.length; i++) {
+            if (recs[i] != null) rows[i] = format(recs[i]);
+        }
+        pages.put(p, rows);
+        return rows;
+    }
+
+    private String[] format(GameRecord r) {
+        return new String[]{
+                r.p1,
+                r.p2,
+                r.level.name(),
+                Integer.toString(r.hearts),
+                Integer.toString(r.points),
+                r.won ? WON : LOST,
+                Long.toString(r.timeSec),
+                DATE_FMT.format(Instant.ofEpochMilli(r.timestamp)),
+                ratings == null ? "" : ratings.pair(r.p1, r.p2).toString()
+        };
+    }
+
+    // ============================================================
+    // Filtering
+    // ============================================================
+
+    /**
+     * Shows only the given store positions (null = everything); also picks up
+     * rows added to the source since the last call
+     * An active sort is re-applied to the new subset in the background
+     */
+    void setFilter(int[] positions, JTable table) {
+        generation++;
+        base = positions;
+        if (sorting) return; // the running sort notices the new subset when it finishes
+        if (sortCol >= 0) {
+            sort(table);
+            return;
+        }
+        order = base;
+        rowCount = base == null ? source.size() : base.length;
+        pages.clear();
+        fireTableDataChanged();
+    }
+
+    /** return number of games that pass the filter */
+    int matchCount() {
+        return base == null ? source.size() : base.length;
+    }
+
+    // ============================================================
+    // Sorting
+    // ============================================================
+
+    /**
+     * Sorts by a column (second click on the same column flips the direction)
+     * The permutation is computed off the EDT; the table keeps showing the old order until then
+     */
+    void toggleSort(int col, JTable table) {
+        if (sorting || col < 0 || col == COL_RATING) return;
+
+        ascending = col != sortCol || !ascending;
+        sortCol = col;
+        sort(table);
+    }
+
+    private void sort(JTable table) {
+        HistoryColumns.Field field = HistoryColumns.Field.values()[sortCol];
+        boolean asc = ascending;
+        int[] subset = base;
+        HistorySource src = source;
+        int gen = generation;
+        sorting = true;
+        fireHeaderChanged(table);
+
+        // the source sorts over its columns; no record is built for this
+        SwingWorker<int[], Void> worker = new SwingWorker<>() {
+            @Override
+            protected int[] doInBackground() {
+                return src.sorted(field, asc, subset);
+            }
+
+            @Override
+            protected void done() {
+                sorting = false;
+                if (gen != generation) {
+                    setFilter(base, table); // source, filter or rows changed meanwhile
+                    return;
+                }
+                try {
+                    order = get();
+                    rowCount = order.length;
+                } catch (Exception ex) {
+                    System.err.println("[HISTORY] Sort failed: " + ex.getMessage());
+                }
+                pages.clear();
+                fireTableDataChanged();
+                fireHeaderChanged(table);
+            }
+        };
+        worker.execute();
+    }
+
+    private static void fireHeaderChanged(JTable table) {
+        if (table.getTableHeader() == null) return;
+        for (int c = 0; c < table.getColumnCount(); c++) {
+            table.getColumnModel().getColumn(c)
+                    .setHeaderValue(table.getModel().getColumnName(table.convertColumnIndexToModel(c)));
+        }
+        table.getTableHeader().repaint();
+    }
+}
@@ -1,17 +1,15 @@
 package view;
 
 import controller.AppController;
+import model.AppSettings;
 import model.SysData;
 import util.BackgroundMusic;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
-import java.io.FileInputStream;
-import java.net.URL;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 public class PersonalizationView extends BaseGameFrame {
 
@@ -29,10 +27,6 @@ public class PersonalizationView extends BaseGameFrame {
         ACCENTS.put("Cyan / Aqua",      new Color(0x22D3EE));
     }
 
-    // theme.properties fallback (if GameAssets helpers are unavailable)
-    private static final String THEME_FILE = "theme.properties";
-    private static final String KEY_BG = "backgroundKey"; // BG1 / BG2 / BG3 options
-
     // UI state
     private final ButtonGroup accentGroup = new ButtonGroup();
     private final JLabel titleLabel = new JLabel("Personalization");
@@ -49,7 +43,7 @@ public class PersonalizationView extends BaseGameFrame {
     private JPanel previewCard;
     private PreviewBackgroundPanel previewBgPanel;
 
-    // Tabs switch the left column (Color / Background)
+    // Tabs switch the left column (Color / Background / Music / Game)
     private final CardLayout leftCards = new CardLayout();
     private final JPanel leftCardHost = new JPanel(leftCards);
 
@@ -58,14 +52,10 @@ public class PersonalizationView extends BaseGameFrame {
         this.sys = SysData.getInstance();
 
         // Load last saved theme key (BG1/BG2/BG3)
-        pendingBackgroundKey = safeLoadBackgroundKey();
+        pendingBackgroundKey = GameAssets.loadBackgroundKey();
 
         // Screen background image (this is the PERSONALIZATION screen background)
-        Image bgImage = GameAssets.PERSON_BACKGROUND != null
-                ? GameAssets.PERSON_BACKGROUND
-                : GameAssets.MAIN_BACKGROUND;
-
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.PERSON));
         bgPanel.setLayout(new BorderLayout());
         setContentPane(bgPanel);
 
@@ -144,6 +134,7 @@ public class PersonalizationView extends BaseGameFrame {
         leftCardHost.add(buildLeftColorColumn(current), "COLOR");
         leftCardHost.add(buildLeftBackgroundColumn(), "BG");
         leftCardHost.add(buildLeftMusicColumn(), "MUSIC");
+        leftCardHost.add(buildLeftGameColumn(), "GAME");
         leftCards.show(leftCardHost, "COLOR");
 
 
@@ -202,7 +193,7 @@ public class PersonalizationView extends BaseGameFrame {
         // Save applies accent immediately, saves background key, reloads assets, returns to main menu
         saveBtn.addActionListener(e -> {
             saveAccentTheme();
-            safeSaveBackgroundKey(pendingBackgroundKey);
+            GameAssets.saveBackgroundKey(pendingBackgroundKey);
             GameAssets.reloadThemeBackgrounds();
             dispose();
             app.showMainMenu();
@@ -227,15 +218,18 @@ public class PersonalizationView extends BaseGameFrame {
         TabButton colorTab = new TabButton("Color");
         TabButton bgTab    = new TabButton("Background");
         TabButton musicTab = new TabButton("Music");
+        TabButton gameTab  = new TabButton("Game");
 
         ButtonGroup grp = new ButtonGroup();
         grp.add(colorTab);
         grp.add(bgTab);
         grp.add(musicTab);
+        grp.add(gameTab);
 
         styleTab(colorTab);
         styleTab(bgTab);
         styleTab(musicTab);
+        styleTab(gameTab);
 
         colorTab.setSelected(true);
 
@@ -252,11 +246,16 @@ public class PersonalizationView extends BaseGameFrame {
                 leftCards.show(leftCardHost, "MUSIC")
         );
 
+        gameTab.addActionListener(e ->
+                leftCards.show(leftCardHost, "GAME")
+        );
+
         JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         row.setOpaque(false);
         row.add(colorTab);
         row.add(bgTab);
         row.add(musicTab);
+        row.add(gameTab);
 
         return row;
     }
@@ -502,8 +501,7 @@ public class PersonalizationView extends BaseGameFrame {
 
     private void saveAccentTheme() {
         Color selected = getSelectedAccent();
-        sys.setAccentColor(selected);
-        UIStyles.setAccent(selected);
+        sys.setAccentColor(selected); // UIStyles follows through the AppSettings listener
         titleLabel.setForeground(UIStyles.ACCENT);
         SwingUtilities.updateComponentTreeUI(this);
         repaint();
@@ -528,11 +526,21 @@ public class PersonalizationView extends BaseGameFrame {
         musicToggle.setAlignmentX(Component.LEFT_ALIGNMENT);
         musicToggle.setSelected(BackgroundMusic.isPlaying());
 
+        AppSettings settings = AppSettings.getInstance();
         musicToggle.addActionListener(e -> {
-            if (musicToggle.isSelected())
-                BackgroundMusic.start();
-            else
+            boolean on = musicToggle.isSelected();
+            settings.set(AppSettings.MUSIC_ENABLED, on);
+            if (on) {
+                // decoding the clip is slow; keep it off the EDT
+                Thread t = new Thread(() -> {
+                    BackgroundMusic.start();
+                    BackgroundMusic.setVolume(settings.get(AppSettings.MUSIC_VOLUME) / 100f);
+                }, "music-start");
+                t.setDaemon(true);
+                t.start();
+            } else {
                 BackgroundMusic.stop();
+            }
         });
 
         leftCol.add(musicToggle);
@@ -543,11 +551,12 @@ public class PersonalizationView extends BaseGameFrame {
         volLabel.setFont(new Font("Segoe UI", Font.PLAIN, 22));
         volLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
-        JSlider volume = new JSlider(0, 100, BackgroundMusic.getVolumePercent());
+        JSlider volume = new JSlider(0, 100, settings.get(AppSettings.MUSIC_VOLUME));
         volume.setOpaque(false);
-        volume.addChangeListener(e ->
-                BackgroundMusic.setVolume(volume.getValue() / 100f)
-        );
+        volume.addChangeListener(e -> {
+            BackgroundMusic.setVolume(volume.getValue() / 100f);
+            settings.set(AppSettings.MUSIC_VOLUME, volume.getValue()); // saved once the drag settles
+        });
 
         leftCol.add(volLabel);
         leftCol.add(Box.createVerticalStrut(10));
@@ -556,6 +565,97 @@ public class PersonalizationView extends BaseGameFrame {
         return leftCol;
     }
 
+    // =================================================================================
+    // LEFT: Game Column
+    // =================================================================================
+    private JPanel buildLeftGameColumn() {
+        JPanel leftCol = new JPanel();
+        leftCol.setOpaque(false);
+        leftCol.setLayout(new BoxLayout(leftCol, BoxLayout.Y_AXIS));
+
+        JLabel title = new JLabel("Game Settings", SwingConstants.LEFT);
+        title.setForeground(Color.WHITE);
+        title.setFont(new Font("Segoe UI", Font.BOLD, 28));
+        title.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        leftCol.add(title);
+        leftCol.add(Box.createVerticalStrut(18));
+
+        JCheckBox adaptive = new JCheckBox("Adaptive question draw");
+        adaptive.setOpaque(false);
+        adaptive.setForeground(Color.WHITE);
+        adaptive.setFont(new Font("Segoe UI", Font.PLAIN, 22));
+        adaptive.setAlignmentX(Component.LEFT_ALIGNMENT);
+        adaptive.setSelected(sys.getDrawMode() == SysData.DrawMode.ADAPTIVE);
+        adaptive.addActionListener(e -> sys.setDrawMode(
+                adaptive.isSelected() ? SysData.DrawMode.ADAPTIVE : SysData.DrawMode.UNIFORM));
+
+        JLabel adaptiveHint = new JLabel("<html><body style='width:420px'>Questions often answered wrong come up more often, "
+                + "and their level follows the match difficulty</html>");
+        adaptiveHint.setForeground(new Color(255, 255, 255, 180));
+        adaptiveHint.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        adaptiveHint.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        leftCol.add(adaptive);
+        leftCol.add(Box.createVerticalStrut(6));
+        leftCol.add(adaptiveHint);
+        leftCol.add(Box.createVerticalStrut(28));
+
+        // History archiving: off unless the player picks a horizon; applied on startup or via "Archive now"
+        JLabel archiveLabel = new JLabel("Archive matches older than");
+        archiveLabel.setForeground(Color.WHITE);
+        archiveLabel.setFont(new Font("Segoe UI", Font.PLAIN, 22));
+        archiveLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        int[] horizons = {0, 90, 180, 365, 730};
+        String[] horizonNames = {"Never", "90 days", "180 days", "1 year", "2 years"};
+        JComboBox<String> horizonBox = UIStyles.dataComboBox(horizonNames, 18);
+        int current = sys.getHistoryHorizonDays();
+        for (int i = 0; i < horizons.length; i++) if (horizons[i] == current) horizonBox.setSelectedIndex(i);
+
+        JButton archiveNow = new JButton("Archive now");
+        archiveNow.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        archiveNow.setFocusPainted(false);
+        archiveNow.setEnabled(current > 0);
+
+        JLabel archiveHint = new JLabel("<html><body style='width:420px'>Old matches move to an archive; "
+                + "leaderboards still count them</html>");
+        archiveHint.setForeground(new Color(255, 255, 255, 180));
+        archiveHint.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        archiveHint.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        horizonBox.addActionListener(e -> {
+            int days = horizons[Math.max(0, horizonBox.getSelectedIndex())];
+            sys.setHistoryHorizonDays(days);
+            archiveNow.setEnabled(days > 0);
+        });
+        archiveNow.addActionListener(e -> {
+            archiveNow.setEnabled(false);
+            int days = sys.getHistoryHorizonDays();
+            CompletableFuture.supplyAsync(() -> sys.compactHistory(days))
+                    .whenComplete((n, err) -> SwingUtilities.invokeLater(() -> {
+                        archiveNow.setEnabled(sys.getHistoryHorizonDays() > 0);
+                        archiveHint.setText(err != null ? "Archiving failed: " + err.getCause()
+                                : n + " match" + (n == 1 ? "" : "es") + " archived");
+                    }));
+        });
+
+        JPanel archiveRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        archiveRow.setOpaque(false);
+        archiveRow.setAlignmentX(Component.LEFT_ALIGNMENT);
+        archiveRow.add(horizonBox);
+        archiveRow.add(Box.createHorizontalStrut(14));
+        archiveRow.add(archiveNow);
+
+        leftCol.add(archiveLabel);
+        leftCol.add(Box.createVerticalStrut(10));
+        leftCol.add(archiveRow);
+        leftCol.add(Box.createVerticalStrut(6));
+        leftCol.add(archiveHint);
+
+        return leftCol;
+    }
+
     private void updatePreviewAccent(Color accent) {
         pendingAccent = accent;
         if (miniTitle != null) miniTitle.setForeground(accent);
@@ -596,10 +696,8 @@ public class PersonalizationView extends BaseGameFrame {
                         continue;
                     }
 
-                    String n = key.substring(2); // BG1 -> 1
-                    String path = "assets/Background" + n + "/MatchBack.png";
-
-                    Image img = loadImageAny(path);
+                    // shared decoded copy (same image as the match screen of that theme)
+                    Image img = GameAssets.themeBackground(key, GameAssets.Screen.MATCH).join();
                     if (img != null) {
                         ImageIcon icon = makeThumbIcon(img, 140, 78); 
                         thumbCache.put(key, icon);
@@ -654,121 +752,23 @@ public class PersonalizationView extends BaseGameFrame {
 
 
     private void loadPreviewBackgroundAsync(String key) {
-        SwingWorker<Image, Void> worker = new SwingWorker<>() {
-            @Override
-            protected Image doInBackground() {
-                String n = key.substring(2);
-                String path = "assets/Background" + n + "/MatchBack.png";
-                return loadImageAny(path);
+        GameAssets.themeBackground(key, GameAssets.Screen.MATCH).thenAccept(img -> SwingUtilities.invokeLater(() -> {
+            if (previewBgPanel != null) {
+                previewBgPanel.setBackgroundImage(img);
             }
-
-            @Override
-            protected void done() {
-                try {
-                    Image img = get();
-                    if (previewBgPanel != null) {
-                        previewBgPanel.setBackgroundImage(img);
-                    }
-                } catch (Exception ignore) { }
-            }
-        };
-        worker.execute();
-    }
-
-    // =================================================================================
-    // Background key save/load helpers
-    // =================================================================================
-    private String safeLoadBackgroundKey() {
-        try {
-            return GameAssets.loadBackgroundKey();
-        } catch (Throwable ignore) {
-            return loadBackgroundKeyFromProperties();
-        }
-    }
-
-    private void safeSaveBackgroundKey(String key) {
-        try {
-            GameAssets.saveBackgroundKey(key);
-        } catch (Throwable ignore) {
-            saveBackgroundKeyToProperties(key);
-        }
-    }
-
-    private String loadBackgroundKeyFromProperties() {
-        Properties p = new Properties();
-        try (FileInputStream fis = new FileInputStream(THEME_FILE)) {
-            p.load(fis);
-            return p.getProperty(KEY_BG, "BG1").trim();
-        } catch (Exception ignore) {
-            return "BG1";
-        }
-    }
-
-    private void saveBackgroundKeyToProperties(String key) {
-        if (key == null || key.trim().isEmpty()) return;
-        Properties p = new Properties();
-        try (FileInputStream fis = new FileInputStream(THEME_FILE)) {
-            p.load(fis);
-        } catch (Exception ignore) { }
-
-        p.setProperty(KEY_BG, key.trim());
-
-        try (java.io.FileOutputStream fos = new java.io.FileOutputStream(THEME_FILE)) {
-            p.store(fos, "Theme settings");
-        } catch (Exception ex) {
-            System.err.println("[THEME] Failed saving backgroundKey: " + ex.getMessage());
-        }
-    }
-
-    private Image loadImageAny(String path) {
-        try {
-            URL cp = getClass().getClassLoader().getResource(path);
-            if (cp != null) return new ImageIcon(cp).getImage();
-
-            File f = new File(path);
-            if (f.exists()) return new ImageIcon(f.getAbsolutePath()).getImage();
-        } catch (Exception ignore) { }
-        return null;
+        }));
     }
 
     // =================================================================================
     // Panels / Controls
     // =================================================================================
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
-        BackgroundPanel(Image bg) { this.bg = bg; }
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (bg == null) return;
-
-            int iw = bg.getWidth(null);
-            int ih = bg.getHeight(null);
-            if (iw <= 0 || ih <= 0) return;
-
-            double scale = Math.max((double) getWidth() / iw, (double) getHeight() / ih);
-            int dw = (int) (iw * scale);
-            int dh = (int) (ih * scale);
-            g.drawImage(bg, (getWidth() - dw) / 2, (getHeight() - dh) / 2, dw, dh, this);
-        }
-    }
-
     private static class PreviewBackgroundPanel extends JPanel {
         private Image bg;
         void setBackgroundImage(Image bg) { this.bg = bg; repaint(); }
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            if (bg == null) return;
-
-            int iw = bg.getWidth(null);
-            int ih = bg.getHeight(null);
-            if (iw <= 0 || ih <= 0) return;
-
-            double scale = Math.max((double) getWidth() / iw, (double) getHeight() / ih);
-            int dw = (int) (iw * scale);
-            int dh = (int) (ih * scale);
-            g.drawImage(bg, (getWidth() - dw) / 2, (getHeight() - dh) / 2, dw, dh, this);
+            BackgroundRenderer.getInstance().paint(g, this, bg);
         }
     }
 
@@ -2,14 +2,24 @@ package view;
 
 import javax.swing.*;
 import javax.swing.border.LineBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import controller.AppController;
 import controller.QuestionController;
 import model.Question;
+import model.QuestionBankDiff;
+import model.QuestionImporter;
+import model.QuestionStats;
 
 /**
  * Management window for all questions. 
@@ -20,6 +30,9 @@ public class QuestionManagerView extends BaseGameFrame {
     private final QuestionTable table; 
     private final QuestionTableModel model;
 
+    /* Reloads the table when questions.csv is edited outside the app */
+    private final Consumer<QuestionBankDiff> fileListener = this::onQuestionsFileChanged;
+
     private static final Color TABLE_BG = new Color(25, 28, 60); 
     private static final Color TABLE_HEADER_BG = new Color(30, 32, 70); 
 
@@ -27,8 +40,7 @@ public class QuestionManagerView extends BaseGameFrame {
         super(AppController.getInstance(), "Question Manager");
         this.controller = controller;
         // =====  Background Setup =====
-        Image bgImage = GameAssets.MATCH_BACKGROUND; 
-        BackgroundPanel bgPanel = new BackgroundPanel(bgImage);
+        BackgroundPanel bgPanel = new BackgroundPanel(GameAssets.background(GameAssets.Screen.MATCH));
         bgPanel.setLayout(new GridBagLayout());
         setContentPane(bgPanel);
 
@@ -82,8 +94,9 @@ public class QuestionManagerView extends BaseGameFrame {
         centerFrame.add(top, BorderLayout.NORTH);
         
         // ===== Table Setup =====
-        model = new QuestionTableModel(controller.list());
+        model = new QuestionTableModel(controller.list(), controller.stats());
         table = new QuestionTable(model); 
+        installSorter();
         
         table.setFont(new Font("Segoe UI", Font.PLAIN, 16));
         table.setForeground(Color.WHITE);
@@ -108,18 +121,43 @@ public class QuestionManagerView extends BaseGameFrame {
         RoundedButton btnAdd = new RoundedButton("Add Question", 220, 60, 20);
         RoundedButton btnEdit = new RoundedButton("Edit Selected", 220, 60, 20);
         RoundedButton btnDelete = new RoundedButton("Delete Selected", 220, 60, 20);
+        RoundedButton btnImport = new RoundedButton("Import Pack", 220, 60, 20);
 
         btnAdd.addActionListener(e -> onAdd());
         btnEdit.addActionListener(e -> onEdit());
         btnDelete.addActionListener(e -> onDelete());
+        btnImport.addActionListener(e -> onImport(btnImport));
 
         buttonsRow.add(btnAdd);
         buttonsRow.add(btnEdit);
         buttonsRow.add(btnDelete);
+        buttonsRow.add(btnImport);
         centerFrame.add(buttonsRow, BorderLayout.SOUTH);
 
         setupTableColumnWidths();
         SwingUtilities.invokeLater(() -> table.calculateOptimalDimensions());
+
+        controller.addChangeListener(fileListener);
+    }
+
+    /* Called off the EDT by SysData's file watcher */
+    private void onQuestionsFileChanged(QuestionBankDiff diff) {
+        SwingUtilities.invokeLater(() -> model.reload(controller.list(), controller.stats()));
+    }
+
+    /* Reloads rows and statistics once queued statistics updates (a delete remaps ids) are applied */
+    private void reloadTable() {
+        controller.statsAfterUpdates().thenAccept(stats -> SwingUtilities.invokeLater(() -> {
+            if (!isDisplayable()) return;
+            model.reload(controller.list(), stats);
+            table.calculateOptimalDimensions();
+        }));
+    }
+
+    @Override
+    public void dispose() {
+        controller.removeChangeListener(fileListener);
+        super.dispose();
     }
 
     // --- HELPER METHODS AND CRUD HANDLERS ---
@@ -132,6 +170,31 @@ public class QuestionManagerView extends BaseGameFrame {
         table.getColumnModel().getColumn(1).setPreferredWidth(300);
     }
 
+    /** Sortable columns; numeric columns sort by value, "never answered" (-1) is shown as "-" */
+    private void installSorter() {
+        TableRowSorter<QuestionTableModel> sorter = new TableRowSorter<>(model);
+        sorter.setComparator(0, Comparator.comparingInt((String id) -> {
+            try { return Integer.parseInt(id.trim()); } catch (NumberFormatException e) { return Integer.MAX_VALUE; }
+        }));
+        Comparator<Number> numeric = Comparator.comparingDouble(Number::doubleValue);
+        for (int c = QuestionTableModel.FIRST_STATS_COL; c < model.getColumnCount(); c++) {
+            sorter.setComparator(c, numeric);
+        }
+        table.setRowSorter(sorter);
+
+        DefaultTableCellRenderer statsRenderer = new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                boolean none = value instanceof Number n && n.doubleValue() < 0;
+                super.setValue(none ? "-" : value);
+            }
+        };
+        statsRenderer.setHorizontalAlignment(SwingConstants.CENTER);
+        for (int c = QuestionTableModel.FIRST_STATS_COL; c < model.getColumnCount(); c++) {
+            table.getColumnModel().getColumn(c).setCellRenderer(statsRenderer);
+        }
+    }
+
     private void onAdd() {
         int maxId = 0;
         for (Question q : controller.list()) {
@@ -143,8 +206,7 @@ public class QuestionManagerView extends BaseGameFrame {
         Question q = QuestionEditorDialog.showDialog(this, null, maxId); 
         if (q != null) {
             controller.add(q);
-            model.reload(controller.list());
-            SwingUtilities.invokeLater(() -> table.calculateOptimalDimensions());
+            reloadTable();
         }
     }
 
@@ -154,12 +216,11 @@ public class QuestionManagerView extends BaseGameFrame {
             StyledAlertDialog.show(this, "Missing Selection", "Select a row to edit.", false);
             return;
         }
-        Question selected = model.getAt(row);
+        Question selected = model.getAt(table.convertRowIndexToModel(row));
         Question updated = QuestionEditorDialog.showDialog(this, selected, 0); 
         if (updated != null) {
             controller.replace(selected.id(), updated);
-            model.reload(controller.list());
-            SwingUtilities.invokeLater(() -> table.calculateOptimalDimensions());
+            reloadTable();
         }
     }
 
@@ -173,46 +234,94 @@ public class QuestionManagerView extends BaseGameFrame {
             StyledAlertDialog.show(this, "Cannot Delete", "Minimum 20 questions required.", true);
             return;
         }
-        Question selected = model.getAt(row);
+        Question selected = model.getAt(table.convertRowIndexToModel(row));
         int ok = StyledConfirmDialog.show(this, "Delete question " + selected.id() + "?", JOptionPane.OK_CANCEL_OPTION);
         if (ok == JOptionPane.OK_OPTION) {
             controller.delete(selected.id());
-            model.reload(controller.list());
-            SwingUtilities.invokeLater(() -> table.calculateOptimalDimensions());
+            reloadTable();
         }
     }
 
-    // --- INNER CLASSES ---
+    /** Max. number of rejected rows listed in the import report */
+    private static final int REPORT_ERROR_LINES = 12;
 
-    private static class BackgroundPanel extends JPanel {
-        private final Image bg;
-        public BackgroundPanel(Image bg) { this.bg = bg; }
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            if (bg != null) {
-                double scale = Math.max((double) getWidth() / bg.getWidth(null), (double) getHeight() / bg.getHeight(null));
-                int dW = (int) (bg.getWidth(null) * scale);
-                int dH = (int) (bg.getHeight(null) * scale);
-                g.drawImage(bg, (getWidth() - dW) / 2, (getHeight() - dH) / 2, dW, dH, this);
+    private void onImport(JButton source) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Question Pack");
+        chooser.setFileFilter(new FileNameExtensionFilter("Question packs (CSV, JSON)", "csv", "json"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        Path file = chooser.getSelectedFile().toPath();
+        source.setEnabled(false);
+
+        // reading, validation and the single write run off the EDT
+        SwingWorker<QuestionController.ImportReport, Void> worker = new SwingWorker<>() {
+            @Override
+            protected QuestionController.ImportReport doInBackground() throws Exception {
+                return controller.importPack(file);
             }
+
+            @Override
+            protected void done() {
+                source.setEnabled(true);
+                try {
+                    showImportReport(get());
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    StyledAlertDialog.show(QuestionManagerView.this, "Import Failed",
+                            "Could not read " + file.getFileName(), cause.getMessage(), true);
+                }
+                reloadTable();
+            }
+        };
+        worker.execute();
+    }
+
+    private void showImportReport(QuestionController.ImportReport r) {
+        String msg = r.imported() + " imported, " + r.duplicates() + " duplicates skipped, "
+                + r.errors().size() + " rejected";
+
+        StringBuilder detail = new StringBuilder();
+        int shown = Math.min(REPORT_ERROR_LINES, r.errors().size());
+        for (int i = 0; i < shown; i++) {
+            QuestionImporter.LineError e = r.errors().get(i);
+            detail.append("Line ").append(e.line()).append(": ").append(e.message()).append('\n');
+        }
+        if (r.errors().size() > shown) {
+            detail.append("... and ").append(r.errors().size() - shown).append(" more");
         }
+
+        StyledAlertDialog.show(this, "Import Finished", msg, detail.toString(), r.imported() == 0);
     }
 
+    // --- INNER CLASSES ---
+
     private static class QuestionTableModel extends AbstractTableModel {
-        private final String[] cols = {"ID", "Text", "Level", "A (Opt1)", "B (Opt2)", "C (Opt3)", "D (Opt4)", "Correct"};
+        static final int FIRST_STATS_COL = 8;
+
+        private final String[] cols = {"ID", "Text", "Level", "A (Opt1)", "B (Opt2)", "C (Opt3)", "D (Opt4)", "Correct",
+                "Attempts", "Correct %", "Avg Time (s)"};
         private List<Question> data = new ArrayList<>();
+        private Map<String, QuestionStats.Entry> stats = Map.of();
 
-        QuestionTableModel(List<Question> initial) { reload(initial); }
-        public void reload(List<Question> qs) {
+        QuestionTableModel(List<Question> initial, Map<String, QuestionStats.Entry> stats) { reload(initial, stats); }
+        public void reload(List<Question> qs, Map<String, QuestionStats.Entry> st) {
             data = new ArrayList<>(qs);
             data.sort((a, b) -> Integer.compare(Integer.parseInt(a.id()), Integer.parseInt(b.id())));
+            stats = (st == null) ? Map.of() : st;
             fireTableDataChanged();
         }
         public Question getAt(int row) { return data.get(row); }
         @Override public int getRowCount() { return data.size(); }
         @Override public int getColumnCount() { return cols.length; }
         @Override public String getColumnName(int c) { return cols[c]; }
+        @Override public Class<?> getColumnClass(int c) {
+            return switch (c) {
+                case 8 -> Integer.class;
+                case 9, 10 -> Double.class;
+                default -> String.class;
+            };
+        }
         @Override public Object getValueAt(int row, int col) {
             Question q = data.get(row);
             return switch(col) {
@@ -227,6 +336,12 @@ public class QuestionManagerView extends BaseGameFrame {
                     case 0 -> "A"; case 1 -> "B"; case 2 -> "C"; case 3 -> "D";
                     default -> "?";
                 };
+                // -1 marks "never answered"
+                case 8 -> { QuestionStats.Entry e = stats.get(q.id()); yield e == null ? 0 : e.attempts(); }
+                case 9 -> { QuestionStats.Entry e = stats.get(q.id());
+                            yield e == null || e.attempts() == 0 ? -1.0 : Math.round(e.correctRate() * 1000) / 10.0; }
+                case 10 -> { QuestionStats.Entry e = stats.get(q.id());
+                             yield e == null || e.attempts() == 0 ? -1.0 : Math.round(e.avgMillis() / 100.0) / 10.0; }
                 default -> "";
             };
         }
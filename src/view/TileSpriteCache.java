@@ -0,0 +1,143 @@
+package view;
+
+import model.AppSettings;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * TileSpriteCache (Singleton)
+ * Pre-rendered cell tiles (glow, rounded fill and border) for BoardCanvas
+ *
+ * Each variant is drawn once into a translucent compatible image keyed by
+ * (base color, state, size, scale factor) and afterwards only copied, so painting
+ * a board is a series of image blits instead of antialiased shape fills with new
+ * Color objects. The scale factor (HiDPI) is part of the key, so blits are 1:1 in
+ * device pixels
+ *
+ * The cache is cleared when the accent color changes and when a board is resized;
+ * it holds at most MAX_SPRITES images (least recently used go first)
+ */
+public final class TileSpriteCache {
+
+    // ---------- Tile states ----------
+    public static final int NORMAL = 0;
+    public static final int HOVER = 1;
+    public static final int PRESSED = 2;
+    public static final int DISABLED = 3;
+
+    /** Two boards * a few colors * four states leaves plenty of room */
+    private static final int MAX_SPRITES = 128;
+
+    static final Color DISABLED_FILL = new Color(120, 120, 120, 120);
+
+    private record Key(int argb, int state, int w, int h, int scalePct) {}
+
+    private static TileSpriteCache INSTANCE;
+
+    public static synchronized TileSpriteCache getInstance() {
+        if (INSTANCE == null) INSTANCE = new TileSpriteCache();
+        return INSTANCE;
+    }
+
+    private final Map<Key, Image> sprites = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Image> e) {
+            return size() > MAX_SPRITES;
+        }
+    };
+
+    private TileSpriteCache() {
+        AppSettings.getInstance().addListener(AppSettings.ACCENT_RGB, v -> invalidate());
+    }
+
+    /** Drops every sprite (theme or size change) */
+    public synchronized void invalidate() {
+        sprites.clear();
+    }
+
+    /**
+     * Draws a tile at (x, y) with the size w x h from the cache
+     * @param g target; its transform gives the scale factor
+     */
+    public void draw(Graphics2D g, Color base, int state, int x, int y, int w, int h) {
+        double scale = g.getTransform().getScaleX();
+        Image img = sprite(g.getDeviceConfiguration(), base, state, w, h, scale);
+        g.drawImage(img, x, y, w, h, null);
+    }
+
+    private synchronized Image sprite(GraphicsConfiguration gc, Color base, int state, int w, int h, double scale) {
+        Color fill = state == DISABLED ? DISABLED_FILL : base;
+        Key key = new Key(fill.getRGB(), state, w, h, (int) Math.round(scale * 100));
+
+        Image img = sprites.get(key);
+        if (img == null) {
+            img = render(gc, fill, state, w, h, scale);
+            sprites.put(key, img);
+        }
+        return img;
+    }
+
+    private static Image render(GraphicsConfiguration gc, Color base, int state, int w, int h, double scale) {
+        int pw = Math.max(1, (int) Math.ceil(w * scale));
+        int ph = Math.max(1, (int) Math.ceil(h * scale));
+
+        BufferedImage img = (gc != null && gc.getDevice().getType() != GraphicsDevice.TYPE_PRINTER)
+                ? gc.createCompatibleImage(pw, ph, Transparency.TRANSLUCENT)
+                : new BufferedImage(pw, ph, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g2 = img.createGraphics();
+        try {
+            g2.scale(scale, scale);
+            paintTile(g2, base, state, w, h);
+        } finally {
+            g2.dispose();
+        }
+        return img;
+    }
+
+    /** The tile look (formerly CellButton background and border) */
+    private static void paintTile(Graphics2D g2, Color base, int state, int w, int h) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2.clipRect(0, 0, w, h);
+
+        boolean hover = state == HOVER;
+        boolean enabled = state != DISABLED;
+
+        Color fill = base;
+        if (state == PRESSED) {
+            fill = darken(base, 0.15f);
+        } else if (hover) {
+            fill = brighten(base, 0.20f);
+        }
+
+        // subtle glow on hover
+        if (enabled) {
+            Color glow = brighten(fill, hover ? 0.45f : 0.30f);
+            g2.setColor(new Color(glow.getRed(), glow.getGreen(), glow.getBlue(), 90));
+            g2.fillRoundRect(-2, -2, w + 4, h + 4, 20, 20);
+        }
+
+        g2.setColor(fill);
+        g2.fillRoundRect(0, 0, w - 4, h - 4, 16, 16);
+
+        g2.setColor(new Color(255, 255, 255, hover ? 160 : 100));
+        g2.drawRoundRect(0, 0, w - 4, h - 4, 16, 16);
+    }
+
+    private static Color brighten(Color c, float amount) {
+        int r = (int) Math.min(255, c.getRed()   + 255 * amount);
+        int g = (int) Math.min(255, c.getGreen() + 255 * amount);
+        int b = (int) Math.min(255, c.getBlue()  + 255 * amount);
+        return new Color(r, g, b, c.getAlpha());
+    }
+
+    private static Color darken(Color c, float amount) {
+        int r = (int) Math.max(0, c.getRed()   - 255 * amount);
+        int g = (int) Math.max(0, c.getGreen() - 255 * amount);
+        int b = (int) Math.max(0, c.getBlue()  - 255 * amount);
+        return new Color(r, g, b, c.getAlpha());
+    }
+}
@@ -2,98 +2,230 @@ package view;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 
 /**
  * Toast is a lightweight utility class for displaying short, temporary
  * notification messages on top of the game window
  * The toast appears near the bottom of the given frame, stays visible
- * for a short time, and then disappears automatically
- * Only one toast can be displayed at a time
+ * for a short time, and then fades out automatically
+ *
+ * Each frame gets one reusable overlay in its layered pane (POPUP_LAYER), so
+ * showing a toast never creates a window. Messages are queued by priority:
+ * - the same text as a shown or waiting message only extends / is merged
+ * - a higher priority message replaces the shown one at once
+ * - otherwise it waits; an equal priority message cuts the shown one short
+ *   (MIN_HOLD_MS), a lower priority one waits until it is over
+ * Fading runs on the AnimationClock
  */
 public class Toast {
 
-    /** The currently displayed toast window (if any) */
-    private static JWindow window;
+    // ---------- Priorities ----------
+    /** Hints about an ignored click */
+    public static final int HINT = 0;
+    /** Results of the player's actions (default) */
+    public static final int INFO = 1;
 
-    /** Timer responsible for hiding the toast after a fixed delay */
-    private static Timer hideTimer;
+    private static final int FADE_IN_MS = 150;
+    private static final int HOLD_MS = 2200;
+    private static final int MIN_HOLD_MS = 700;
+    private static final int FADE_OUT_MS = 250;
+
+    /** Waiting messages per frame (lowest priority / oldest dropped first) */
+    private static final int MAX_QUEUED = 4;
+
+    private static final int BOTTOM_GAP = 60;
+    private static final Insets PAD = new Insets(10, 16, 10, 16);
+    private static final Color BG = new Color(0, 0, 0, 210);
+    private static final Color FG = new Color(230, 235, 255);
 
     /**
      * Displays a toast message centered horizontally above the bottom
      * of the given owner frame
-     * If another toast is already visible, it is immediately removed
-     * and replaced by the new one
      */
     public static void show(JFrame owner, String message) {
+        show(owner, message, INFO);
+    }
+
+    /**
+     * Displays or queues a toast message with the given priority (HINT / INFO)
+     */
+    public static void show(JFrame owner, String message, int priority) {
+        if (owner == null || message == null || message.isEmpty()) return;
+        Layer.of(owner).post(message, priority);
+    }
+
+    private record Message(String text, int priority, long seq) {}
+
+    /**
+     * The overlay of one frame: paints the bubble itself (no child components)
+     * and is sized to the bubble only, so repaints stay small
+     */
+    private static final class Layer extends JComponent implements AnimationClock.Animation {
 
-        // Stop and remove any previously scheduled hide operation
-        if (hideTimer != null) {
-            hideTimer.stop();
-            hideTimer = null;
+        private static final String KEY = Layer.class.getName();
+
+        private final JLayeredPane pane;
+        private final PriorityQueue<Message> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Message::priority).reversed().thenComparingLong(Message::seq));
+        private long seq = 0;
+
+        private Message current;
+        private long shownAt;   // when current started to fade in
+        private long hideAt;    // when current starts to fade out
+        private float alpha;
+
+        static Layer of(JFrame owner) {
+            JRootPane root = owner.getRootPane();
+            Object l = root.getClientProperty(KEY);
+            if (l instanceof Layer layer) return layer;
+
+            Layer layer = new Layer(owner.getLayeredPane());
+            root.putClientProperty(KEY, layer);
+            return layer;
         }
 
-        // Dispose the previous toast window if it still exists
-        if (window != null) {
-            window.setVisible(false);
-            window.dispose();
-            window = null;
+        private Layer(JLayeredPane pane) {
+            this.pane = pane;
+            setOpaque(false);
+            setFont(UIStyles.HUD_FONT);
+            setVisible(false);
+            pane.add(this, JLayeredPane.POPUP_LAYER);
+            pane.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    layoutBubble();
+                }
+            });
         }
 
-        // Create a borderless window attached to the owner frame
-        window = new JWindow(owner);
+        void post(String text, int priority) {
+            long now = AnimationClock.now();
+
+            if (current != null && current.text.equals(text)) {
+                // repeated message: keep it up longer instead of showing it again
+                if (now >= hideAt) {
+                    // already fading out: fade back in from the current opacity
+                    shownAt = now - (long) (alpha * FADE_IN_MS);
+                    hideAt = now + HOLD_MS;
+                } else {
+                    hideAt = Math.max(hideAt, now + HOLD_MS);
+                }
+                AnimationClock.getInstance().start(this);
+                return;
+            }
+            for (Message m : queue) {
+                if (m.text.equals(text)) return;
+            }
 
-        // Custom panel responsible for drawing a rounded, semi-transparent background
-        JPanel panel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                                    RenderingHints.VALUE_ANTIALIAS_ON);
+            Message msg = new Message(text, priority, seq++);
+            if (current == null) {
+                display(msg, now, true);
+            } else if (priority > current.priority) {
+                display(msg, now, false);
+            } else {
+                queue.add(msg);
+                trimQueue();
+                if (priority == current.priority) {
+                    hideAt = Math.min(hideAt, Math.max(now, shownAt + FADE_IN_MS + MIN_HOLD_MS));
+                }
+            }
+            AnimationClock.getInstance().start(this);
+        }
+
+        private void trimQueue() {
+            while (queue.size() > MAX_QUEUED) {
+                Message worst = null;
+                for (Message m : queue) {
+                    if (worst == null || m.priority < worst.priority
+                            || (m.priority == worst.priority && m.seq < worst.seq)) {
+                        worst = m;
+                    }
+                }
+                queue.remove(worst);
+            }
+        }
+
+        /** @param fadeIn false when replacing a visible message (text swaps in place) */
+        private void display(Message msg, long now, boolean fadeIn) {
+            current = msg;
+            shownAt = fadeIn ? now : now - FADE_IN_MS;
+            hideAt = shownAt + FADE_IN_MS + HOLD_MS;
+            if (fadeIn) alpha = 0f;
+            layoutBubble();
+            setVisible(true);
+        }
+
+        @Override
+        public boolean tick(long now) {
+            if (current == null) return false;
+
+            if (now >= hideAt && !queue.isEmpty()) {
+                // next message swaps in without fading out first
+                display(queue.poll(), now, false);
+                return true;
+            }
+
+            float a;
+            if (now < shownAt + FADE_IN_MS) {
+                a = (now - shownAt) / (float) FADE_IN_MS;
+            } else if (now < hideAt) {
+                a = 1f;
+            } else {
+                a = 1f - (now - hideAt) / (float) FADE_OUT_MS;
+            }
+            a = Math.max(0f, Math.min(1f, a));
+
+            if (a != alpha) {
+                alpha = a;
+                AnimationClock.getInstance().markDirty(this);
+            }
+            if (now >= hideAt + FADE_OUT_MS) {
+                current = null;
+                setVisible(false);
+                return false;
+            }
+            return true;
+        }
+
+        /** Centers the bubble horizontally, slightly above the bottom of the frame */
+        private void layoutBubble() {
+            if (current == null) return;
+            FontMetrics fm = getFontMetrics(getFont());
+            int w = Math.min(pane.getWidth(), fm.stringWidth(current.text) + PAD.left + PAD.right);
+            int h = fm.getHeight() + PAD.top + PAD.bottom;
+            int x = (pane.getWidth() - w) / 2;
+            int y = pane.getHeight() - h - BOTTOM_GAP;
+
+            setBounds(x, y, w, h);
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (current == null || alpha <= 0f) return;
+            Graphics2D g2 = (Graphics2D) g.create();
+            try {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                g2.setComposite(AlphaComposite.SrcOver.derive(alpha));
 
                 // Dark translucent background
-                g2.setColor(new Color(0, 0, 0, 210));
+                g2.setColor(BG);
                 g2.fillRoundRect(0, 0, getWidth(), getHeight(), 18, 18);
+
+                g2.setColor(FG);
+                g2.setFont(getFont());
+                FontMetrics fm = g2.getFontMetrics();
+                int tx = (getWidth() - fm.stringWidth(current.text)) / 2;
+                int ty = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
+                g2.drawString(current.text, tx, ty);
+            } finally {
                 g2.dispose();
             }
-        };
-
-        panel.setOpaque(false);
-        panel.setBorder(BorderFactory.createEmptyBorder(10, 16, 10, 16));
-        panel.setLayout(new BorderLayout());
-
-        // Label that displays the toast message
-        JLabel lbl = new JLabel(message);
-        lbl.setForeground(new Color(230, 235, 255));
-        lbl.setFont(UIStyles.HUD_FONT);
-        panel.add(lbl, BorderLayout.CENTER);
-
-        // Make the window background fully transparent
-        window.setBackground(new Color(0, 0, 0, 0));
-        window.setContentPane(panel);
-        window.pack();
-
-        // Position the toast centered horizontally, slightly above the bottom of the owner frame
-        Point p = owner.getLocationOnScreen();
-        int x = p.x + (owner.getWidth() - window.getWidth()) / 2;
-        int y = p.y + owner.getHeight() - window.getHeight() - 60;
-        window.setLocation(x, y);
-
-        // Ensure the toast is always visible above the game window
-        window.setAlwaysOnTop(true);
-        window.setVisible(true);
-
-        // Schedule automatic hiding of the toast after ~2.2 seconds
-        hideTimer = new Timer(2200, e -> {
-            if (window != null) {
-                window.setVisible(false);
-                window.dispose();
-                window = null;
-            }
-            hideTimer = null;
-        });
-
-        hideTimer.setRepeats(false);
-        hideTimer.start();
+        }
     }
 }
-
@@ -2,6 +2,8 @@ package view;
 
 import javax.swing.*;
 import javax.swing.border.Border;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.JTableHeader;
 import java.awt.*;
 
 public final class UIStyles {
@@ -32,6 +34,14 @@ public final class UIStyles {
     // translucent HUD panel
     public static final Color HUD_PANEL_BG = new Color(0, 0, 0, 110);
 
+    // data tables (History, Leaderboard)
+    public static final Color TABLE_BG     = new Color(15, 18, 40);
+    public static final Color ROW_EVEN     = new Color(25, 28, 60);
+    public static final Color ROW_ODD      = new Color(20, 22, 50);
+    public static final Color ROW_SELECTED = new Color(80, 120, 255, 200);
+    public static final Color FIELD_BG     = new Color(30, 32, 70);
+    private static final Color CARD_BG     = new Color(0, 0, 0, 180);
+
     // ---------- Theme API ----------
     public static void setAccent(Color c) {
         if (c == null) return;
@@ -75,6 +85,95 @@ public final class UIStyles {
         return p;
     }
 
+    // ---------- Data screens (History, Leaderboard) ----------
+
+    /** Rounded dark card that holds a data table and its controls */
+    public static JPanel dataCard(int width, int height) {
+        JPanel card = new JPanel(new BorderLayout(10, 10)) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                Graphics2D g2 = (Graphics2D) g.create();
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                        RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(CARD_BG);
+                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 30, 30);
+                g2.dispose();
+            }
+        };
+        card.setOpaque(false);
+        card.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        card.setPreferredSize(new Dimension(width, height));
+        return card;
+    }
+
+    /** Dark combo box used in the filter bars */
+    public static JComboBox<String> dataComboBox(String[] items, int fontSize) {
+        JComboBox<String> b = new JComboBox<>(items);
+        b.setFont(new Font("Segoe UI", Font.PLAIN, fontSize));
+        b.setForeground(Color.WHITE);
+        b.setBackground(FIELD_BG);
+        return b;
+    }
+
+    /**
+     * Table look of the data screens: fonts, colors and header; cells are drawn by
+     * a DataCellRenderer (centered, striped rows)
+     */
+    public static void styleDataTable(JTable table, DataCellRenderer renderer) {
+        table.setFillsViewportHeight(true);
+        table.setRowHeight(34);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        table.setForeground(Color.WHITE);
+        table.setBackground(TABLE_BG);
+        table.setGridColor(new Color(255, 255, 255, 40));
+        table.setShowHorizontalLines(true);
+        table.setShowVerticalLines(false);
+
+        JTableHeader header = table.getTableHeader();
+        header.setReorderingAllowed(false);
+        header.setPreferredSize(new Dimension(header.getPreferredSize().width, 44));
+        header.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        header.setForeground(Color.WHITE);
+        header.setBackground(FIELD_BG);
+        header.setOpaque(true);
+
+        table.setDefaultRenderer(Object.class, renderer);
+    }
+
+    /** Scroll pane for a data table (no border, table-colored viewport) */
+    public static JScrollPane dataScrollPane(JTable table) {
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setBorder(BorderFactory.createEmptyBorder());
+        scroll.getViewport().setOpaque(true);
+        scroll.getViewport().setBackground(TABLE_BG);
+        return scroll;
+    }
+
+    /**
+     * Centered cell with striped rows; override foreground(...) for colored cells
+     */
+    public static class DataCellRenderer extends DefaultTableCellRenderer {
+        @Override
+        public Component getTableCellRendererComponent(
+                JTable tbl, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(
+                    tbl, value, isSelected, hasFocus, row, column);
+            setHorizontalAlignment(CENTER);
+            setOpaque(true);
+            c.setBackground(isSelected ? ROW_SELECTED : (row % 2 == 0 ? ROW_EVEN : ROW_ODD));
+            c.setForeground(foreground(value, row, column));
+            c.setFont(tbl.getFont());
+            return c;
+        }
+
+        /** Text color of a cell (white by default) */
+        protected Color foreground(Object value, int row, int column) {
+            return Color.WHITE;
+        }
+    }
+
     public static String formatTimeMMSS(long l) {
         int mm = (int) (l / 60);
         int ss = (int) (l % 60);